@@ -0,0 +1,224 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.common.Scope;
+import io.opencensus.integration.jdbc.Observability.PreparedSql;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.integration.jdbc.Observability.TrackingOperation;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * The calls that the advice woven into JDBC drivers by the agent makes, which track driver calls
+ * with the same {@link TrackingOperation}s as the OcWrap* wrappers.
+ *
+ * <p>Advice is inlined into the driver classes, which live in another runtime package, so this
+ * class and its methods are public. It is part of the agent and isn't meant to be called by
+ * applications. It is in the package of {@link Observability} to reach its tracking internals, and
+ * is bundled with them in the agent jar so that both are loaded by the same class loader.
+ *
+ * <p>Drivers and pools commonly implement JDBC calls by calling other JDBC calls, e.g. a pooled
+ * statement delegating to the driver's statement. Only the outermost instrumented call of a thread
+ * is tracked, so that each application call is tracked once.
+ */
+public final class AgentBridge {
+
+  private static volatile EnumSet<TraceOption> startOptions = EnumSet.noneOf(TraceOption.class);
+
+  // Whether the current thread is within a tracked call.
+  private static final ThreadLocal<boolean[]> inCall =
+      ThreadLocal.withInitial(() -> new boolean[1]);
+
+  // The SQL of the driver's PreparedStatements, which isn't available from the statements
+  // themselves. The statements are weakly referenced, so that they are collected as usual, and
+  // compared by identity, as drivers may override equals.
+  private static final WeakIdentityMap<Object, PreparedSql> preparedSqls = new WeakIdentityMap<>();
+
+  // The "java.sql.<Interface>.<method>" names of the instrumented methods, built once per method.
+  private static final ConcurrentHashMap<String, String> statementMethods =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<String, String> preparedStatementMethods =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<String, String> callableStatementMethods =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<String, String> connectionMethods =
+      new ConcurrentHashMap<>();
+
+  private AgentBridge() {}
+
+  public static void setTraceOptions(EnumSet<TraceOption> opts) {
+    startOptions = EnumSet.copyOf(opts);
+  }
+
+  // Called after a driver Connection prepared a statement.
+  public static void prepared(@Nullable Object statement, @Nullable String sql) {
+    if (statement != null && sql != null) {
+      preparedSqls.put(statement, Observability.prepareSql(startOptions, sql));
+    }
+  }
+
+  // Called before a Statement method taking SQL, e.g. executeQuery(String).
+  @Nullable
+  public static Object enterStatement(Object statement, String method, @Nullable String sql) {
+    if (!enterCall()) {
+      return null;
+    }
+    try {
+      return new Call(
+          Observability.createRoundtripTrackingSpan(
+              statementMethod(statement, method), startOptions, sql));
+    } catch (Throwable t) {
+      exitCall();
+      throw t;
+    }
+  }
+
+  // Called before a PreparedStatement method executing its prepared SQL, e.g. executeQuery().
+  @Nullable
+  public static Object enterPreparedStatement(Object statement, String method) {
+    if (!enterCall()) {
+      return null;
+    }
+    try {
+      PreparedSql sql = preparedSqls.get(statement);
+      return new Call(
+          Observability.createRoundtripTrackingSpan(
+              statementMethod(statement, method),
+              startOptions,
+              sql == null ? PreparedSql.NONE : sql));
+    } catch (Throwable t) {
+      exitCall();
+      throw t;
+    }
+  }
+
+  // Called before a Connection method, e.g. commit().
+  @Nullable
+  public static Object enterConnection(String method) {
+    if (!enterCall()) {
+      return null;
+    }
+    try {
+      return new Call(
+          Observability.createRoundtripTrackingSpan(
+              methodName(connectionMethods, "java.sql.Connection.", method), startOptions));
+    } catch (Throwable t) {
+      exitCall();
+      throw t;
+    }
+  }
+
+  // Called before ResultSet.next().
+  @Nullable
+  public static Object enterResultSetNext() {
+    if (!enterCall()) {
+      return null;
+    }
+    try {
+      return new Call(
+          Observability.createRoundtripTrackingSpan("java.sql.ResultSet.next", startOptions));
+    } catch (Throwable t) {
+      exitCall();
+      throw t;
+    }
+  }
+
+  // Called after the method whose enter returned call, with what it returned or threw.
+  public static void exit(@Nullable Object call, @Nullable Object returned, @Nullable Throwable t) {
+    if (call == null) {
+      return;
+    }
+    try {
+      ((Call) call).end(returned, t);
+    } finally {
+      exitCall();
+    }
+  }
+
+  // VisibleForTesting
+  @Nullable
+  static PreparedSql preparedSql(Object statement) {
+    return preparedSqls.get(statement);
+  }
+
+  private static boolean enterCall() {
+    boolean[] current = inCall.get();
+    if (current[0]) {
+      return false;
+    }
+    current[0] = true;
+    return true;
+  }
+
+  // Leaves the call of the current thread, also when tracking it failed: the advice swallows what
+  // the bridge throws, and the thread's next calls must still be tracked.
+  private static void exitCall() {
+    inCall.get()[0] = false;
+  }
+
+  private static String statementMethod(Object statement, String method) {
+    if (statement instanceof CallableStatement) {
+      return methodName(callableStatementMethods, "java.sql.CallableStatement.", method);
+    }
+    if (statement instanceof PreparedStatement) {
+      return methodName(preparedStatementMethods, "java.sql.PreparedStatement.", method);
+    }
+    return methodName(statementMethods, "java.sql.Statement.", method);
+  }
+
+  private static String methodName(
+      ConcurrentHashMap<String, String> names, String prefix, String method) {
+    String name = names.get(method);
+    if (name == null) {
+      name = prefix + method;
+      names.putIfAbsent(method, name);
+    }
+    return name;
+  }
+
+  private static final class Call {
+    private final TrackingOperation trackingOperation;
+    private final Scope scope;
+
+    Call(TrackingOperation trackingOperation) {
+      this.trackingOperation = trackingOperation;
+      this.scope = trackingOperation.withSpan();
+    }
+
+    void end(@Nullable Object returned, @Nullable Throwable t) {
+      try {
+        this.scope.close();
+        if (t != null) {
+          this.trackingOperation.recordException(
+              t instanceof Exception ? (Exception) t : new Exception(t));
+        } else if (returned instanceof int[]) {
+          this.trackingOperation.recordRowsAffected(Observability.rowsAffected((int[]) returned));
+        } else if (returned instanceof long[]) {
+          this.trackingOperation.recordRowsAffected(Observability.rowsAffected((long[]) returned));
+        } else if (returned instanceof Integer || returned instanceof Long) {
+          // The update counts of executeUpdate and executeLargeUpdate. Other instrumented methods
+          // return booleans, ResultSets or nothing.
+          this.trackingOperation.recordRowsAffected(((Number) returned).longValue());
+        }
+      } finally {
+        this.trackingOperation.end();
+      }
+    }
+  }
+}
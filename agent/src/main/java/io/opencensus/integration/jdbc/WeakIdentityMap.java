@@ -0,0 +1,110 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * A concurrent map whose keys are weakly referenced and compared by identity, so that an entry goes
+ * away once its key is collected.
+ *
+ * <p>Lookups don't lock, unlike those of a synchronized {@link java.util.WeakHashMap}, so threads
+ * executing statements don't contend for the map. The entries of collected keys are removed by
+ * the following {@link #put}s.
+ */
+final class WeakIdentityMap<K, V> {
+  private final ConcurrentHashMap<Object, V> entries = new ConcurrentHashMap<>();
+  private final ReferenceQueue<K> collected = new ReferenceQueue<>();
+
+  @Nullable
+  V get(K key) {
+    return entries.get(new LookupKey(key));
+  }
+
+  void put(K key, V value) {
+    removeCollected();
+    entries.put(new WeakKey<>(key, collected), value);
+  }
+
+  // VisibleForTesting
+  int size() {
+    removeCollected();
+    return entries.size();
+  }
+
+  private void removeCollected() {
+    Reference<? extends K> key;
+    while ((key = collected.poll()) != null) {
+      entries.remove(key);
+    }
+  }
+
+  // The key an entry is stored with. It keeps the identity hash code of its referent, so that
+  // the entry can still be found and removed once the referent is collected.
+  private static final class WeakKey<K> extends WeakReference<K> {
+    private final int hashCode;
+
+    WeakKey(K referent, ReferenceQueue<K> queue) {
+      super(referent, queue);
+      this.hashCode = System.identityHashCode(referent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      Object referent = get();
+      if (referent == null) {
+        return false;
+      }
+      if (obj instanceof WeakKey) {
+        return referent == ((WeakKey<?>) obj).get();
+      }
+      return obj instanceof LookupKey && referent == ((LookupKey) obj).referent;
+    }
+  }
+
+  // The key an entry is looked up with, which doesn't need a reference object.
+  private static final class LookupKey {
+    private final Object referent;
+
+    LookupKey(Object referent) {
+      this.referent = referent;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(referent);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (obj instanceof WeakKey) {
+        return referent == ((WeakKey<?>) obj).get();
+      }
+      return obj instanceof LookupKey && referent == ((LookupKey) obj).referent;
+    }
+  }
+}
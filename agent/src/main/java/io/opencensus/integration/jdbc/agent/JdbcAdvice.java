@@ -0,0 +1,110 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc.agent;
+
+import io.opencensus.integration.jdbc.AgentBridge;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+
+/**
+ * The advice woven into the JDBC methods of drivers. The code of these methods is copied into the
+ * instrumented methods, so it may only reference public types, and is kept to a single call into
+ * {@link AgentBridge}. Failures of the advice itself are suppressed, so that they never break the
+ * driver.
+ */
+final class JdbcAdvice {
+  private JdbcAdvice() {}
+
+  /** Tracks the Statement methods taking SQL, e.g. {@code executeQuery(String)}. */
+  static final class StatementSql {
+    private StatementSql() {}
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    static Object enter(
+        @Advice.This Object statement,
+        @Advice.Origin("#m") String method,
+        @Advice.Argument(0) String sql) {
+      return AgentBridge.enterStatement(statement, method, sql);
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    static void exit(
+        @Advice.Enter Object call,
+        @Advice.Return(typing = Assigner.Typing.DYNAMIC) Object returned,
+        @Advice.Thrown Throwable t) {
+      AgentBridge.exit(call, returned, t);
+    }
+  }
+
+  /** Tracks the PreparedStatement methods executing the prepared SQL, e.g. {@code execute()}. */
+  static final class PreparedStatementExecute {
+    private PreparedStatementExecute() {}
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    static Object enter(@Advice.This Object statement, @Advice.Origin("#m") String method) {
+      return AgentBridge.enterPreparedStatement(statement, method);
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    static void exit(
+        @Advice.Enter Object call,
+        @Advice.Return(typing = Assigner.Typing.DYNAMIC) Object returned,
+        @Advice.Thrown Throwable t) {
+      AgentBridge.exit(call, returned, t);
+    }
+  }
+
+  /** Remembers the SQL of the statements returned by prepareStatement and prepareCall. */
+  static final class ConnectionPrepare {
+    private ConnectionPrepare() {}
+
+    @Advice.OnMethodExit(suppress = Throwable.class)
+    static void exit(
+        @Advice.Argument(0) String sql,
+        @Advice.Return(typing = Assigner.Typing.DYNAMIC) Object statement) {
+      AgentBridge.prepared(statement, sql);
+    }
+  }
+
+  /** Tracks the Connection methods going to the database, e.g. {@code commit()}. */
+  static final class ConnectionCall {
+    private ConnectionCall() {}
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    static Object enter(@Advice.Origin("#m") String method) {
+      return AgentBridge.enterConnection(method);
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    static void exit(@Advice.Enter Object call, @Advice.Thrown Throwable t) {
+      AgentBridge.exit(call, null, t);
+    }
+  }
+
+  /** Tracks {@code ResultSet.next()}. */
+  static final class ResultSetNext {
+    private ResultSetNext() {}
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    static Object enter() {
+      return AgentBridge.enterResultSetNext();
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    static void exit(@Advice.Enter Object call, @Advice.Thrown Throwable t) {
+      AgentBridge.exit(call, null, t);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc.agent;
+
+import static net.bytebuddy.matcher.ElementMatchers.any;
+import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
+import static net.bytebuddy.matcher.ElementMatchers.isBootstrapClassLoader;
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.isPublic;
+import static net.bytebuddy.matcher.ElementMatchers.isSubTypeOf;
+import static net.bytebuddy.matcher.ElementMatchers.isSynthetic;
+import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+import io.opencensus.integration.jdbc.AgentBridge;
+import io.opencensus.integration.jdbc.Observability;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import java.lang.instrument.Instrumentation;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+
+/**
+ * A Java agent that instruments the JDBC drivers loaded by the application in place, tracking
+ * their calls like the OcWrap* wrappers do but without wrapping their objects.
+ *
+ * <p>Start the JVM with {@code -javaagent:opencensus-jdbc-agent.jar}, optionally followed by
+ * {@code =} and a comma separated list of {@link TraceOption}s, e.g. {@code
+ * -javaagent:opencensus-jdbc-agent.jar=annotate_traces_with_sql,defer_spans}. Unknown options are
+ * logged and ignored. The views of {@link Observability} are registered when the agent starts, so
+ * the metrics are the same as with the wrappers.
+ *
+ * <p>The executions of Statements, PreparedStatements and CallableStatements, the round trips of
+ * Connections and {@code ResultSet.next} are tracked. The features that keep state in the wrappers,
+ * such as transaction spans, batch sizes, fetch size tuning and the prepared statement cache,
+ * aren't available in agent mode.
+ *
+ * <p>OpenCensus isn't bundled in the agent jar, so that the agent records into the exporters the
+ * application configures. The agent is loaded by the system class loader, which must therefore
+ * also load opencensus-api: it has to be on the {@code -classpath} of the JVM, not only in e.g. a
+ * web application's own libraries. Otherwise the agent logs an error and leaves the drivers as
+ * they are.
+ */
+public final class JdbcAgent {
+  private static final Logger logger = Logger.getLogger(JdbcAgent.class.getName());
+
+  private JdbcAgent() {}
+
+  public static void premain(@Nullable String agentArgs, Instrumentation instrumentation) {
+    try {
+      AgentBridge.setTraceOptions(parseTraceOptions(agentArgs));
+      Observability.registerAllViews();
+    } catch (NoClassDefFoundError e) {
+      logger.log(
+          Level.SEVERE,
+          "opencensus-api isn't on the system class path, JDBC drivers won't be instrumented",
+          e);
+      return;
+    }
+
+    new AgentBuilder.Default()
+        // Setting what to ignore replaces ByteBuddy's default, which is restated first: the
+        // bootstrap classes, ByteBuddy itself, reflection accessors and synthetic types. Our own
+        // wrappers are already instrumented.
+        .ignore(any(), isBootstrapClassLoader())
+        .or(nameStartsWith("net.bytebuddy."))
+        .or(nameStartsWith("sun.reflect."))
+        .or(isSynthetic())
+        .or(nameStartsWith("io.opencensus."))
+        .type(isSubTypeOf(Statement.class).and(not(isInterface())))
+        .transform(
+            (builder, type, classLoader, module) ->
+                builder
+                    .visit(
+                        Advice.to(JdbcAdvice.StatementSql.class)
+                            .on(
+                                instrumentable(
+                                    named("execute")
+                                        .or(named("executeQuery"))
+                                        .or(named("executeUpdate"))
+                                        .or(named("executeLargeUpdate"))
+                                        .and(takesArgument(0, String.class)))))
+                    .visit(
+                        Advice.to(JdbcAdvice.PreparedStatementExecute.class)
+                            .on(
+                                instrumentable(
+                                    named("execute")
+                                        .or(named("executeQuery"))
+                                        .or(named("executeUpdate"))
+                                        .or(named("executeLargeUpdate"))
+                                        .and(takesArguments(0))
+                                        .and(isDeclaredBy(isSubTypeOf(PreparedStatement.class))))))
+                    .visit(
+                        Advice.to(JdbcAdvice.PreparedStatementExecute.class)
+                            .on(
+                                instrumentable(
+                                    named("executeBatch")
+                                        .or(named("executeLargeBatch"))
+                                        .and(takesArguments(0))))))
+        .type(isSubTypeOf(Connection.class).and(not(isInterface())))
+        .transform(
+            (builder, type, classLoader, module) ->
+                builder
+                    .visit(
+                        Advice.to(JdbcAdvice.ConnectionPrepare.class)
+                            .on(
+                                instrumentable(
+                                    named("prepareStatement")
+                                        .or(named("prepareCall"))
+                                        .and(takesArgument(0, String.class)))))
+                    .visit(
+                        Advice.to(JdbcAdvice.ConnectionCall.class)
+                            .on(
+                                instrumentable(
+                                    named("commit")
+                                        .or(named("rollback"))
+                                        .or(named("close"))
+                                        .and(takesArguments(0))))))
+        .type(isSubTypeOf(ResultSet.class).and(not(isInterface())))
+        .transform(
+            (builder, type, classLoader, module) ->
+                builder.visit(
+                    Advice.to(JdbcAdvice.ResultSetNext.class)
+                        .on(instrumentable(named("next").and(takesArguments(0))))))
+        .installOn(instrumentation);
+  }
+
+  private static ElementMatcher<MethodDescription> instrumentable(
+      ElementMatcher.Junction<MethodDescription> methods) {
+    return methods.and(isPublic()).and(not(isAbstract())).and(not(isSynthetic()));
+  }
+
+  // VisibleForTesting
+  static EnumSet<TraceOption> parseTraceOptions(@Nullable String agentArgs) {
+    EnumSet<TraceOption> opts = EnumSet.noneOf(TraceOption.class);
+    if (agentArgs == null) {
+      return opts;
+    }
+    for (String name : agentArgs.split(",")) {
+      name = name.trim();
+      if (name.isEmpty()) {
+        continue;
+      }
+      // A misspelled option mustn't keep the application from starting.
+      try {
+        opts.add(TraceOption.valueOf(name.toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        logger.log(Level.WARNING, "Ignoring unknown trace option of the JDBC agent: {0}", name);
+      }
+    }
+    return opts;
+  }
+}
@@ -0,0 +1,124 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link AgentBridge}. */
+@RunWith(JUnit4.class)
+public class AgentBridgeTest {
+
+  @After
+  public void tearDown() {
+    AgentBridge.setTraceOptions(EnumSet.noneOf(TraceOption.class));
+  }
+
+  @Test
+  public void enter_tracksOnlyOutermostCall() {
+    Object statement = new Object();
+    Object outer = AgentBridge.enterStatement(statement, "executeQuery", "SELECT 1");
+    assertThat(outer).isNotNull();
+
+    // E.g. a pooled statement delegating to the driver's statement.
+    assertThat(AgentBridge.enterStatement(statement, "executeQuery", "SELECT 1")).isNull();
+    assertThat(AgentBridge.enterResultSetNext()).isNull();
+    AgentBridge.exit(null, null, null);
+    assertThat(AgentBridge.enterConnection("commit")).isNull();
+
+    AgentBridge.exit(outer, null, null);
+    Object next = AgentBridge.enterConnection("commit");
+    assertThat(next).isNotNull();
+    AgentBridge.exit(next, null, null);
+  }
+
+  @Test
+  public void exit_endsCallThatThrew() {
+    Object call = AgentBridge.enterStatement(new Object(), "execute", "SELECT 1");
+    AgentBridge.exit(call, null, new SQLException("boom"));
+
+    Object next = AgentBridge.enterStatement(new Object(), "execute", "SELECT 1");
+    assertThat(next).isNotNull();
+    AgentBridge.exit(next, Boolean.TRUE, null);
+  }
+
+  @Test
+  public void enter_failingToTrackLeavesCall() {
+    try {
+      AgentBridge.enterStatement(new Object(), null, "SELECT 1");
+      fail();
+    } catch (NullPointerException expected) {
+    }
+
+    Object next = AgentBridge.enterResultSetNext();
+    assertThat(next).isNotNull();
+    AgentBridge.exit(next, Boolean.TRUE, null);
+  }
+
+  @Test
+  public void exit_failingToEndLeavesCall() {
+    Object call = AgentBridge.enterResultSetNext();
+    try {
+      AgentBridge.exit(new Object(), Boolean.TRUE, null);
+      fail();
+    } catch (ClassCastException expected) {
+    }
+
+    Object next = AgentBridge.enterResultSetNext();
+    assertThat(next).isNotNull();
+    AgentBridge.exit(next, Boolean.TRUE, null);
+    AgentBridge.exit(call, Boolean.TRUE, null);
+  }
+
+  @Test
+  public void exit_endsCallReturningUpdateCounts() {
+    Object call = AgentBridge.enterPreparedStatement(new Object(), "executeBatch");
+    AgentBridge.exit(call, new int[] {1, 2}, null);
+    call = AgentBridge.enterPreparedStatement(new Object(), "executeUpdate");
+    AgentBridge.exit(call, 3, null);
+
+    Object next = AgentBridge.enterResultSetNext();
+    assertThat(next).isNotNull();
+    AgentBridge.exit(next, Boolean.FALSE, null);
+  }
+
+  @Test
+  public void prepared_remembersSqlOfStatement() {
+    AgentBridge.setTraceOptions(EnumSet.of(TraceOption.ANNOTATE_TRACES_WITH_SQL));
+    Object statement = new Object();
+    AgentBridge.prepared(statement, "SELECT * FROM t WHERE id = ?");
+
+    Observability.PreparedSql sql = AgentBridge.preparedSql(statement);
+    assertThat(sql).isNotNull();
+    assertThat(sql.sqlValue).isNotNull();
+    assertThat(AgentBridge.preparedSql(new Object())).isNull();
+  }
+
+  @Test
+  public void prepared_ignoresFailedPrepare() {
+    Object statement = new Object();
+    AgentBridge.prepared(statement, null);
+    AgentBridge.prepared(null, "SELECT 1");
+    assertThat(AgentBridge.preparedSql(statement)).isNull();
+  }
+}
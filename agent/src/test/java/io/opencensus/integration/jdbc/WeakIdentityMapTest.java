@@ -0,0 +1,62 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link WeakIdentityMap}. */
+@RunWith(JUnit4.class)
+public class WeakIdentityMapTest {
+
+  @Test
+  public void get_comparesKeysByIdentity() {
+    WeakIdentityMap<String, Integer> map = new WeakIdentityMap<>();
+    String key = new String("statement");
+    map.put(key, 1);
+
+    assertThat(map.get(key)).isEqualTo(1);
+    assertThat(map.get(new String("statement"))).isNull();
+  }
+
+  @Test
+  public void put_replacesValueOfKey() {
+    WeakIdentityMap<Object, Integer> map = new WeakIdentityMap<>();
+    Object key = new Object();
+    map.put(key, 1);
+    map.put(key, 2);
+
+    assertThat(map.get(key)).isEqualTo(2);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void size_dropsEntriesOfCollectedKeys() throws InterruptedException {
+    WeakIdentityMap<Object, Integer> map = new WeakIdentityMap<>();
+    Object kept = new Object();
+    map.put(kept, 1);
+    map.put(new Object(), 2);
+
+    for (int i = 0; i < 100 && map.size() > 1; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get(kept)).isEqualTo(1);
+  }
+}
@@ -0,0 +1,70 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc.agent;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.integration.jdbc.Observability;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import java.lang.instrument.Instrumentation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link JdbcAgent}. */
+@RunWith(JUnit4.class)
+public class JdbcAgentTest {
+
+  @Test
+  public void parseTraceOptions_noArgs() {
+    assertThat(JdbcAgent.parseTraceOptions(null)).isEmpty();
+    assertThat(JdbcAgent.parseTraceOptions("")).isEmpty();
+  }
+
+  @Test
+  public void parseTraceOptions_caseInsensitiveList() {
+    assertThat(JdbcAgent.parseTraceOptions("annotate_traces_with_sql, DEFER_SPANS,"))
+        .containsExactly(TraceOption.ANNOTATE_TRACES_WITH_SQL, TraceOption.DEFER_SPANS);
+  }
+
+  @Test
+  public void parseTraceOptions_ignoresUnknownOption() {
+    assertThat(JdbcAgent.parseTraceOptions("annotate_everything,defer_spans"))
+        .containsExactly(TraceOption.DEFER_SPANS);
+  }
+
+  @Test
+  public void premain_withoutOpenCensus_skipsInstrumentation() throws Exception {
+    // The agent and ByteBuddy, but not OpenCensus, as when opencensus-api is missing from the
+    // system class path.
+    URL[] urls = {
+      location(JdbcAgent.class), location(Observability.class), location(AgentBuilder.class)
+    };
+    try (URLClassLoader loader = new URLClassLoader(urls, null)) {
+      Class<?> agent = Class.forName(JdbcAgent.class.getName(), true, loader);
+      // Throws if the agent went on to instrument without an Instrumentation.
+      agent
+          .getMethod("premain", String.class, Instrumentation.class)
+          .invoke(null, "defer_spans", null);
+    }
+  }
+
+  private static URL location(Class<?> type) {
+    return type.getProtectionDomain().getCodeSource().getLocation();
+  }
+}
@@ -0,0 +1,73 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the wrapper of a JDBC interface from the annotated class and the instrumentation policy
+ * declared here.
+ *
+ * <p>The annotated class is an abstract class named {@code Abstract<Wrapper>} implementing a single
+ * interface, e.g. {@code AbstractOcWrapResultSet implements ResultSet}. {@link WrapperProcessor}
+ * generates {@code <Wrapper>} in the same package, e.g. {@code OcWrapResultSet}, extending it with
+ * its constructors and javadoc. The generated class implements the methods of the interface that
+ * the annotated class leaves abstract or inherits as defaults, by calling them on the {@link
+ * #delegate} at the level the policy gives them:
+ *
+ * <ul>
+ *   <li>{@link #trace}, {@link #statsOnly} and {@link #countOnly} methods are tracked with a
+ *       TrackingOperation named {@code <interface>.<method>}, e.g. {@code
+ *       java.sql.ResultSet.first}, created with the {@code startOptions} field of the annotated
+ *       class. The level is the default InstrumentationLevel of the method, which can still be
+ *       changed at runtime.
+ *   <li>The other methods pass through: they only call the delegate, and nothing can instrument
+ *       them at runtime.
+ * </ul>
+ *
+ * <p>A policy entry is either a method name, which stands for all its overloads, or a method name
+ * followed by its parameter types, e.g. {@code "setDate(int,java.sql.Date,java.util.Calendar)"},
+ * with the {@code java.lang.} package left out. The overloads of a name that are tracked share
+ * their level, as the runtime level is set per name.
+ *
+ * <p>The methods the annotated class implements are left to it, and track themselves. Naming them
+ * in the policy is an error, as the entry would have no effect: their level at runtime is the
+ * default of their name, TRACE unless a generated overload is tracked at another level.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateWrapper {
+  /** The field of the annotated class holding the wrapped object. */
+  String delegate();
+
+  /**
+   * A method of the annotated class resolving the column labels of ResultSet getters to column
+   * indexes, or returning 0 to leave the label to the delegate. When set, the getters taking a
+   * label call the getter taking an index of the delegate when the label resolves.
+   */
+  String labelResolver() default "";
+
+  /** The methods whose calls are traced and record stats. */
+  String[] trace() default {};
+
+  /** The methods whose calls record stats without being traced. */
+  String[] statsOnly() default {};
+
+  /** The methods whose calls are only counted, without reading the clock. */
+  String[] countOnly() default {};
+}
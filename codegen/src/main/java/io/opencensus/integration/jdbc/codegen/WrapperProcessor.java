@@ -0,0 +1,631 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc.codegen;
+
+import com.sun.source.tree.ImportTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.Trees;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the wrappers of the classes annotated with {@link GenerateWrapper}, and for each of
+ * their packages an {@code InstrumentationPolicy} class giving the default InstrumentationLevel of
+ * the methods tracked at another level than TRACE.
+ */
+@SupportedAnnotationTypes("io.opencensus.integration.jdbc.codegen.GenerateWrapper")
+public final class WrapperProcessor extends AbstractProcessor {
+  private static final String ABSTRACT_PREFIX = "Abstract";
+  private static final String OPTIONS_FIELD = "startOptions";
+
+  // The levels of the policy, named as the constants of Observability.InstrumentationLevel.
+  enum Level {
+    TRACE,
+    STATS_ONLY,
+    COUNT_ONLY,
+    PASS_THROUGH
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    // The default levels of the tracked methods of the wrappers of each package, by method.
+    Map<String, Map<String, Level>> defaultLevels = new TreeMap<>();
+    for (Element element : roundEnv.getElementsAnnotatedWith(GenerateWrapper.class)) {
+      if (!element.getKind().equals(ElementKind.CLASS)) {
+        error(element, "@GenerateWrapper only applies to classes");
+        continue;
+      }
+      TypeElement annotated = (TypeElement) element;
+      String packageName = packageOf(annotated).getQualifiedName().toString();
+      Map<String, Level> levels = defaultLevels.get(packageName);
+      if (levels == null) {
+        levels = new TreeMap<>();
+        defaultLevels.put(packageName, levels);
+      }
+      generateWrapper(annotated, levels);
+    }
+    for (Map.Entry<String, Map<String, Level>> entry : defaultLevels.entrySet()) {
+      generatePolicy(entry.getKey(), entry.getValue());
+    }
+    return true;
+  }
+
+  private void generateWrapper(TypeElement annotated, Map<String, Level> defaultLevels) {
+    GenerateWrapper policy = annotated.getAnnotation(GenerateWrapper.class);
+    String annotatedName = annotated.getSimpleName().toString();
+    if (!annotated.getModifiers().contains(Modifier.ABSTRACT)
+        || !annotatedName.startsWith(ABSTRACT_PREFIX)
+        || annotated.getInterfaces().size() != 1) {
+      error(
+          annotated,
+          "@GenerateWrapper classes must be abstract, named Abstract<Wrapper> and implement the"
+              + " wrapped interface only");
+      return;
+    }
+    if (!hasField(annotated, policy.delegate()) || !hasField(annotated, OPTIONS_FIELD)) {
+      error(
+          annotated,
+          "@GenerateWrapper classes must have non-private "
+              + policy.delegate()
+              + " and "
+              + OPTIONS_FIELD
+              + " fields");
+      return;
+    }
+    TypeElement wrapped =
+        (TypeElement) processingEnv.getTypeUtils().asElement(annotated.getInterfaces().get(0));
+
+    List<ExecutableElement> methods = new ArrayList<>();
+    collectMethods(wrapped, wrapped, methods);
+    Map<ExecutableElement, Level> levels = levels(annotated, wrapped, policy, methods);
+    if (levels == null) {
+      return;
+    }
+    for (Map.Entry<ExecutableElement, Level> entry : levels.entrySet()) {
+      if (entry.getValue() != Level.PASS_THROUGH) {
+        defaultLevels.put(trackedName(wrapped, entry.getKey()), entry.getValue());
+      }
+    }
+
+    String packageName = packageOf(annotated).getQualifiedName().toString();
+    String wrapperName = annotatedName.substring(ABSTRACT_PREFIX.length());
+    SourceWriter out = new SourceWriter();
+    out.line("package " + packageName + ";");
+    out.line();
+    if (writeImports(out, annotated, docComments(annotated))) {
+      out.line();
+    }
+    writeDocComment(out, "", processingEnv.getElementUtils().getDocComment(annotated));
+    out.line("// Generated by WrapperProcessor from " + annotatedName + ". Do not edit.");
+    writeGenerated(out);
+    out.line("public class " + wrapperName + " extends " + annotatedName + " {");
+    for (ExecutableElement constructor :
+        ElementFilter.constructorsIn(annotated.getEnclosedElements())) {
+      if (!constructor.getModifiers().contains(Modifier.PRIVATE)) {
+        writeConstructor(out, wrapperName, constructor);
+      }
+    }
+    for (ExecutableElement method : methods) {
+      if (!isImplemented(annotated, method)) {
+        writeMethod(out, wrapped, policy, methods, method, levels.get(method));
+      }
+    }
+    out.line("}");
+    write(packageName + "." + wrapperName, out, annotated);
+  }
+
+  // Adds the methods of type and its superinterfaces that aren't overridden by one already added,
+  // in declaration order, so that the generated source is stable.
+  private void collectMethods(
+      TypeElement wrapped, TypeElement type, List<ExecutableElement> methods) {
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (method.getModifiers().contains(Modifier.STATIC)
+          || isOverridden(wrapped, method, methods)) {
+        continue;
+      }
+      methods.add(method);
+    }
+    for (TypeMirror superinterface : type.getInterfaces()) {
+      collectMethods(
+          wrapped,
+          (TypeElement) processingEnv.getTypeUtils().asElement(superinterface),
+          methods);
+    }
+  }
+
+  private boolean isOverridden(
+      TypeElement wrapped, ExecutableElement method, List<ExecutableElement> methods) {
+    for (ExecutableElement other : methods) {
+      if (processingEnv.getElementUtils().overrides(other, method, wrapped)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Returns the level of each method as per the policy, or null if the policy is invalid.
+  private Map<ExecutableElement, Level> levels(
+      TypeElement annotated,
+      TypeElement wrapped,
+      GenerateWrapper policy,
+      List<ExecutableElement> methods) {
+    Map<Level, String[]> entries = new EnumMap<>(Level.class);
+    entries.put(Level.TRACE, policy.trace());
+    entries.put(Level.STATS_ONLY, policy.statsOnly());
+    entries.put(Level.COUNT_ONLY, policy.countOnly());
+
+    Map<ExecutableElement, Level> levels = new LinkedHashMap<>();
+    for (ExecutableElement method : methods) {
+      levels.put(method, Level.PASS_THROUGH);
+    }
+    boolean valid = true;
+    for (Map.Entry<Level, String[]> levelEntries : entries.entrySet()) {
+      for (String entry : levelEntries.getValue()) {
+        boolean matched = false;
+        for (ExecutableElement method : methods) {
+          if (!matches(entry, method)) {
+            continue;
+          }
+          matched = true;
+          // Such an entry would have no effect, as the hand-written method tracks itself.
+          if (isImplemented(annotated, method)) {
+            error(
+                annotated,
+                "Policy entry "
+                    + entry
+                    + " names "
+                    + method
+                    + ", which "
+                    + annotated.getSimpleName()
+                    + " implements");
+            valid = false;
+            continue;
+          }
+          Level previous = levels.put(method, levelEntries.getKey());
+          if (previous != Level.PASS_THROUGH && previous != levelEntries.getKey()) {
+            error(annotated, "Policy entry " + entry + " is also " + previous);
+            valid = false;
+          }
+        }
+        if (!matched) {
+          error(annotated, "Policy entry " + entry + " matches no method of " + wrapped);
+          valid = false;
+        }
+      }
+    }
+
+    // The runtime level is per name, so tracked overloads must agree on it.
+    Map<String, Level> trackedLevels = new HashMap<>();
+    for (Map.Entry<ExecutableElement, Level> entry : levels.entrySet()) {
+      if (entry.getValue() == Level.PASS_THROUGH) {
+        continue;
+      }
+      String name = entry.getKey().getSimpleName().toString();
+      Level other = trackedLevels.put(name, entry.getValue());
+      if (other != null && other != entry.getValue()) {
+        error(annotated, "The tracked overloads of " + name + " must share their level");
+        valid = false;
+      }
+    }
+    return valid ? levels : null;
+  }
+
+  // Whether the policy entry, "name" or "name(type,...)", designates method.
+  private boolean matches(String entry, ExecutableElement method) {
+    int parametersStart = entry.indexOf('(');
+    String name = parametersStart < 0 ? entry : entry.substring(0, parametersStart);
+    if (!method.getSimpleName().contentEquals(name.trim())) {
+      return false;
+    }
+    if (parametersStart < 0) {
+      return true;
+    }
+    List<String> parameters = new ArrayList<>();
+    for (VariableElement parameter : method.getParameters()) {
+      parameters.add(policyTypeName(parameter.asType()));
+    }
+    String expected = entry.substring(parametersStart).replace(" ", "");
+    return expected.equals("(" + String.join(",", parameters) + ")");
+  }
+
+  private String policyTypeName(TypeMirror type) {
+    TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+    String name = erasure.toString();
+    return name.startsWith("java.lang.") && name.indexOf('.', "java.lang.".length()) < 0
+        ? name.substring("java.lang.".length())
+        : name;
+  }
+
+  private boolean isImplemented(TypeElement annotated, ExecutableElement method) {
+    for (ExecutableElement member :
+        ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(annotated))) {
+      if (member.getEnclosingElement().getKind().equals(ElementKind.CLASS)
+          && !member.getModifiers().contains(Modifier.ABSTRACT)
+          && processingEnv.getElementUtils().overrides(member, method, annotated)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasField(TypeElement annotated, String name) {
+    for (VariableElement field : ElementFilter.fieldsIn(annotated.getEnclosedElements())) {
+      if (field.getSimpleName().contentEquals(name)
+          && !field.getModifiers().contains(Modifier.PRIVATE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String trackedName(TypeElement wrapped, ExecutableElement method) {
+    return wrapped.getQualifiedName() + "." + method.getSimpleName();
+  }
+
+  private void writeConstructor(
+      SourceWriter out, String wrapperName, ExecutableElement constructor) {
+    out.line();
+    writeDocComment(out, "  ", processingEnv.getElementUtils().getDocComment(constructor));
+    List<String> parameters = new ArrayList<>();
+    List<String> arguments = new ArrayList<>();
+    for (VariableElement parameter : constructor.getParameters()) {
+      StringBuilder declaration = new StringBuilder();
+      for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+        declaration.append(annotation).append(' ');
+      }
+      declaration.append(parameter.asType()).append(' ').append(parameter.getSimpleName());
+      parameters.add(declaration.toString());
+      arguments.add(parameter.getSimpleName().toString());
+    }
+    out.line(
+        "  "
+            + visibility(constructor)
+            + wrapperName
+            + "("
+            + String.join(", ", parameters)
+            + ")"
+            + throwsClause(constructor)
+            + " {");
+    out.line("    super(" + String.join(", ", arguments) + ");");
+    out.line("  }");
+  }
+
+  private void writeMethod(
+      SourceWriter out,
+      TypeElement wrapped,
+      GenerateWrapper policy,
+      List<ExecutableElement> methods,
+      ExecutableElement method,
+      Level level) {
+    List<String> parameters = new ArrayList<>();
+    List<String> arguments = new ArrayList<>();
+    for (int i = 0; i < method.getParameters().size(); i++) {
+      parameters.add(method.getParameters().get(i).asType() + " arg" + i);
+      arguments.add("arg" + i);
+    }
+    List<String> typeParameters = new ArrayList<>();
+    for (TypeParameterElement typeParameter : method.getTypeParameters()) {
+      typeParameters.add(typeParameter.toString() + bounds(typeParameter));
+    }
+
+    out.line();
+    if (processingEnv.getElementUtils().isDeprecated(method)) {
+      out.line("  @SuppressWarnings(\"deprecation\")");
+    }
+    out.line("  @Override");
+    out.line(
+        "  public "
+            + (typeParameters.isEmpty() ? "" : "<" + String.join(", ", typeParameters) + "> ")
+            + method.getReturnType()
+            + " "
+            + method.getSimpleName()
+            + "("
+            + String.join(", ", parameters)
+            + ")"
+            + throwsClause(method)
+            + " {");
+
+    // Tracked calls end their operation the way the hand-written methods do, with end(Scope) on
+    // return and the out-of-line endExceptionally on failure, which keeps them small.
+    boolean tracked = level != Level.PASS_THROUGH;
+    boolean returnsValue = !method.getReturnType().getKind().equals(TypeKind.VOID);
+    String indent = "    ";
+    String returns = returnsValue ? "return " : "";
+    if (tracked) {
+      out.line("    Observability.TrackingOperation trackingOperation =");
+      out.line(
+          "        Observability.createRoundtripTrackingSpan(\""
+              + trackedName(wrapped, method)
+              + "\", this."
+              + OPTIONS_FIELD
+              + ");");
+      out.line();
+      out.line("    io.opencensus.common.Scope ws = trackingOperation.withSpan();");
+      if (returnsValue) {
+        out.line("    " + method.getReturnType() + " result;");
+        returns = "result = ";
+      }
+      out.line("    try {");
+      indent = "      ";
+    }
+
+    String delegate = "this." + policy.delegate() + "." + method.getSimpleName();
+    if (resolvesLabel(policy, methods, method)) {
+      List<String> indexArguments = new ArrayList<>(arguments);
+      indexArguments.set(0, "columnIndex");
+      out.line(indent + "int columnIndex = " + policy.labelResolver() + "(arg0);");
+      out.line(indent + returns + "columnIndex > 0");
+      out.line(indent + "    ? " + delegate + "(" + String.join(", ", indexArguments) + ")");
+      out.line(indent + "    : " + delegate + "(" + String.join(", ", arguments) + ");");
+    } else {
+      out.line(indent + returns + delegate + "(" + String.join(", ", arguments) + ");");
+    }
+
+    if (tracked) {
+      out.line("    } catch (Throwable t) {");
+      out.line("      trackingOperation.endExceptionally(ws, t);");
+      out.line("      throw t;");
+      out.line("    }");
+      out.line("    trackingOperation.end(ws);");
+      if (returnsValue) {
+        out.line("    return result;");
+      }
+    }
+    out.line("  }");
+  }
+
+  // Whether method is a getter taking a column label, which has an overload taking a column index
+  // instead, and the policy resolves labels.
+  private boolean resolvesLabel(
+      GenerateWrapper policy, List<ExecutableElement> methods, ExecutableElement method) {
+    if (policy.labelResolver().isEmpty()
+        || !method.getSimpleName().toString().startsWith("get")
+        || method.getParameters().isEmpty()
+        || !policyTypeName(method.getParameters().get(0).asType()).equals("String")) {
+      return false;
+    }
+    for (ExecutableElement other : methods) {
+      if (other.getSimpleName().equals(method.getSimpleName())
+          && other.getParameters().size() == method.getParameters().size()
+          && other.getParameters().get(0).asType().getKind().equals(TypeKind.INT)
+          && sameTrailingParameters(other, method)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean sameTrailingParameters(ExecutableElement a, ExecutableElement b) {
+    for (int i = 1; i < a.getParameters().size(); i++) {
+      if (!policyTypeName(a.getParameters().get(i).asType())
+          .equals(policyTypeName(b.getParameters().get(i).asType()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void generatePolicy(String packageName, Map<String, Level> defaultLevels) {
+    SourceWriter out = new SourceWriter();
+    out.line("package " + packageName + ";");
+    out.line();
+    out.line("/**");
+    out.line(" * The default instrumentation levels of the methods tracked by the generated");
+    out.line(" * wrappers, as declared by their @GenerateWrapper policies.");
+    out.line(" */");
+    out.line("// Generated by WrapperProcessor. Do not edit.");
+    writeGenerated(out);
+    out.line("final class InstrumentationPolicy {");
+    out.line("  private InstrumentationPolicy() {}");
+    out.line();
+    out.line("  // Returns the level of method unless set otherwise, TRACE for the methods the");
+    out.line("  // policies don't name.");
+    out.line("  static Observability.InstrumentationLevel defaultLevel(String method) {");
+    out.line("    switch (method) {");
+    for (Map.Entry<String, Level> entry : defaultLevels.entrySet()) {
+      if (entry.getValue() != Level.TRACE) {
+        out.line("      case \"" + entry.getKey() + "\":");
+        out.line("        return Observability.InstrumentationLevel." + entry.getValue() + ";");
+      }
+    }
+    out.line("      default:");
+    out.line("        return Observability.InstrumentationLevel.TRACE;");
+    out.line("    }");
+    out.line("  }");
+    out.line("}");
+    write(packageName + ".InstrumentationPolicy", out, null);
+  }
+
+  // Marks the generated classes, so that e.g. Error Prone leaves them out of its warnings.
+  private void writeGenerated(SourceWriter out) {
+    for (String generated :
+        new String[] {"javax.annotation.processing.Generated", "javax.annotation.Generated"}) {
+      if (processingEnv.getElementUtils().getTypeElement(generated) != null) {
+        out.line("@" + generated + "(\"" + WrapperProcessor.class.getName() + "\")");
+        return;
+      }
+    }
+  }
+
+  // The doc comments copied from the annotated class to the generated class.
+  private String docComments(TypeElement annotated) {
+    StringBuilder docComments = new StringBuilder();
+    List<Element> documented = new ArrayList<>();
+    documented.add(annotated);
+    documented.addAll(ElementFilter.constructorsIn(annotated.getEnclosedElements()));
+    for (Element element : documented) {
+      String docComment = processingEnv.getElementUtils().getDocComment(element);
+      if (docComment != null) {
+        docComments.append(docComment).append('\n');
+      }
+    }
+    return docComments.toString();
+  }
+
+  // Copies the imports of the annotated class that docComments refer to. The generated code
+  // itself only uses qualified names. Returns whether there were any.
+  private boolean writeImports(SourceWriter out, TypeElement annotated, String docComments) {
+    TreePath path = Trees.instance(processingEnv).getPath(annotated);
+    if (path == null) {
+      return false;
+    }
+    boolean written = false;
+    for (ImportTree importTree : path.getCompilationUnit().getImports()) {
+      if (importTree.isStatic()) {
+        continue;
+      }
+      String imported = importTree.getQualifiedIdentifier().toString();
+      String simpleName = imported.substring(imported.lastIndexOf('.') + 1);
+      // What an on-demand import brings in can't be told from its name, so it is kept whenever
+      // there are doc comments.
+      boolean referenced =
+          simpleName.equals("*")
+              ? !docComments.isEmpty()
+              : Pattern.compile("\\b" + Pattern.quote(simpleName) + "\\b")
+                  .matcher(docComments)
+                  .find();
+      if (referenced) {
+        out.line("import " + imported + ";");
+        written = true;
+      }
+    }
+    return written;
+  }
+
+  private static void writeDocComment(SourceWriter out, String indent, String docComment) {
+    if (docComment == null || docComment.trim().isEmpty()) {
+      return;
+    }
+    List<String> lines = new ArrayList<>();
+    Collections.addAll(lines, docComment.split("\n", -1));
+    while (!lines.isEmpty() && lines.get(lines.size() - 1).trim().isEmpty()) {
+      lines.remove(lines.size() - 1);
+    }
+    out.line(indent + "/**");
+    for (String line : lines) {
+      // The text of a doc comment keeps the space after the " *" of its lines, but not the one
+      // after "/**" when it fits a single line.
+      line = line.replaceAll("\\s+$", "");
+      if (line.isEmpty()) {
+        out.line(indent + " *");
+      } else {
+        out.line(indent + (line.startsWith(" ") ? " *" : " * ") + line);
+      }
+    }
+    out.line(indent + " */");
+  }
+
+  private static String visibility(ExecutableElement element) {
+    for (Modifier modifier : element.getModifiers()) {
+      if (modifier.equals(Modifier.PUBLIC) || modifier.equals(Modifier.PROTECTED)) {
+        return modifier.toString().toLowerCase(Locale.ROOT) + " ";
+      }
+    }
+    return "";
+  }
+
+  private static String throwsClause(ExecutableElement element) {
+    if (element.getThrownTypes().isEmpty()) {
+      return "";
+    }
+    List<String> thrown = new ArrayList<>();
+    for (TypeMirror type : element.getThrownTypes()) {
+      thrown.add(type.toString());
+    }
+    return " throws " + String.join(", ", thrown);
+  }
+
+  private static String bounds(TypeParameterElement typeParameter) {
+    List<String> bounds = new ArrayList<>();
+    for (TypeMirror bound : typeParameter.getBounds()) {
+      if (!bound.toString().equals("java.lang.Object")) {
+        bounds.add(bound.toString());
+      }
+    }
+    return bounds.isEmpty() ? "" : " extends " + String.join(" & ", bounds);
+  }
+
+  private static PackageElement packageOf(Element element) {
+    while (!element.getKind().equals(ElementKind.PACKAGE)) {
+      element = element.getEnclosingElement();
+    }
+    return (PackageElement) element;
+  }
+
+  private void write(String className, SourceWriter out, Element originatingElement) {
+    Element[] originatingElements =
+        originatingElement == null ? new Element[0] : new Element[] {originatingElement};
+    try (Writer writer =
+        processingEnv.getFiler().createSourceFile(className, originatingElements).openWriter()) {
+      writer.write(out.toString());
+    } catch (IOException e) {
+      error(originatingElement, "Couldn't write " + className + ": " + e);
+    }
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private static final class SourceWriter {
+    private final StringBuilder source = new StringBuilder();
+
+    void line() {
+      source.append('\n');
+    }
+
+    void line(String line) {
+      source.append(line).append('\n');
+    }
+
+    @Override
+    public String toString() {
+      return source.toString();
+    }
+  }
+}
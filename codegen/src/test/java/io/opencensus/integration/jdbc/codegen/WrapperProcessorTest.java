@@ -0,0 +1,281 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link WrapperProcessor}. */
+@RunWith(JUnit4.class)
+public class WrapperProcessorTest {
+  private static final String THING =
+      "package p;\n"
+          + "import java.sql.SQLException;\n"
+          + "public interface Thing extends java.sql.Wrapper {\n"
+          + "  void open() throws SQLException;\n"
+          + "  int get(int index) throws SQLException;\n"
+          + "  int get(String label) throws SQLException;\n"
+          + "  void set(int index, int value) throws SQLException;\n"
+          + "  void set(int index, long value) throws SQLException;\n"
+          + "  void close() throws SQLException;\n"
+          + "  default void reset() throws SQLException {}\n"
+          + "}\n";
+
+  // The part of Observability that the generated classes refer to outside of method bodies.
+  private static final String OBSERVABILITY =
+      "package p;\n"
+          + "final class Observability {\n"
+          + "  enum InstrumentationLevel { TRACE, STATS_ONLY, COUNT_ONLY, PASS_THROUGH }\n"
+          + "}\n";
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void generatesWrapperFromPolicy() throws IOException {
+    Compilation compilation =
+        compile("trace = \"open\", statsOnly = \"set(int,long)\", countOnly = \"get\"");
+    assertThat(compilation.errors).isEmpty();
+
+    String wrapper = compilation.generated("p/WrapThing.java");
+    // Only the imports the copied doc comments refer to are kept.
+    assertThat(wrapper)
+        .contains(
+            "import java.sql.Wrapper;\n"
+                + "\n"
+                + "/**\n"
+                + " * Wraps a {@link Thing}, a {@link Wrapper}.\n"
+                + " */\n");
+    assertThat(wrapper).doesNotContain("import java.util.EnumSet;");
+    assertThat(wrapper).doesNotContain("import io.opencensus.integration.jdbc.codegen");
+    assertThat(wrapper).contains("public class WrapThing extends AbstractWrapThing {");
+    assertThat(wrapper)
+        .contains(
+            "  /**\n"
+                + "   * Wraps thing.\n"
+                + "   */\n"
+                + "  public WrapThing(p.Thing thing) {\n"
+                + "    super(thing);\n"
+                + "  }\n");
+    assertThat(wrapper)
+        .contains(
+            "  public void set(int arg0, int arg1) throws java.sql.SQLException {\n"
+                + "    this.thing.set(arg0, arg1);\n"
+                + "  }\n");
+    assertThat(wrapper)
+        .contains(
+            "  public void open() throws java.sql.SQLException {\n"
+                + "    Observability.TrackingOperation trackingOperation =\n"
+                + "        Observability.createRoundtripTrackingSpan(\"p.Thing.open\","
+                + " this.startOptions);\n"
+                + "\n"
+                + "    io.opencensus.common.Scope ws = trackingOperation.withSpan();\n"
+                + "    try {\n"
+                + "      this.thing.open();\n"
+                + "    } catch (Throwable t) {\n"
+                + "      trackingOperation.endExceptionally(ws, t);\n"
+                + "      throw t;\n"
+                + "    }\n"
+                + "    trackingOperation.end(ws);\n"
+                + "  }\n");
+    assertThat(wrapper)
+        .contains(
+            "  public int get(int arg0) throws java.sql.SQLException {\n"
+                + "    Observability.TrackingOperation trackingOperation =\n"
+                + "        Observability.createRoundtripTrackingSpan(\"p.Thing.get\","
+                + " this.startOptions);\n"
+                + "\n"
+                + "    io.opencensus.common.Scope ws = trackingOperation.withSpan();\n"
+                + "    int result;\n"
+                + "    try {\n"
+                + "      result = this.thing.get(arg0);\n"
+                + "    } catch (Throwable t) {\n"
+                + "      trackingOperation.endExceptionally(ws, t);\n"
+                + "      throw t;\n"
+                + "    }\n"
+                + "    trackingOperation.end(ws);\n"
+                + "    return result;\n"
+                + "  }\n");
+    assertThat(wrapper)
+        .contains("public <T> T unwrap(java.lang.Class<T> arg0) throws java.sql.SQLException {");
+    // Left to the annotated class.
+    assertThat(wrapper).doesNotContain("close()");
+    assertThat(wrapper)
+        .contains(
+            "  public void reset() throws java.sql.SQLException {\n"
+                + "    this.thing.reset();\n"
+                + "  }\n");
+  }
+
+  @Test
+  public void resolvesLabelsOfGetters() throws IOException {
+    Compilation compilation = compile("labelResolver = \"index\"");
+    assertThat(compilation.errors).isEmpty();
+
+    assertThat(compilation.generated("p/WrapThing.java"))
+        .contains(
+            "  public int get(java.lang.String arg0) throws java.sql.SQLException {\n"
+                + "    int columnIndex = index(arg0);\n"
+                + "    return columnIndex > 0\n"
+                + "        ? this.thing.get(columnIndex)\n"
+                + "        : this.thing.get(arg0);\n"
+                + "  }\n");
+  }
+
+  @Test
+  public void generatesDefaultLevels() throws IOException {
+    Compilation compilation =
+        compile("trace = \"open\", statsOnly = \"set(int,long)\", countOnly = \"get\"");
+    assertThat(compilation.errors).isEmpty();
+
+    String policy = compilation.generated("p/InstrumentationPolicy.java");
+    assertThat(policy)
+        .contains(
+            "      case \"p.Thing.get\":\n"
+                + "        return Observability.InstrumentationLevel.COUNT_ONLY;\n"
+                + "      case \"p.Thing.set\":\n"
+                + "        return Observability.InstrumentationLevel.STATS_ONLY;\n"
+                + "      default:\n"
+                + "        return Observability.InstrumentationLevel.TRACE;\n");
+  }
+
+  @Test
+  public void rejectsEntryMatchingNoMethod() throws IOException {
+    Compilation compilation = compile("trace = {\"open\", \"set(long,long)\"}");
+
+    assertThat(compilation.errors).hasSize(1);
+    assertThat(compilation.errors.get(0)).contains("set(long,long) matches no method");
+  }
+
+  @Test
+  public void rejectsEntryNamingImplementedMethod() throws IOException {
+    Compilation compilation = compile("trace = {\"open\", \"close\"}");
+
+    assertThat(compilation.errors).hasSize(1);
+    assertThat(compilation.errors.get(0))
+        .contains("close names close(), which AbstractWrapThing implements");
+  }
+
+  @Test
+  public void rejectsTrackedOverloadsAtDifferentLevels() throws IOException {
+    Compilation compilation = compile("trace = \"set(int,int)\", countOnly = \"set(int,long)\"");
+
+    assertThat(compilation.errors).hasSize(1);
+    assertThat(compilation.errors.get(0)).contains("overloads of set must share their level");
+  }
+
+  private Compilation compile(String policy) throws IOException {
+    String annotated =
+        "package p;\n"
+            + "import io.opencensus.integration.jdbc.codegen.GenerateWrapper;\n"
+            + "import java.sql.Wrapper;\n"
+            + "import java.util.EnumSet;\n"
+            + "/** Wraps a {@link Thing}, a {@link Wrapper}. */\n"
+            + "@GenerateWrapper(delegate = \"thing\", "
+            + policy
+            + ")\n"
+            + "abstract class AbstractWrapThing implements Thing {\n"
+            + "  final Thing thing;\n"
+            + "  final EnumSet<?> startOptions = null;\n"
+            + "\n"
+            + "  /** Wraps thing. */\n"
+            + "  public AbstractWrapThing(Thing thing) {\n"
+            + "    this.thing = thing;\n"
+            + "  }\n"
+            + "\n"
+            + "  int index(String label) {\n"
+            + "    return 0;\n"
+            + "  }\n"
+            + "\n"
+            + "  @Override\n"
+            + "  public void close() {}\n"
+            + "}\n";
+    File sources = folder.newFolder();
+    File generated = folder.newFolder();
+    File classes = folder.newFolder();
+    List<File> files =
+        Arrays.asList(
+            write(new File(sources, "p/Thing.java"), THING),
+            write(new File(sources, "p/Observability.java"), OBSERVABILITY),
+            write(new File(sources, "p/AbstractWrapThing.java"), annotated));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+      JavaCompiler.CompilationTask task =
+          compiler.getTask(
+              null,
+              fileManager,
+              diagnostics,
+              Arrays.asList(
+                  "-proc:only",
+                  "-classpath",
+                  System.getProperty("java.class.path"),
+                  "-s",
+                  generated.getPath(),
+                  "-d",
+                  classes.getPath()),
+              null,
+              fileManager.getJavaFileObjectsFromFiles(files));
+      task.setProcessors(Collections.singletonList(new WrapperProcessor()));
+      task.call();
+    }
+    return new Compilation(diagnostics.getDiagnostics(), generated);
+  }
+
+  private static File write(File file, String content) throws IOException {
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private static final class Compilation {
+    final List<String> errors;
+    private final File generated;
+
+    Compilation(List<Diagnostic<? extends JavaFileObject>> diagnostics, File generated) {
+      this.errors = new java.util.ArrayList<>();
+      for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+        if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+          this.errors.add(diagnostic.getMessage(null));
+        }
+      }
+      this.generated = generated;
+    }
+
+    String generated(String path) throws IOException {
+      return new String(
+          Files.readAllBytes(new File(this.generated, path).toPath()), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.integration.jdbc.Observability.InstrumentationLevel;
+import io.opencensus.trace.Tracing;
+import io.opencensus.trace.config.TraceConfig;
+import io.opencensus.trace.samplers.Samplers;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the wrappers with instrumentation switched off at runtime through {@link
+ * Observability#setGlobalInstrumentationLevel}, against a {@link StubDriver} used directly and the
+ * fully instrumented wrappers. With {@link InstrumentationLevel#PASS_THROUGH}, the wrappers should
+ * cost about as much as the bare driver.
+ *
+ * <p>Traces are always sampled and all the views registered, so that the instrumented levels pay
+ * for everything they can record.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KillSwitchBenchmark {
+  private static final String URL = StubDriver.URL_PREFIX + "benchmark";
+  private static final String QUERY = "SELECT id, name, amount FROM orders WHERE customer_id = ?";
+  private static final String UPDATE = "UPDATE orders SET amount = ? WHERE id = ?";
+
+  /** The driver under test and the global instrumentation level of the wrappers. */
+  @State(Scope.Benchmark)
+  public static class Jdbc {
+    // UNWRAPPED runs against the stub driver directly, the other values are InstrumentationLevels.
+    @Param({"UNWRAPPED", "TRACE", "STATS_ONLY", "TRACES_ONLY", "PASS_THROUGH"})
+    public String level;
+
+    @Param({"10"})
+    public int rowCount;
+
+    Connection connection;
+    Statement statement;
+    PreparedStatement preparedStatement;
+
+    @Setup
+    public void setUp() throws SQLException {
+      TraceConfig traceConfig = Tracing.getTraceConfig();
+      traceConfig.updateActiveTraceParams(
+          traceConfig
+              .getActiveTraceParams()
+              .toBuilder()
+              .setSampler(Samplers.alwaysSample())
+              .build());
+      Observability.registerAllViews();
+
+      Driver stubDriver = new StubDriver(rowCount);
+      boolean wrapped = !level.equals("UNWRAPPED");
+      Driver driver = wrapped ? new OcWrapDriver(stubDriver) : stubDriver;
+      connection = driver.connect(URL, new Properties());
+      statement = connection.createStatement();
+      preparedStatement = connection.prepareStatement(QUERY);
+      // Switched after the wrappers are created, as operators would on a running application.
+      if (wrapped) {
+        Observability.setGlobalInstrumentationLevel(InstrumentationLevel.valueOf(level));
+      }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+      Observability.setGlobalInstrumentationLevel(InstrumentationLevel.TRACE);
+      connection.close();
+    }
+  }
+
+  @Benchmark
+  public void statementExecuteQuery(Jdbc jdbc, Blackhole bh) throws SQLException {
+    try (ResultSet rs = jdbc.statement.executeQuery(QUERY)) {
+      readRows(rs, bh);
+    }
+  }
+
+  @Benchmark
+  public void preparedStatementExecuteQuery(Jdbc jdbc, Blackhole bh) throws SQLException {
+    jdbc.preparedStatement.setLong(1, 42L);
+    try (ResultSet rs = jdbc.preparedStatement.executeQuery()) {
+      readRows(rs, bh);
+    }
+  }
+
+  @Benchmark
+  public int preparedStatementExecuteUpdate(Jdbc jdbc) throws SQLException {
+    jdbc.preparedStatement.setDouble(1, 9.99);
+    jdbc.preparedStatement.setLong(2, 42L);
+    return jdbc.preparedStatement.executeUpdate();
+  }
+
+  private static void readRows(ResultSet rs, Blackhole bh) throws SQLException {
+    while (rs.next()) {
+      bh.consume(rs.getLong(1));
+      bh.consume(rs.getString("name"));
+      bh.consume(rs.getDouble(3));
+    }
+  }
+}
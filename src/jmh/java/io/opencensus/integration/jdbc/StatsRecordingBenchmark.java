@@ -0,0 +1,134 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.integration.jdbc.Observability.TrackingOperation;
+import io.opencensus.stats.Stats;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tags;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares recording the latency of every call straight into OpenCensus against pre-aggregating
+ * it into local histograms, both from a single thread and from as many threads as there are
+ * cores. The replay benchmarks compare the cost per latency of flushing a histogram against
+ * recording the same latencies directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatsRecordingBenchmark {
+
+  /** The way latencies are recorded. */
+  @State(Scope.Benchmark)
+  public static class Recording {
+    @Param({"direct", "aggregated"})
+    public String mode;
+
+    @Setup
+    public void setUp() {
+      Observability.registerAllViews();
+      if ("aggregated".equals(mode)) {
+        Observability.enableStatsAggregation(1, TimeUnit.SECONDS);
+      }
+    }
+
+    @TearDown
+    public void tearDown() {
+      Observability.disableStatsAggregation();
+    }
+  }
+
+  /** A thousand latencies spread over the buckets like those of a flush interval might be. */
+  @State(Scope.Thread)
+  public static class Latencies {
+    final double[] values = new double[LATENCIES];
+    final LatencyHistogram histogram =
+        new LatencyHistogram(Observability.LATENCY_BUCKET_BOUNDARIES);
+    final StatsRecorder statsRecorder = Stats.getStatsRecorder();
+    TagContext tagContext;
+
+    @Setup
+    public void setUp() {
+      Observability.registerAllViews();
+      tagContext =
+          Tags.getTagger()
+              .emptyBuilder()
+              .put(
+                  Observability.JAVA_SQL_METHOD,
+                  TagValue.create("java.sql.PreparedStatement.executeQuery"))
+              .build();
+      Random random = new Random(0);
+      for (int i = 0; i < values.length; i++) {
+        values[i] = Math.exp(random.nextGaussian());
+      }
+    }
+  }
+
+  private static final int LATENCIES = 1000;
+
+  @Benchmark
+  @OperationsPerInvocation(LATENCIES)
+  public void replayDirect(Latencies latencies) {
+    for (double value : latencies.values) {
+      latencies
+          .statsRecorder
+          .newMeasureMap()
+          .put(Observability.MEASURE_LATENCY_MS, value)
+          .record(latencies.tagContext);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LATENCIES)
+  public void replayAggregated(Latencies latencies) {
+    for (double value : latencies.values) {
+      latencies.histogram.record(value);
+    }
+    latencies.histogram.flush(
+        latencies.statsRecorder, Observability.MEASURE_LATENCY_MS, latencies.tagContext);
+  }
+
+  @Benchmark
+  public TrackingOperation singleThreaded(Recording recording) {
+    return track();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public TrackingOperation allCores(Recording recording) {
+    return track();
+  }
+
+  private static TrackingOperation track() {
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan("java.sql.PreparedStatement.executeQuery");
+    trackingOperation.end();
+    return trackingOperation;
+  }
+}
@@ -0,0 +1,288 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/** An in-memory {@link Connection} handing out {@link StubStatement}s. */
+final class StubConnection implements Connection {
+  private final int rowCount;
+  private boolean autoCommit = true;
+  private boolean closed;
+
+  StubConnection(int rowCount) {
+    this.rowCount = rowCount;
+  }
+
+  @Override
+  public java.sql.Statement createStatement() throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(String sql) throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.CallableStatement prepareCall(String sql) throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public String nativeSQL(String sql) throws SQLException {
+    return sql;
+  }
+
+  @Override
+  public void setAutoCommit(boolean autoCommit) throws SQLException {
+    this.autoCommit = autoCommit;
+  }
+
+  @Override
+  public boolean getAutoCommit() throws SQLException {
+    return this.autoCommit;
+  }
+
+  @Override
+  public void commit() throws SQLException {}
+
+  @Override
+  public void rollback() throws SQLException {}
+
+  @Override
+  public void close() throws SQLException {
+    this.closed = true;
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return this.closed;
+  }
+
+  @Override
+  public java.sql.DatabaseMetaData getMetaData() throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void setReadOnly(boolean readOnly) throws SQLException {}
+
+  @Override
+  public boolean isReadOnly() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public void setCatalog(String catalog) throws SQLException {}
+
+  @Override
+  public String getCatalog() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public void setTransactionIsolation(int level) throws SQLException {}
+
+  @Override
+  public int getTransactionIsolation() throws SQLException {
+    return TRANSACTION_READ_COMMITTED;
+  }
+
+  @Override
+  public java.sql.SQLWarning getWarnings() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {}
+
+  @Override
+  public java.sql.Statement createStatement(int resultSetType, int resultSetConcurrency)
+      throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(
+      String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.CallableStatement prepareCall(
+      String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.util.Map<String, Class<?>> getTypeMap() throws SQLException {
+    return java.util.Collections.emptyMap();
+  }
+
+  @Override
+  public void setTypeMap(java.util.Map<String, Class<?>> map) throws SQLException {}
+
+  @Override
+  public void setHoldability(int holdability) throws SQLException {}
+
+  @Override
+  public int getHoldability() throws SQLException {
+    return java.sql.ResultSet.HOLD_CURSORS_OVER_COMMIT;
+  }
+
+  @Override
+  public java.sql.Savepoint setSavepoint() throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Savepoint setSavepoint(String name) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void rollback(java.sql.Savepoint savepoint) throws SQLException {}
+
+  @Override
+  public void releaseSavepoint(java.sql.Savepoint savepoint) throws SQLException {}
+
+  @Override
+  public java.sql.Statement createStatement(
+      int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(
+      String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.CallableStatement prepareCall(
+      String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(String sql, int autoGeneratedKeys)
+      throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(String sql, int[] columnIndexes)
+      throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(String sql, String[] columnNames)
+      throws SQLException {
+    return new StubStatement(this, this.rowCount);
+  }
+
+  @Override
+  public java.sql.Clob createClob() throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Blob createBlob() throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.NClob createNClob() throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.SQLXML createSQLXML() throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isValid(int timeout) throws SQLException {
+    return !this.closed;
+  }
+
+  @Override
+  public void setClientInfo(String name, String value) throws java.sql.SQLClientInfoException {}
+
+  @Override
+  public void setClientInfo(java.util.Properties properties)
+      throws java.sql.SQLClientInfoException {}
+
+  @Override
+  public String getClientInfo(String name) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.util.Properties getClientInfo() throws SQLException {
+    return new java.util.Properties();
+  }
+
+  @Override
+  public java.sql.Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void setSchema(String schema) throws SQLException {}
+
+  @Override
+  public String getSchema() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public void abort(java.util.concurrent.Executor executor) throws SQLException {
+    this.closed = true;
+  }
+
+  @Override
+  public void setNetworkTimeout(java.util.concurrent.Executor executor, int milliseconds)
+      throws SQLException {}
+
+  @Override
+  public int getNetworkTimeout() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    throw new SQLException("Not a wrapper for " + iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this);
+  }
+}
@@ -0,0 +1,69 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * An in-memory {@link Driver} whose statements return canned rows, so that benchmarks measure the
+ * overhead of the wrappers rather than the cost of a database.
+ */
+final class StubDriver implements Driver {
+  static final String URL_PREFIX = "jdbc:stub:";
+
+  private final int rowCount;
+
+  StubDriver(int rowCount) {
+    this.rowCount = rowCount;
+  }
+
+  @Override
+  public java.sql.Connection connect(String url, java.util.Properties info) throws SQLException {
+    return acceptsURL(url) ? new StubConnection(this.rowCount) : null;
+  }
+
+  @Override
+  public boolean acceptsURL(String url) throws SQLException {
+    return url != null && url.startsWith(URL_PREFIX);
+  }
+
+  @Override
+  public java.sql.DriverPropertyInfo[] getPropertyInfo(String url, java.util.Properties info)
+      throws SQLException {
+    return new java.sql.DriverPropertyInfo[0];
+  }
+
+  @Override
+  public int getMajorVersion() {
+    return 1;
+  }
+
+  @Override
+  public int getMinorVersion() {
+    return 0;
+  }
+
+  @Override
+  public boolean jdbcCompliant() {
+    return false;
+  }
+
+  @Override
+  public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    throw new SQLFeatureNotSupportedException();
+  }
+}
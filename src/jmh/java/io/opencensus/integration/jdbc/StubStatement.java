@@ -0,0 +1,954 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * An in-memory statement, serving as {@link java.sql.Statement}, {@link java.sql.PreparedStatement}
+ * and {@link CallableStatement}. Queries return {@link StubResultSet}s with canned rows, updates
+ * report a single affected row and bound parameters are ignored.
+ */
+final class StubStatement implements CallableStatement {
+  private final StubConnection connection;
+  private final int rowCount;
+  private java.sql.ResultSet resultSet;
+  private int updateCount = -1;
+  private int batchSize;
+  private int fetchSize;
+  private int maxRows;
+  private int queryTimeout;
+  private boolean poolable;
+  private boolean closeOnCompletion;
+  private boolean closed;
+
+  StubStatement(StubConnection connection, int rowCount) {
+    this.connection = connection;
+    this.rowCount = rowCount;
+  }
+
+  private java.sql.ResultSet query() {
+    this.updateCount = -1;
+    this.resultSet = new StubResultSet(this, this.rowCount);
+    return this.resultSet;
+  }
+
+  private int update() {
+    this.resultSet = null;
+    this.updateCount = 1;
+    return this.updateCount;
+  }
+
+  @Override
+  public void registerOutParameter(int parameterIndex, int sqlType) throws SQLException {}
+
+  @Override
+  public void registerOutParameter(int parameterIndex, int sqlType, int scale)
+      throws SQLException {}
+
+  @Override
+  public boolean wasNull() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public String getString(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean getBoolean(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public byte getByte(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public short getShort(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public int getInt(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public long getLong(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public float getFloat(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public double getDouble(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.math.BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public byte[] getBytes(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Date getDate(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Time getTime(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public Object getObject(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.math.BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public Object getObject(int parameterIndex, java.util.Map<String, Class<?>> map)
+      throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Ref getRef(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Blob getBlob(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Clob getClob(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Array getArray(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Date getDate(int parameterIndex, java.util.Calendar cal) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Time getTime(int parameterIndex, java.util.Calendar cal) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(int parameterIndex, java.util.Calendar cal)
+      throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void registerOutParameter(int parameterIndex, int sqlType, String typeName)
+      throws SQLException {}
+
+  @Override
+  public void registerOutParameter(String parameterName, int sqlType) throws SQLException {}
+
+  @Override
+  public void registerOutParameter(String parameterName, int sqlType, int scale)
+      throws SQLException {}
+
+  @Override
+  public void registerOutParameter(String parameterName, int sqlType, String typeName)
+      throws SQLException {}
+
+  @Override
+  public java.net.URL getURL(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void setURL(String parameterName, java.net.URL val) throws SQLException {}
+
+  @Override
+  public void setNull(String parameterName, int sqlType) throws SQLException {}
+
+  @Override
+  public void setBoolean(String parameterName, boolean x) throws SQLException {}
+
+  @Override
+  public void setByte(String parameterName, byte x) throws SQLException {}
+
+  @Override
+  public void setShort(String parameterName, short x) throws SQLException {}
+
+  @Override
+  public void setInt(String parameterName, int x) throws SQLException {}
+
+  @Override
+  public void setLong(String parameterName, long x) throws SQLException {}
+
+  @Override
+  public void setFloat(String parameterName, float x) throws SQLException {}
+
+  @Override
+  public void setDouble(String parameterName, double x) throws SQLException {}
+
+  @Override
+  public void setBigDecimal(String parameterName, java.math.BigDecimal x) throws SQLException {}
+
+  @Override
+  public void setString(String parameterName, String x) throws SQLException {}
+
+  @Override
+  public void setBytes(String parameterName, byte[] x) throws SQLException {}
+
+  @Override
+  public void setDate(String parameterName, java.sql.Date x) throws SQLException {}
+
+  @Override
+  public void setTime(String parameterName, java.sql.Time x) throws SQLException {}
+
+  @Override
+  public void setTimestamp(String parameterName, java.sql.Timestamp x) throws SQLException {}
+
+  @Override
+  public void setAsciiStream(String parameterName, java.io.InputStream x, int length)
+      throws SQLException {}
+
+  @Override
+  public void setBinaryStream(String parameterName, java.io.InputStream x, int length)
+      throws SQLException {}
+
+  @Override
+  public void setObject(String parameterName, Object x, int targetSqlType, int scale)
+      throws SQLException {}
+
+  @Override
+  public void setObject(String parameterName, Object x, int targetSqlType) throws SQLException {}
+
+  @Override
+  public void setObject(String parameterName, Object x) throws SQLException {}
+
+  @Override
+  public void setCharacterStream(String parameterName, java.io.Reader reader, int length)
+      throws SQLException {}
+
+  @Override
+  public void setDate(String parameterName, java.sql.Date x, java.util.Calendar cal)
+      throws SQLException {}
+
+  @Override
+  public void setTime(String parameterName, java.sql.Time x, java.util.Calendar cal)
+      throws SQLException {}
+
+  @Override
+  public void setTimestamp(String parameterName, java.sql.Timestamp x, java.util.Calendar cal)
+      throws SQLException {}
+
+  @Override
+  public void setNull(String parameterName, int sqlType, String typeName) throws SQLException {}
+
+  @Override
+  public String getString(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean getBoolean(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public byte getByte(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public short getShort(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public int getInt(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public long getLong(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public float getFloat(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public double getDouble(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public byte[] getBytes(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Date getDate(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Time getTime(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public Object getObject(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.math.BigDecimal getBigDecimal(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public Object getObject(String parameterName, java.util.Map<String, Class<?>> map)
+      throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Ref getRef(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Blob getBlob(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Clob getClob(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Array getArray(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Date getDate(String parameterName, java.util.Calendar cal) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Time getTime(String parameterName, java.util.Calendar cal) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(String parameterName, java.util.Calendar cal)
+      throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.net.URL getURL(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.RowId getRowId(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.RowId getRowId(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void setRowId(String parameterName, java.sql.RowId x) throws SQLException {}
+
+  @Override
+  public void setNString(String parameterName, String value) throws SQLException {}
+
+  @Override
+  public void setNCharacterStream(String parameterName, java.io.Reader value, long length)
+      throws SQLException {}
+
+  @Override
+  public void setNClob(String parameterName, java.sql.NClob value) throws SQLException {}
+
+  @Override
+  public void setClob(String parameterName, java.io.Reader reader, long length)
+      throws SQLException {}
+
+  @Override
+  public void setBlob(String parameterName, java.io.InputStream inputStream, long length)
+      throws SQLException {}
+
+  @Override
+  public void setNClob(String parameterName, java.io.Reader reader, long length)
+      throws SQLException {}
+
+  @Override
+  public java.sql.NClob getNClob(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.NClob getNClob(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void setSQLXML(String parameterName, java.sql.SQLXML xmlObject) throws SQLException {}
+
+  @Override
+  public java.sql.SQLXML getSQLXML(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.SQLXML getSQLXML(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public String getNString(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public String getNString(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.io.Reader getNCharacterStream(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.io.Reader getNCharacterStream(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.io.Reader getCharacterStream(int parameterIndex) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.io.Reader getCharacterStream(String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void setBlob(String parameterName, java.sql.Blob x) throws SQLException {}
+
+  @Override
+  public void setClob(String parameterName, java.sql.Clob x) throws SQLException {}
+
+  @Override
+  public void setAsciiStream(String parameterName, java.io.InputStream x, long length)
+      throws SQLException {}
+
+  @Override
+  public void setBinaryStream(String parameterName, java.io.InputStream x, long length)
+      throws SQLException {}
+
+  @Override
+  public void setCharacterStream(String parameterName, java.io.Reader reader, long length)
+      throws SQLException {}
+
+  @Override
+  public void setAsciiStream(String parameterName, java.io.InputStream x) throws SQLException {}
+
+  @Override
+  public void setBinaryStream(String parameterName, java.io.InputStream x) throws SQLException {}
+
+  @Override
+  public void setCharacterStream(String parameterName, java.io.Reader reader) throws SQLException {}
+
+  @Override
+  public void setNCharacterStream(String parameterName, java.io.Reader value) throws SQLException {}
+
+  @Override
+  public void setClob(String parameterName, java.io.Reader reader) throws SQLException {}
+
+  @Override
+  public void setBlob(String parameterName, java.io.InputStream inputStream) throws SQLException {}
+
+  @Override
+  public void setNClob(String parameterName, java.io.Reader reader) throws SQLException {}
+
+  @Override
+  public <T> T getObject(int parameterIndex, Class<T> type) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public <T> T getObject(String parameterName, Class<T> type) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public java.sql.ResultSet executeQuery() throws SQLException {
+    return query();
+  }
+
+  @Override
+  public int executeUpdate() throws SQLException {
+    return update();
+  }
+
+  @Override
+  public void setNull(int parameterIndex, int sqlType) throws SQLException {}
+
+  @Override
+  public void setBoolean(int parameterIndex, boolean x) throws SQLException {}
+
+  @Override
+  public void setByte(int parameterIndex, byte x) throws SQLException {}
+
+  @Override
+  public void setShort(int parameterIndex, short x) throws SQLException {}
+
+  @Override
+  public void setInt(int parameterIndex, int x) throws SQLException {}
+
+  @Override
+  public void setLong(int parameterIndex, long x) throws SQLException {}
+
+  @Override
+  public void setFloat(int parameterIndex, float x) throws SQLException {}
+
+  @Override
+  public void setDouble(int parameterIndex, double x) throws SQLException {}
+
+  @Override
+  public void setBigDecimal(int parameterIndex, java.math.BigDecimal x) throws SQLException {}
+
+  @Override
+  public void setString(int parameterIndex, String x) throws SQLException {}
+
+  @Override
+  public void setBytes(int parameterIndex, byte[] x) throws SQLException {}
+
+  @Override
+  public void setDate(int parameterIndex, java.sql.Date x) throws SQLException {}
+
+  @Override
+  public void setTime(int parameterIndex, java.sql.Time x) throws SQLException {}
+
+  @Override
+  public void setTimestamp(int parameterIndex, java.sql.Timestamp x) throws SQLException {}
+
+  @Override
+  public void setAsciiStream(int parameterIndex, java.io.InputStream x, int length)
+      throws SQLException {}
+
+  @Override
+  public void setUnicodeStream(int parameterIndex, java.io.InputStream x, int length)
+      throws SQLException {}
+
+  @Override
+  public void setBinaryStream(int parameterIndex, java.io.InputStream x, int length)
+      throws SQLException {}
+
+  @Override
+  public void clearParameters() throws SQLException {}
+
+  @Override
+  public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {}
+
+  @Override
+  public void setObject(int parameterIndex, Object x) throws SQLException {}
+
+  @Override
+  public boolean execute() throws SQLException {
+    query();
+    return true;
+  }
+
+  @Override
+  public void addBatch() throws SQLException {
+    this.batchSize++;
+  }
+
+  @Override
+  public void setCharacterStream(int parameterIndex, java.io.Reader reader, int length)
+      throws SQLException {}
+
+  @Override
+  public void setRef(int parameterIndex, java.sql.Ref x) throws SQLException {}
+
+  @Override
+  public void setBlob(int parameterIndex, java.sql.Blob x) throws SQLException {}
+
+  @Override
+  public void setClob(int parameterIndex, java.sql.Clob x) throws SQLException {}
+
+  @Override
+  public void setArray(int parameterIndex, java.sql.Array x) throws SQLException {}
+
+  @Override
+  public java.sql.ResultSetMetaData getMetaData() throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void setDate(int parameterIndex, java.sql.Date x, java.util.Calendar cal)
+      throws SQLException {}
+
+  @Override
+  public void setTime(int parameterIndex, java.sql.Time x, java.util.Calendar cal)
+      throws SQLException {}
+
+  @Override
+  public void setTimestamp(int parameterIndex, java.sql.Timestamp x, java.util.Calendar cal)
+      throws SQLException {}
+
+  @Override
+  public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {}
+
+  @Override
+  public void setURL(int parameterIndex, java.net.URL x) throws SQLException {}
+
+  @Override
+  public java.sql.ParameterMetaData getParameterMetaData() throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public void setRowId(int parameterIndex, java.sql.RowId x) throws SQLException {}
+
+  @Override
+  public void setNString(int parameterIndex, String value) throws SQLException {}
+
+  @Override
+  public void setNCharacterStream(int parameterIndex, java.io.Reader value, long length)
+      throws SQLException {}
+
+  @Override
+  public void setNClob(int parameterIndex, java.sql.NClob value) throws SQLException {}
+
+  @Override
+  public void setClob(int parameterIndex, java.io.Reader reader, long length) throws SQLException {}
+
+  @Override
+  public void setBlob(int parameterIndex, java.io.InputStream inputStream, long length)
+      throws SQLException {}
+
+  @Override
+  public void setNClob(int parameterIndex, java.io.Reader reader, long length)
+      throws SQLException {}
+
+  @Override
+  public void setSQLXML(int parameterIndex, java.sql.SQLXML xmlObject) throws SQLException {}
+
+  @Override
+  public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength)
+      throws SQLException {}
+
+  @Override
+  public void setAsciiStream(int parameterIndex, java.io.InputStream x, long length)
+      throws SQLException {}
+
+  @Override
+  public void setBinaryStream(int parameterIndex, java.io.InputStream x, long length)
+      throws SQLException {}
+
+  @Override
+  public void setCharacterStream(int parameterIndex, java.io.Reader reader, long length)
+      throws SQLException {}
+
+  @Override
+  public void setAsciiStream(int parameterIndex, java.io.InputStream x) throws SQLException {}
+
+  @Override
+  public void setBinaryStream(int parameterIndex, java.io.InputStream x) throws SQLException {}
+
+  @Override
+  public void setCharacterStream(int parameterIndex, java.io.Reader reader) throws SQLException {}
+
+  @Override
+  public void setNCharacterStream(int parameterIndex, java.io.Reader value) throws SQLException {}
+
+  @Override
+  public void setClob(int parameterIndex, java.io.Reader reader) throws SQLException {}
+
+  @Override
+  public void setBlob(int parameterIndex, java.io.InputStream inputStream) throws SQLException {}
+
+  @Override
+  public void setNClob(int parameterIndex, java.io.Reader reader) throws SQLException {}
+
+  @Override
+  public java.sql.ResultSet executeQuery(String sql) throws SQLException {
+    return query();
+  }
+
+  @Override
+  public int executeUpdate(String sql) throws SQLException {
+    return update();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.closed = true;
+  }
+
+  @Override
+  public int getMaxFieldSize() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public void setMaxFieldSize(int max) throws SQLException {}
+
+  @Override
+  public int getMaxRows() throws SQLException {
+    return this.maxRows;
+  }
+
+  @Override
+  public void setMaxRows(int max) throws SQLException {
+    this.maxRows = max;
+  }
+
+  @Override
+  public void setEscapeProcessing(boolean enable) throws SQLException {}
+
+  @Override
+  public int getQueryTimeout() throws SQLException {
+    return this.queryTimeout;
+  }
+
+  @Override
+  public void setQueryTimeout(int seconds) throws SQLException {
+    this.queryTimeout = seconds;
+  }
+
+  @Override
+  public void cancel() throws SQLException {}
+
+  @Override
+  public java.sql.SQLWarning getWarnings() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {}
+
+  @Override
+  public void setCursorName(String name) throws SQLException {}
+
+  @Override
+  public boolean execute(String sql) throws SQLException {
+    query();
+    return true;
+  }
+
+  @Override
+  public java.sql.ResultSet getResultSet() throws SQLException {
+    return this.resultSet;
+  }
+
+  @Override
+  public int getUpdateCount() throws SQLException {
+    return this.updateCount;
+  }
+
+  @Override
+  public boolean getMoreResults() throws SQLException {
+    this.resultSet = null;
+    this.updateCount = -1;
+    return false;
+  }
+
+  @Override
+  public void setFetchDirection(int direction) throws SQLException {}
+
+  @Override
+  public int getFetchDirection() throws SQLException {
+    return java.sql.ResultSet.FETCH_FORWARD;
+  }
+
+  @Override
+  public void setFetchSize(int rows) throws SQLException {
+    this.fetchSize = rows;
+  }
+
+  @Override
+  public int getFetchSize() throws SQLException {
+    return this.fetchSize;
+  }
+
+  @Override
+  public int getResultSetConcurrency() throws SQLException {
+    return java.sql.ResultSet.CONCUR_READ_ONLY;
+  }
+
+  @Override
+  public int getResultSetType() throws SQLException {
+    return java.sql.ResultSet.TYPE_FORWARD_ONLY;
+  }
+
+  @Override
+  public void addBatch(String sql) throws SQLException {
+    this.batchSize++;
+  }
+
+  @Override
+  public void clearBatch() throws SQLException {
+    this.batchSize = 0;
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    int[] updateCounts = new int[this.batchSize];
+    java.util.Arrays.fill(updateCounts, 1);
+    this.batchSize = 0;
+    return updateCounts;
+  }
+
+  @Override
+  public java.sql.Connection getConnection() throws SQLException {
+    return this.connection;
+  }
+
+  @Override
+  public boolean getMoreResults(int current) throws SQLException {
+    this.resultSet = null;
+    this.updateCount = -1;
+    return false;
+  }
+
+  @Override
+  public java.sql.ResultSet getGeneratedKeys() throws SQLException {
+    return new StubResultSet(this, 1);
+  }
+
+  @Override
+  public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    return update();
+  }
+
+  @Override
+  public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    return update();
+  }
+
+  @Override
+  public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+    return update();
+  }
+
+  @Override
+  public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+    query();
+    return true;
+  }
+
+  @Override
+  public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+    query();
+    return true;
+  }
+
+  @Override
+  public boolean execute(String sql, String[] columnNames) throws SQLException {
+    query();
+    return true;
+  }
+
+  @Override
+  public int getResultSetHoldability() throws SQLException {
+    return java.sql.ResultSet.HOLD_CURSORS_OVER_COMMIT;
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return this.closed;
+  }
+
+  @Override
+  public void setPoolable(boolean poolable) throws SQLException {
+    this.poolable = poolable;
+  }
+
+  @Override
+  public boolean isPoolable() throws SQLException {
+    return this.poolable;
+  }
+
+  @Override
+  public void closeOnCompletion() throws SQLException {
+    this.closeOnCompletion = true;
+  }
+
+  @Override
+  public boolean isCloseOnCompletion() throws SQLException {
+    return this.closeOnCompletion;
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    throw new SQLException("Not a wrapper for " + iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this);
+  }
+}
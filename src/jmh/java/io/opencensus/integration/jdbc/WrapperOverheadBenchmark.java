@@ -0,0 +1,176 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.trace.Tracing;
+import io.opencensus.trace.config.TraceConfig;
+import io.opencensus.trace.samplers.Samplers;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures what the OcWrap* wrappers add on top of a driver, by running the same JDBC calls
+ * against a {@link StubDriver} directly and through the wrappers.
+ *
+ * <p>Run with the gc profiler (the default for {@code ./gradlew jmh}) to get the bytes allocated
+ * per operation next to the time per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WrapperOverheadBenchmark {
+  private static final String URL = StubDriver.URL_PREFIX + "benchmark";
+  private static final String QUERY = "SELECT id, name, amount FROM orders WHERE customer_id = ?";
+  private static final String UPDATE = "UPDATE orders SET amount = ? WHERE id = ?";
+  private static final String CALL = "{call order_total(?)}";
+
+  /** The driver under test and how OpenCensus is configured. */
+  @State(Scope.Benchmark)
+  public static class Jdbc {
+    @Param({"false", "true"})
+    public boolean wrapped;
+
+    @Param({"false", "true"})
+    public boolean sampled;
+
+    // Views can't be unregistered, but every combination of parameters runs in a forked JVM.
+    @Param({"false", "true"})
+    public boolean viewsRegistered;
+
+    @Param({"10"})
+    public int rowCount;
+
+    @Param({"10"})
+    public int batchSize;
+
+    Driver driver;
+    Connection connection;
+    Statement statement;
+    PreparedStatement preparedStatement;
+    CallableStatement callableStatement;
+
+    @Setup
+    public void setUp() throws SQLException {
+      TraceConfig traceConfig = Tracing.getTraceConfig();
+      traceConfig.updateActiveTraceParams(
+          traceConfig
+              .getActiveTraceParams()
+              .toBuilder()
+              .setSampler(sampled ? Samplers.alwaysSample() : Samplers.neverSample())
+              .build());
+      if (viewsRegistered) {
+        Observability.registerAllViews();
+      }
+
+      Driver stubDriver = new StubDriver(rowCount);
+      driver = wrapped ? new OcWrapDriver(stubDriver) : stubDriver;
+      connection = driver.connect(URL, new Properties());
+      statement = connection.createStatement();
+      preparedStatement = connection.prepareStatement(QUERY);
+      callableStatement = connection.prepareCall(CALL);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+      connection.close();
+    }
+  }
+
+  @Benchmark
+  public void connect(Jdbc jdbc, Blackhole bh) throws SQLException {
+    Connection connection = jdbc.driver.connect(URL, new Properties());
+    bh.consume(connection);
+    connection.close();
+  }
+
+  @Benchmark
+  public void statementExecuteQuery(Jdbc jdbc, Blackhole bh) throws SQLException {
+    try (ResultSet rs = jdbc.statement.executeQuery(QUERY)) {
+      readRows(rs, bh);
+    }
+  }
+
+  @Benchmark
+  public void preparedStatementExecuteQuery(Jdbc jdbc, Blackhole bh) throws SQLException {
+    jdbc.preparedStatement.setLong(1, 42L);
+    try (ResultSet rs = jdbc.preparedStatement.executeQuery()) {
+      readRows(rs, bh);
+    }
+  }
+
+  @Benchmark
+  public void callableStatementExecuteQuery(Jdbc jdbc, Blackhole bh) throws SQLException {
+    jdbc.callableStatement.setLong(1, 42L);
+    try (ResultSet rs = jdbc.callableStatement.executeQuery()) {
+      readRows(rs, bh);
+    }
+  }
+
+  @Benchmark
+  public int statementExecuteUpdate(Jdbc jdbc) throws SQLException {
+    return jdbc.statement.executeUpdate(UPDATE);
+  }
+
+  @Benchmark
+  public int preparedStatementExecuteUpdate(Jdbc jdbc) throws SQLException {
+    jdbc.preparedStatement.setDouble(1, 9.99);
+    jdbc.preparedStatement.setLong(2, 42L);
+    return jdbc.preparedStatement.executeUpdate();
+  }
+
+  @Benchmark
+  public int[] statementExecuteBatch(Jdbc jdbc) throws SQLException {
+    for (int i = 0; i < jdbc.batchSize; i++) {
+      jdbc.statement.addBatch(UPDATE);
+    }
+    return jdbc.statement.executeBatch();
+  }
+
+  @Benchmark
+  public int[] preparedStatementExecuteBatch(Jdbc jdbc) throws SQLException {
+    for (int i = 0; i < jdbc.batchSize; i++) {
+      jdbc.preparedStatement.setDouble(1, 9.99);
+      jdbc.preparedStatement.setLong(2, i);
+      jdbc.preparedStatement.addBatch();
+    }
+    return jdbc.preparedStatement.executeBatch();
+  }
+
+  private static void readRows(ResultSet rs, Blackhole bh) throws SQLException {
+    while (rs.next()) {
+      bh.consume(rs.getLong(1));
+      bh.consume(rs.getString("name"));
+      bh.consume(rs.getDouble(3));
+    }
+  }
+}
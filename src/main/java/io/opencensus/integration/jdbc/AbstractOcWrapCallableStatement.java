@@ -0,0 +1,709 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.common.Scope;
+import io.opencensus.integration.jdbc.Observability.PreparedSql;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.integration.jdbc.Observability.TrackingOperation;
+import io.opencensus.integration.jdbc.Observability.TransactionOperation;
+import io.opencensus.integration.jdbc.codegen.GenerateWrapper;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import javax.annotation.Nullable;
+
+/**
+ * Wraps and instruments a {@link CallableStatement} instance with tracing and metrics using
+ * OpenCensus.
+ */
+@GenerateWrapper(
+    delegate = "callableStatement",
+    // The generated calls that may touch the database. The others pass through, and the methods
+    // implemented here track themselves.
+    trace = {
+      "cancel",
+      "getMoreResults()",
+      "setCursorName",
+      "setTime(String,java.sql.Time,java.util.Calendar)",
+      "setTime(int,java.sql.Time,java.util.Calendar)",
+      "setTimestamp(String,java.sql.Timestamp,java.util.Calendar)",
+      "setTimestamp(int,java.sql.Timestamp,java.util.Calendar)"
+    })
+abstract class AbstractOcWrapCallableStatement implements CallableStatement {
+  final CallableStatement callableStatement;
+  final EnumSet<TraceOption> startOptions;
+  private final PreparedSql preparedSql;
+  // The connection that created this statement, to which executions are reported.
+  @Nullable private final AbstractOcWrapConnection connection;
+  // The number of commands added to the current batch.
+  private int batchSize;
+  private final boolean shouldTuneFetchSize;
+  // Whether the caller set a fetch size, which tuning then leaves alone. Fetch sizes set before the
+  // statement was wrapped, by the driver or the JDBC URL, turn tuning off altogether.
+  private boolean fetchSizeSet;
+  // The fetch size last applied by tuning, 0 for the driver's default.
+  private int tunedFetchSize;
+  // The wrapper of the current ResultSet, re-targeted at the next ResultSet of this statement once
+  // the caller closed it, rather than allocating a wrapper per execution, see
+  // OcWrapResultSet.rewrap.
+  @Nullable private OcWrapResultSet resultSetWrapper;
+  // The wrapper of the last generated keys, which is only re-targeted once the caller closed it.
+  @Nullable private OcWrapResultSet generatedKeysWrapper;
+  // Set once the caller kept the current ResultSet open across getMoreResults, after which the
+  // driver producing a ResultSet no longer closes the previous one.
+  private boolean keepsResultsOpen;
+
+  // Tracks this wrapper for leaks, or null when leaks aren't detected.
+  @Nullable private final LeakDetector.Tracker leakTracker;
+
+  public AbstractOcWrapCallableStatement(
+      CallableStatement callableStatement, EnumSet<TraceOption> opts) {
+    this(callableStatement, null, opts);
+  }
+
+  public AbstractOcWrapCallableStatement(
+      CallableStatement callableStatement, @Nullable String sql, EnumSet<TraceOption> opts) {
+    this(callableStatement, sql, opts, null);
+  }
+
+  AbstractOcWrapCallableStatement(
+      CallableStatement callableStatement,
+      @Nullable String sql,
+      EnumSet<TraceOption> opts,
+      @Nullable AbstractOcWrapConnection connection) {
+    this.callableStatement = callableStatement;
+    this.startOptions = opts;
+    this.preparedSql = Observability.prepareSql(opts, sql);
+    this.connection = connection;
+    this.shouldTuneFetchSize = Observability.shouldTuneFetchSize(opts, callableStatement);
+    this.leakTracker =
+        Observability.shouldDetectLeaks(opts)
+            ? Observability.trackLeaks(
+                this, LeakDetector.Resource.CALLABLE_STATEMENT, callableStatement::isClosed)
+            : null;
+  }
+
+  // Starts tracking the execution of SQL, as part of the transaction of the connection if one is in
+  // progress.
+  private TrackingOperation trackExecution(String method, @Nullable String sql) {
+    TransactionOperation transaction =
+        this.connection == null ? null : this.connection.beginStatement();
+    if (transaction == null) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions, sql);
+    }
+    try (Scope ts = transaction.withSpan()) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions, sql);
+    }
+  }
+
+  private TrackingOperation trackExecution(String method, PreparedSql sql) {
+    TransactionOperation transaction =
+        this.connection == null ? null : this.connection.beginStatement();
+    if (transaction == null) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions, sql);
+    }
+    try (Scope ts = transaction.withSpan()) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions, sql);
+    }
+  }
+
+  // Applies the fetch size learned for the query, unless the caller has set one. Returns the
+  // fingerprint that the rows read from the ResultSet are accounted to, or null when not tuning.
+  @Nullable
+  private String tuneFetchSize(TrackingOperation trackingOperation, PreparedSql sql)
+      throws SQLException {
+    if (!this.shouldTuneFetchSize || this.fetchSizeSet) {
+      return null;
+    }
+    String fingerprint = sql.fingerprint();
+    if (fingerprint == null) {
+      return null;
+    }
+    int fetchSize = Observability.tunedFetchSize(fingerprint);
+    if (fetchSize != this.tunedFetchSize) {
+      this.callableStatement.setFetchSize(fetchSize);
+      this.tunedFetchSize = fetchSize;
+    }
+    if (fetchSize > 0) {
+      trackingOperation.recordFetchSize(fetchSize);
+    }
+    return fingerprint;
+  }
+
+  private long recordRowsAffected(TrackingOperation trackingOperation, long rows) {
+    trackingOperation.recordRowsAffected(rows);
+    if (this.connection != null) {
+      this.connection.recordRowsAffected(rows);
+    }
+    return rows;
+  }
+
+  private int recordRowsAffected(TrackingOperation trackingOperation, int rows) {
+    recordRowsAffected(trackingOperation, (long) rows);
+    return rows;
+  }
+
+  private int[] recordBatchRowsAffected(TrackingOperation trackingOperation, int[] updateCounts) {
+    recordRowsAffected(trackingOperation, Observability.rowsAffected(updateCounts));
+    return updateCounts;
+  }
+
+  private long[] recordBatchRowsAffected(TrackingOperation trackingOperation, long[] updateCounts) {
+    recordRowsAffected(trackingOperation, Observability.rowsAffected(updateCounts));
+    return updateCounts;
+  }
+
+  @Override
+  public void addBatch() throws SQLException {
+    // This method doesn't touch the database:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/PreparedStatement.html#addBatch--
+    this.callableStatement.addBatch();
+    this.batchSize++;
+  }
+
+  @Override
+  public void addBatch(String SQL) throws SQLException {
+    // This method doesn't touch the database:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#addBatch-java.lang.String-
+    this.callableStatement.addBatch(SQL);
+    this.batchSize++;
+  }
+
+  @Override
+  public void clearBatch() throws SQLException {
+    // This method doesn't touch the database:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#clearBatch--
+    this.callableStatement.clearBatch();
+    this.batchSize = 0;
+  }
+
+  // Closing the statement closes its ResultSets, whose wrappers then record what they read.
+  private void closeResultSetWrappers() {
+    if (this.resultSetWrapper != null) {
+      this.resultSetWrapper.statementClosed();
+    }
+    if (this.generatedKeysWrapper != null) {
+      this.generatedKeysWrapper.statementClosed();
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    // This method touches the database connection:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#close--
+    if (this.leakTracker != null) {
+      this.leakTracker.close();
+    }
+    closeResultSetWrappers();
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan(
+            "java.sql.CallableStatement.close", this.startOptions);
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.callableStatement.close();
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  @Override
+  public boolean execute() throws SQLException {
+    // This method touches the database connection:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/PreparedStatement.html#execute--
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.execute", this.preparedSql);
+
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.callableStatement.execute();
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean execute(String SQL) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#execute-java.lang.String-
+    TrackingOperation trackingOperation = trackExecution("java.sql.CallableStatement.execute", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.callableStatement.execute(SQL);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean execute(String SQL, String[] columnNames) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#execute-java.lang.String-java.lang.String:A-
+    TrackingOperation trackingOperation = trackExecution("java.sql.CallableStatement.execute", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.callableStatement.execute(SQL, columnNames);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean execute(String SQL, int[] columnIndices) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#execute-java.lang.String-int:A-
+    TrackingOperation trackingOperation = trackExecution("java.sql.CallableStatement.execute", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.callableStatement.execute(SQL, columnIndices);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean execute(String SQL, int autoGeneratedKeys) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#execute-java.lang.String-int-
+    TrackingOperation trackingOperation = trackExecution("java.sql.CallableStatement.execute", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.callableStatement.execute(SQL, autoGeneratedKeys);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeBatch--
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeBatch", this.preparedSql);
+    trackingOperation.recordBatchSize(this.batchSize);
+    // The batch is emptied whether or not it succeeds.
+    this.batchSize = 0;
+
+    Scope ws = trackingOperation.withSpan();
+    int[] result;
+    try {
+      result = recordBatchRowsAffected(trackingOperation, this.callableStatement.executeBatch());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long[] executeLargeBatch() throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeLargeBatch--
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeLargeBatch", this.preparedSql);
+    trackingOperation.recordBatchSize(this.batchSize);
+    // The batch is emptied whether or not it succeeds.
+    this.batchSize = 0;
+
+    Scope ws = trackingOperation.withSpan();
+    long[] result;
+    try {
+      result =
+          recordBatchRowsAffected(trackingOperation, this.callableStatement.executeLargeBatch());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate(String SQL) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeLargeUpdate-java.lang.String-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeLargeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result =
+          recordRowsAffected(trackingOperation, this.callableStatement.executeLargeUpdate(SQL));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate(String SQL, int autoGeneratedKeys) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeLargeUpdate-java.lang.String-int-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeLargeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.callableStatement.executeLargeUpdate(SQL, autoGeneratedKeys));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate(String SQL, int[] columnIndices) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeLargeUpdate-java.lang.String-int:A-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeLargeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.callableStatement.executeLargeUpdate(SQL, columnIndices));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate(String SQL, String[] columnNames) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeLargeUpdate-java.lang.String-java.lang.String:A-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeLargeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.callableStatement.executeLargeUpdate(SQL, columnNames));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate() throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/PreparedStatement.html#executeLargeUpdate--
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeLargeUpdate", this.preparedSql);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result = recordRowsAffected(trackingOperation, this.callableStatement.executeLargeUpdate());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public java.sql.ResultSet executeQuery(String SQL) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeQuery-java.lang.String-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeQuery", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    java.sql.ResultSet result;
+    try {
+      java.sql.ResultSet rs = this.callableStatement.executeQuery(SQL);
+      result = wrapResultSet(rs, "java.sql.CallableStatement.executeQuery", null);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate(String SQL) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeUpdate-java.lang.String-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result = recordRowsAffected(trackingOperation, this.callableStatement.executeUpdate(SQL));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate(String SQL, int autoGeneratedKeys) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeUpdate-java.lang.String-int-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.callableStatement.executeUpdate(SQL, autoGeneratedKeys));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate(String SQL, int[] columnIndices) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeUpdate-java.lang.String-java.lang.String:A-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.callableStatement.executeUpdate(SQL, columnIndices));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate(String SQL, String[] columnNames) throws SQLException {
+    // This method touches the database connection:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#executeUpdate-java.lang.String-java.lang.String:A-
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.callableStatement.executeUpdate(SQL, columnNames));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public java.sql.ResultSet executeQuery() throws SQLException {
+    // This method touches the database connection:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/PreparedStatement.html#executeQuery--
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeQuery", this.preparedSql);
+
+    Scope ws = trackingOperation.withSpan();
+    java.sql.ResultSet result;
+    try {
+      String fingerprint = tuneFetchSize(trackingOperation, this.preparedSql);
+      java.sql.ResultSet rs = this.callableStatement.executeQuery();
+      result = wrapResultSet(rs, "java.sql.CallableStatement.executeQuery", fingerprint);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate() throws SQLException {
+    // This method touches the database connection:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/PreparedStatement.html#executeUpdate--
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.CallableStatement.executeUpdate", this.preparedSql);
+
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result = recordRowsAffected(trackingOperation, this.callableStatement.executeUpdate());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public java.sql.ResultSet getGeneratedKeys() throws SQLException {
+    // This method doesn't touch the database:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#getGeneratedKeys--
+    java.sql.ResultSet rs = this.callableStatement.getGeneratedKeys();
+    return wrapGeneratedKeys(rs, "java.sql.CallableStatement.getGeneratedKeys");
+  }
+
+  @Override
+  public boolean getMoreResults(int current) throws SQLException {
+    // This method may directly touch the database:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#getMoreResults-int-
+    if (current != java.sql.Statement.CLOSE_CURRENT_RESULT) {
+      this.keepsResultsOpen = true;
+    }
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan(
+            "java.sql.CallableStatement.getMoreResults", this.startOptions);
+
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.callableStatement.getMoreResults(current);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public java.sql.ResultSet getResultSet() throws SQLException {
+    // This method doesn't touch the database:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#getResultSet--
+    java.sql.ResultSet rs = this.callableStatement.getResultSet();
+    if (rs == null) {
+      return null;
+    }
+    if (this.resultSetWrapper != null && this.resultSetWrapper.wraps(rs)) {
+      // Repeated calls for the same result get the same wrapper.
+      return this.resultSetWrapper;
+    }
+    return wrapResultSet(rs, "java.sql.CallableStatement.getResultSet", null);
+  }
+
+  // Wraps rs, the new current ResultSet of this statement.
+  private OcWrapResultSet wrapResultSet(
+      java.sql.ResultSet rs, String method, @Nullable String fingerprint) {
+    this.resultSetWrapper =
+        OcWrapResultSet.rewrap(
+            this.resultSetWrapper,
+            !this.keepsResultsOpen,
+            rs,
+            this.startOptions,
+            method,
+            fingerprint);
+    return this.resultSetWrapper;
+  }
+
+  // Wraps rs, the generated keys of the last execution of this statement. Drivers may keep the
+  // keys of an execution open past the next one, so their wrapper is only re-targeted once closed.
+  @Nullable
+  private OcWrapResultSet wrapGeneratedKeys(@Nullable java.sql.ResultSet rs, String method) {
+    if (rs == null) {
+      return null;
+    }
+    if (this.generatedKeysWrapper == null || !this.generatedKeysWrapper.wraps(rs)) {
+      this.generatedKeysWrapper =
+          OcWrapResultSet.rewrap(
+              this.generatedKeysWrapper, false, rs, this.startOptions, method, null);
+    }
+    return this.generatedKeysWrapper;
+  }
+
+  @Override
+  public void setFetchSize(int rows) throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#setFetchSize-int-
+    this.callableStatement.setFetchSize(rows);
+    this.fetchSizeSet = true;
+  }
+}
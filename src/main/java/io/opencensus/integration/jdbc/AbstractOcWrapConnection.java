@@ -0,0 +1,439 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.common.Scope;
+import io.opencensus.integration.jdbc.Observability.InstrumentationLevel;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.integration.jdbc.Observability.TrackingOperation;
+import io.opencensus.integration.jdbc.Observability.TransactionOperation;
+import io.opencensus.integration.jdbc.codegen.GenerateWrapper;
+import io.opencensus.tags.TagValue;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+
+/**
+ * Wraps and instruments a {@link Connection} instance with tracing and metrics using OpenCensus.
+ *
+ * <p>While autocommit is disabled, the statements executed through the connection are grouped
+ * under a "java.sql.Connection.transaction" span, which starts with the first statement and ends
+ * when the transaction is committed, rolled back or the connection is closed. The durations of
+ * transactions are recorded into the "java.sql/client/transaction_duration" view.
+ *
+ * <p>With {@link TraceOption#CACHE_PREPARED_STATEMENTS}, the PreparedStatements closed by the
+ * application are kept open in a {@link PreparedStatementCache}, and handed out again when the
+ * same SQL is prepared with the same options.
+ */
+@GenerateWrapper(
+    delegate = "connection",
+    // The generated calls that may touch the database. The others pass through, and the methods
+    // implemented here track themselves.
+    trace = {
+      "clearWarnings",
+      "getMetaData",
+      "getSchema",
+      "getTransactionIsolation",
+      "isValid",
+      "releaseSavepoint",
+      "setClientInfo",
+      "setNetworkTimeout",
+      "setReadOnly",
+      "setSavepoint",
+      "setSchema",
+      "setTransactionIsolation"
+    })
+abstract class AbstractOcWrapConnection implements Connection {
+  final Connection connection;
+  EnumSet<TraceOption> startOptions;
+
+  // Whether autocommit is enabled, or null until the driver is first asked.
+  @Nullable private Boolean autoCommit;
+  // The transaction in progress, if any. It is started by the first statement executed while
+  // autocommit is disabled rather than by setAutoCommit or commit, so that connections sitting
+  // idle in a pool with autocommit disabled don't hold a transaction open.
+  @Nullable private TransactionOperation transaction;
+  // The idle PreparedStatements of this connection, or null when they aren't cached.
+  @Nullable private final PreparedStatementCache statementCache;
+  // Tracks this wrapper for leaks, or null when leaks aren't detected.
+  @Nullable private final LeakDetector.Tracker leakTracker;
+
+  public AbstractOcWrapConnection(Connection connection, EnumSet<TraceOption> opts) {
+    this.connection = connection;
+    this.startOptions = opts;
+    this.statementCache =
+        Observability.shouldCachePreparedStatements(opts)
+            ? new PreparedStatementCache(Observability.preparedStatementCacheSize())
+            : null;
+    this.leakTracker =
+        Observability.shouldDetectLeaks(opts)
+            ? Observability.trackLeaks(this, LeakDetector.Resource.CONNECTION, connection::isClosed)
+            : null;
+  }
+
+  // Called by the statements of this connection before they execute SQL. Starts a transaction if
+  // autocommit is disabled and none is in progress, and counts the statement into it. Returns
+  // null when autocommit is enabled, or when no transaction is in progress and the global
+  // instrumentation level neither traces nor records stats.
+  @Nullable
+  TransactionOperation beginStatement() {
+    if (this.transaction == null) {
+      InstrumentationLevel level = Observability.globalInstrumentationLevel();
+      if (!level.traces && !level.stats) {
+        return null;
+      }
+      if (this.autoCommit == null) {
+        try {
+          this.autoCommit = this.connection.getAutoCommit();
+        } catch (SQLException e) {
+          // Let the statement itself report the problem with the connection.
+          return null;
+        }
+      }
+      if (this.autoCommit) {
+        return null;
+      }
+      this.transaction = new TransactionOperation();
+    }
+    this.transaction.recordStatement();
+    return this.transaction;
+  }
+
+  // Called by the statements of this connection with the number of rows they affected.
+  void recordRowsAffected(long rows) {
+    if (this.transaction != null) {
+      this.transaction.recordRowsAffected(rows);
+    }
+  }
+
+  // Starts tracking a call that is part of the transaction in progress, if any, so that its span
+  // is a child of the transaction span.
+  private TrackingOperation trackInTransaction(String method) {
+    if (this.transaction == null) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions);
+    }
+    try (Scope ts = this.transaction.withSpan()) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions);
+    }
+  }
+
+  // Returns the idle statement cached for key, or null if there is none or statements aren't
+  // cached, in which case key is null too.
+  @Nullable
+  private java.sql.PreparedStatement takeCachedStatement(@Nullable PreparedStatementCache.Key key) {
+    return key == null ? null : this.statementCache.take(key);
+  }
+
+  // Called by the statements of this connection when they are closed. Returns false if the
+  // statement wasn't cached, in which case the caller closes it.
+  boolean returnToCache(PreparedStatementCache.Key key, java.sql.PreparedStatement pstmt) {
+    return this.statementCache != null && this.statementCache.offer(key, pstmt);
+  }
+
+  private void endTransaction(TagValue outcome, @Nullable Throwable t) {
+    if (this.transaction != null) {
+      TransactionOperation ended = this.transaction;
+      this.transaction = null;
+      ended.end(outcome, t);
+    }
+  }
+
+  @Override
+  public void abort(Executor executor) throws SQLException {
+    // This method directly touches the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#abort-java.util.concurrent.Executor-
+    TrackingOperation trackingOperation = trackInTransaction("java.sql.Connection.abort");
+    if (this.leakTracker != null) {
+      this.leakTracker.close();
+    }
+    if (this.statementCache != null) {
+      this.statementCache.clear();
+    }
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.connection.abort(executor);
+      endTransaction(Observability.VALUE_CLOSE, null);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      endTransaction(Observability.VALUE_CLOSE, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  @Override
+  public void close() throws SQLException {
+    // This method directly touches the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#close--
+    if (this.statementCache != null) {
+      this.statementCache.close();
+    }
+    if (this.leakTracker != null) {
+      this.leakTracker.close();
+    }
+    TrackingOperation trackingOperation = trackInTransaction("java.sql.Connection.close");
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.connection.close();
+      endTransaction(Observability.VALUE_CLOSE, null);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      endTransaction(Observability.VALUE_CLOSE, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    // This method directly touches the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#commit--
+    TrackingOperation trackingOperation = trackInTransaction("java.sql.Connection.commit");
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.connection.commit();
+      endTransaction(Observability.VALUE_COMMIT, null);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      endTransaction(Observability.VALUE_COMMIT, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  @Override
+  public java.sql.Statement createStatement() throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#createStatement--
+    java.sql.Statement stmt = this.connection.createStatement();
+    return new OcWrapStatement(stmt, this.startOptions, this);
+  }
+
+  @Override
+  public java.sql.Statement createStatement(int resultSetType, int resultSetConcurrency)
+      throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#createStatement-int-int-
+    java.sql.Statement stmt = this.connection.createStatement(resultSetType, resultSetConcurrency);
+    return new OcWrapStatement(stmt, this.startOptions, this);
+  }
+
+  @Override
+  public java.sql.Statement createStatement(
+      int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#createStatement-int-int-int-
+    java.sql.Statement stmt =
+        this.connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+    return new OcWrapStatement(stmt, this.startOptions, this);
+  }
+
+  @Override
+  public String nativeSQL(String SQL) throws SQLException {
+    // This method directly touches the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#nativeSQL-java.lang.String-
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan(
+            "java.sql.Connection.nativeSQL", this.startOptions, SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    String result;
+    try {
+      result = this.connection.nativeSQL(SQL);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public java.sql.CallableStatement prepareCall(String SQL) throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareCall-java.lang.String-
+    java.sql.CallableStatement cstmt = this.connection.prepareCall(SQL);
+    return new OcWrapCallableStatement(cstmt, SQL, this.startOptions, this);
+  }
+
+  @Override
+  public java.sql.CallableStatement prepareCall(
+      String SQL, int resultSetType, int resultSetConcurrency) throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareCall-java.lang.String-int-int-
+    java.sql.CallableStatement cstmt =
+        this.connection.prepareCall(SQL, resultSetType, resultSetConcurrency);
+    return new OcWrapCallableStatement(cstmt, SQL, this.startOptions, this);
+  }
+
+  @Override
+  public java.sql.CallableStatement prepareCall(
+      String SQL, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareCall-java.lang.String-int-int-int-
+    java.sql.CallableStatement cstmt =
+        this.connection.prepareCall(SQL, resultSetType, resultSetConcurrency, resultSetHoldability);
+    return new OcWrapCallableStatement(cstmt, SQL, this.startOptions, this);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(String SQL) throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareStatement-java.lang.String-
+    PreparedStatementCache.Key key =
+        this.statementCache == null ? null : PreparedStatementCache.Key.of(SQL);
+    java.sql.PreparedStatement pstmt = takeCachedStatement(key);
+    if (pstmt == null) {
+      pstmt = this.connection.prepareStatement(SQL);
+    }
+    return new OcWrapPreparedStatement(pstmt, SQL, this.startOptions, this, key);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(String SQL, int autoGeneratedKeys)
+      throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareStatement-java.lang.String-int-
+    PreparedStatementCache.Key key =
+        this.statementCache == null
+            ? null
+            : PreparedStatementCache.Key.withGeneratedKeys(SQL, autoGeneratedKeys);
+    java.sql.PreparedStatement pstmt = takeCachedStatement(key);
+    if (pstmt == null) {
+      pstmt = this.connection.prepareStatement(SQL, autoGeneratedKeys);
+    }
+    return new OcWrapPreparedStatement(pstmt, SQL, this.startOptions, this, key);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(String SQL, int[] columnIndices)
+      throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareStatement-java.lang.String-int:A-
+    PreparedStatementCache.Key key =
+        this.statementCache == null
+            ? null
+            : PreparedStatementCache.Key.withGeneratedKeys(SQL, columnIndices);
+    java.sql.PreparedStatement pstmt = takeCachedStatement(key);
+    if (pstmt == null) {
+      pstmt = this.connection.prepareStatement(SQL, columnIndices);
+    }
+    return new OcWrapPreparedStatement(pstmt, SQL, this.startOptions, this, key);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(String SQL, String[] columnNames)
+      throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareStatement-java.lang.String-java.lang.String:A-
+    PreparedStatementCache.Key key =
+        this.statementCache == null
+            ? null
+            : PreparedStatementCache.Key.withGeneratedKeys(SQL, columnNames);
+    java.sql.PreparedStatement pstmt = takeCachedStatement(key);
+    if (pstmt == null) {
+      pstmt = this.connection.prepareStatement(SQL, columnNames);
+    }
+    return new OcWrapPreparedStatement(pstmt, SQL, this.startOptions, this, key);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(
+      String SQL, int resultSetType, int resultSetConcurrency) throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareStatement-java.lang.String-int-int
+    PreparedStatementCache.Key key =
+        this.statementCache == null
+            ? null
+            : PreparedStatementCache.Key.of(SQL, resultSetType, resultSetConcurrency);
+    java.sql.PreparedStatement pstmt = takeCachedStatement(key);
+    if (pstmt == null) {
+      pstmt = this.connection.prepareStatement(SQL, resultSetType, resultSetConcurrency);
+    }
+    return new OcWrapPreparedStatement(pstmt, SQL, this.startOptions, this, key);
+  }
+
+  @Override
+  public java.sql.PreparedStatement prepareStatement(
+      String SQL, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#prepareStatement-java.lang.String-int-int-int-
+    PreparedStatementCache.Key key =
+        this.statementCache == null
+            ? null
+            : PreparedStatementCache.Key.of(
+                SQL, resultSetType, resultSetConcurrency, resultSetHoldability);
+    java.sql.PreparedStatement pstmt = takeCachedStatement(key);
+    if (pstmt == null) {
+      pstmt =
+          this.connection.prepareStatement(
+              SQL, resultSetType, resultSetConcurrency, resultSetHoldability);
+    }
+    return new OcWrapPreparedStatement(pstmt, SQL, this.startOptions, this, key);
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    // This method directly touches the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#rollback--
+    TrackingOperation trackingOperation = trackInTransaction("java.sql.Connection.rollback");
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.connection.rollback();
+      endTransaction(Observability.VALUE_ROLLBACK, null);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      endTransaction(Observability.VALUE_ROLLBACK, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  @Override
+  public void rollback(java.sql.Savepoint savepoint) throws SQLException {
+    // This method directly touches the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#rollback-java.sql.Savepoint-
+    TrackingOperation trackingOperation = trackInTransaction("java.sql.Connection.rollback");
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.connection.rollback(savepoint);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  @Override
+  public void setAutoCommit(boolean autoCommit) throws SQLException {
+    // This method doesn't touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#setAutoCommit-boolean-
+    this.connection.setAutoCommit(autoCommit);
+    this.autoCommit = autoCommit;
+    if (autoCommit) {
+      // Enabling autocommit commits the transaction in progress.
+      endTransaction(Observability.VALUE_COMMIT, null);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.common.Scope;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.integration.jdbc.Observability.TrackingOperation;
+import io.opencensus.integration.jdbc.codegen.GenerateWrapper;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import javax.sql.DataSource;
+
+/**
+ * Wraps and instruments a {@link DataSource} instance, such as a connection pool, with tracing and
+ * metrics using OpenCensus.
+ *
+ * <p>Connections are returned wrapped in {@link OcWrapConnection}s, and the time spent acquiring
+ * them is recorded into the "java.sql/client/connection_acquire" view. {@link #unwrap} gives
+ * access to the wrapped DataSource, so that pool specific APIs remain reachable.
+ */
+@GenerateWrapper(
+    // The getConnection overloads, which track themselves, are the only calls that may touch the
+    // database. The others pass through.
+    delegate = "dataSource")
+abstract class AbstractOcWrapDataSource implements DataSource {
+  final DataSource dataSource;
+  final EnumSet<TraceOption> startOptions;
+
+  public AbstractOcWrapDataSource(DataSource dataSource) {
+    this(dataSource, EnumSet.noneOf(TraceOption.class));
+  }
+
+  public AbstractOcWrapDataSource(DataSource dataSource, EnumSet<TraceOption> opts) {
+    this.dataSource = dataSource;
+    this.startOptions = opts;
+  }
+
+  @Override
+  public java.sql.Connection getConnection() throws SQLException {
+    // This method may touch the database, or wait for a pooled connection:
+    // https://docs.oracle.com/javase/8/docs/api/javax/sql/DataSource.html#getConnection--
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan(
+            "javax.sql.DataSource.getConnection", this.startOptions);
+    trackingOperation.recordLatencyAlsoAs(Observability.MEASURE_CONNECTION_ACQUIRE_LATENCY_MS);
+
+    Scope ws = trackingOperation.withSpan();
+    java.sql.Connection result;
+    try {
+      result = new OcWrapConnection(this.dataSource.getConnection(), this.startOptions);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public java.sql.Connection getConnection(String username, String password) throws SQLException {
+    // This method may touch the database, or wait for a pooled connection:
+    // https://docs.oracle.com/javase/8/docs/api/javax/sql/DataSource.html#getConnection-java.lang.String-java.lang.String-
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan(
+            "javax.sql.DataSource.getConnection", this.startOptions);
+    trackingOperation.recordLatencyAlsoAs(Observability.MEASURE_CONNECTION_ACQUIRE_LATENCY_MS);
+
+    Scope ws = trackingOperation.withSpan();
+    java.sql.Connection result;
+    try {
+      result =
+          new OcWrapConnection(
+              this.dataSource.getConnection(username, password), this.startOptions);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    // This method doesn't touch the database:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Wrapper.html#isWrapperFor-java.lang.Class-
+    return iface.isInstance(this.dataSource) || this.dataSource.isWrapperFor(iface);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    // This method doesn't touch the database:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Wrapper.html#unwrap-java.lang.Class-
+    if (iface.isInstance(this.dataSource)) {
+      return iface.cast(this.dataSource);
+    }
+    return this.dataSource.unwrap(iface);
+  }
+}
@@ -0,0 +1,898 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.common.Scope;
+import io.opencensus.integration.jdbc.Observability.PreparedSql;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.integration.jdbc.Observability.TrackingOperation;
+import io.opencensus.integration.jdbc.Observability.TransactionOperation;
+import io.opencensus.integration.jdbc.codegen.GenerateWrapper;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.EnumSet;
+import javax.annotation.Nullable;
+
+/**
+ * Wraps and instruments a {@link PreparedStatement} instance with tracing and metrics using
+ * OpenCensus.
+ */
+@GenerateWrapper(
+    delegate = "preparedStatement",
+    // The generated calls that may touch the database. The others pass through, and the methods
+    // implemented here track themselves.
+    trace = {
+      "cancel",
+      "clearWarnings",
+      "setDate(int,java.sql.Date,java.util.Calendar)",
+      "setTime(int,java.sql.Time,java.util.Calendar)",
+      "setTimestamp(int,java.sql.Timestamp,java.util.Calendar)"
+    })
+abstract class AbstractOcWrapPreparedStatement implements PreparedStatement {
+  // Stands in for the driver statement once it was returned to the cache: every method but close
+  // and isClosed throws, as the methods of a closed statement do.
+  private static final PreparedStatement CLOSED =
+      (PreparedStatement)
+          Proxy.newProxyInstance(
+              PreparedStatement.class.getClassLoader(),
+              new Class<?>[] {PreparedStatement.class},
+              (proxy, method, args) -> {
+                switch (method.getName()) {
+                  case "isClosed":
+                    return true;
+                  case "close":
+                    return null;
+                  case "equals":
+                    return proxy == args[0];
+                  case "hashCode":
+                    return System.identityHashCode(proxy);
+                  case "toString":
+                    return "closed PreparedStatement";
+                  default:
+                    throw new SQLException("The PreparedStatement is closed");
+                }
+              });
+
+  // The driver statement, replaced by CLOSED once returned to the cache of the connection, so that
+  // this wrapper can't reach it any more once another caller takes it.
+  PreparedStatement preparedStatement;
+  final EnumSet<TraceOption> startOptions;
+  private final PreparedSql preparedSql;
+  // The connection that created this statement, to which executions are reported.
+  @Nullable private final AbstractOcWrapConnection connection;
+  // The number of commands added to the current batch.
+  private int batchSize;
+  private final boolean shouldTuneFetchSize;
+  // Whether the caller set a fetch size, which tuning then leaves alone. Fetch sizes set before the
+  // statement was wrapped, by the driver or the JDBC URL, turn tuning off altogether.
+  private boolean fetchSizeSet;
+  // The fetch size last applied by tuning, 0 for the driver's default.
+  private int tunedFetchSize;
+  // The wrapper of the current ResultSet, re-targeted at the next ResultSet of this statement once
+  // the caller closed it, rather than allocating a wrapper per execution, see
+  // OcWrapResultSet.rewrap.
+  @Nullable private OcWrapResultSet resultSetWrapper;
+  // The wrapper of the last generated keys, which is only re-targeted once the caller closed it.
+  @Nullable private OcWrapResultSet generatedKeysWrapper;
+  // Set once the caller kept the current ResultSet open across getMoreResults, after which the
+  // driver producing a ResultSet no longer closes the previous one.
+  private boolean keepsResultsOpen;
+  // The key to return the driver statement to the cache of the connection by on close, or null
+  // when statements aren't cached.
+  @Nullable private final PreparedStatementCache.Key cacheKey;
+  // The settings of the driver statement before the caller first changed them, restored before
+  // the statement is returned to the cache. Only kept for cached statements, once a setting
+  // changes.
+  @Nullable private OriginalSettings originalSettings;
+  // Set once the caller made a change that can't be undone, after which the driver statement is
+  // closed rather than cached.
+  private boolean notReusable;
+  // Tracks this wrapper for leaks, or null when leaks aren't detected.
+  @Nullable private final LeakDetector.Tracker leakTracker;
+
+  public AbstractOcWrapPreparedStatement(PreparedStatement pstmt, EnumSet<TraceOption> opts) {
+    this(pstmt, null, opts);
+  }
+
+  public AbstractOcWrapPreparedStatement(
+      PreparedStatement pstmt, @Nullable String sql, EnumSet<TraceOption> opts) {
+    this(pstmt, sql, opts, null);
+  }
+
+  AbstractOcWrapPreparedStatement(
+      PreparedStatement pstmt,
+      @Nullable String sql,
+      EnumSet<TraceOption> opts,
+      @Nullable AbstractOcWrapConnection connection) {
+    this(pstmt, sql, opts, connection, null);
+  }
+
+  AbstractOcWrapPreparedStatement(
+      PreparedStatement pstmt,
+      @Nullable String sql,
+      EnumSet<TraceOption> opts,
+      @Nullable AbstractOcWrapConnection connection,
+      @Nullable PreparedStatementCache.Key cacheKey) {
+    this.preparedStatement = pstmt;
+    this.startOptions = opts;
+    this.preparedSql = Observability.prepareSql(opts, sql);
+    this.connection = connection;
+    this.shouldTuneFetchSize = Observability.shouldTuneFetchSize(opts, pstmt);
+    this.cacheKey = cacheKey;
+    this.leakTracker =
+        Observability.shouldDetectLeaks(opts)
+            ? Observability.trackLeaks(
+                this, LeakDetector.Resource.PREPARED_STATEMENT, pstmt::isClosed)
+            : null;
+  }
+
+  public AbstractOcWrapPreparedStatement(
+      PreparedStatement pstmt, boolean shouldAnnotateSpansWithSQL) {
+    this(
+        pstmt,
+        shouldAnnotateSpansWithSQL
+            ? EnumSet.of(TraceOption.ANNOTATE_TRACES_WITH_SQL)
+            : EnumSet.noneOf(TraceOption.class));
+  }
+
+  // Starts tracking the execution of SQL, as part of the transaction of the connection if one is in
+  // progress.
+  private TrackingOperation trackExecution(String method, @Nullable String sql) {
+    TransactionOperation transaction =
+        this.connection == null ? null : this.connection.beginStatement();
+    if (transaction == null) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions, sql);
+    }
+    try (Scope ts = transaction.withSpan()) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions, sql);
+    }
+  }
+
+  private TrackingOperation trackExecution(String method, PreparedSql sql) {
+    TransactionOperation transaction =
+        this.connection == null ? null : this.connection.beginStatement();
+    if (transaction == null) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions, sql);
+    }
+    try (Scope ts = transaction.withSpan()) {
+      return Observability.createRoundtripTrackingSpan(method, this.startOptions, sql);
+    }
+  }
+
+  // Applies the fetch size learned for the query, unless the caller has set one. Returns the
+  // fingerprint that the rows read from the ResultSet are accounted to, or null when not tuning.
+  @Nullable
+  private String tuneFetchSize(TrackingOperation trackingOperation, PreparedSql sql)
+      throws SQLException {
+    if (!this.shouldTuneFetchSize || this.fetchSizeSet) {
+      return null;
+    }
+    String fingerprint = sql.fingerprint();
+    if (fingerprint == null) {
+      return null;
+    }
+    int fetchSize = Observability.tunedFetchSize(fingerprint);
+    if (fetchSize != this.tunedFetchSize) {
+      this.preparedStatement.setFetchSize(fetchSize);
+      this.tunedFetchSize = fetchSize;
+    }
+    if (fetchSize > 0) {
+      trackingOperation.recordFetchSize(fetchSize);
+    }
+    return fingerprint;
+  }
+
+  private long recordRowsAffected(TrackingOperation trackingOperation, long rows) {
+    trackingOperation.recordRowsAffected(rows);
+    if (this.connection != null) {
+      this.connection.recordRowsAffected(rows);
+    }
+    return rows;
+  }
+
+  private int recordRowsAffected(TrackingOperation trackingOperation, int rows) {
+    recordRowsAffected(trackingOperation, (long) rows);
+    return rows;
+  }
+
+  private int[] recordBatchRowsAffected(TrackingOperation trackingOperation, int[] updateCounts) {
+    recordRowsAffected(trackingOperation, Observability.rowsAffected(updateCounts));
+    return updateCounts;
+  }
+
+  private long[] recordBatchRowsAffected(TrackingOperation trackingOperation, long[] updateCounts) {
+    recordRowsAffected(trackingOperation, Observability.rowsAffected(updateCounts));
+    return updateCounts;
+  }
+
+  @Override
+  public void addBatch() throws SQLException {
+    // This method doesn't go over the network, the batch is only sent by executeBatch:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/PreparedStatement.html#addBatch--
+    this.preparedStatement.addBatch();
+    this.batchSize++;
+  }
+
+  @Override
+  public void addBatch(String SQL) throws SQLException {
+    // This method doesn't go over the network:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/PreparedStatement.html#addBatch--
+    this.preparedStatement.addBatch(SQL);
+    this.batchSize++;
+  }
+
+  @Override
+  public void clearBatch() throws SQLException {
+    // This method may go over the network:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#clearBatch--
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan(
+            "java.sql.PreparedStatement.createBatch", this.startOptions);
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.preparedStatement.clearBatch();
+      this.batchSize = 0;
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  // Closing the statement closes its ResultSets, whose wrappers then record what they read.
+  private void closeResultSetWrappers() {
+    if (this.resultSetWrapper != null) {
+      this.resultSetWrapper.statementClosed();
+    }
+    if (this.generatedKeysWrapper != null) {
+      this.generatedKeysWrapper.statementClosed();
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (this.preparedStatement == CLOSED) {
+      return;
+    }
+    if (this.leakTracker != null) {
+      this.leakTracker.close();
+    }
+    if (this.cacheKey != null
+        && resetForReuse()
+        && this.connection.returnToCache(this.cacheKey, this.preparedStatement)) {
+      // The statement stays open on the driver, so there's no round trip to trace.
+      this.preparedStatement = CLOSED;
+      return;
+    }
+    closeResultSetWrappers();
+
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan(
+            "java.sql.PreparedStatement.close", this.startOptions);
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.preparedStatement.close();
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  @Override
+  public void closeOnCompletion() throws SQLException {
+    // This method doesn't go over the network:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#closeOnCompletion--
+    this.preparedStatement.closeOnCompletion();
+    this.notReusable = true;
+  }
+
+  @Override
+  public boolean execute() throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.execute", this.preparedSql);
+
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.preparedStatement.execute();
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean execute(String SQL) throws SQLException {
+    TrackingOperation trackingOperation = trackExecution("java.sql.PreparedStatement.execute", SQL);
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.preparedStatement.execute(SQL);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean execute(String SQL, String[] columnNames) throws SQLException {
+    TrackingOperation trackingOperation = trackExecution("java.sql.PreparedStatement.execute", SQL);
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.preparedStatement.execute(SQL, columnNames);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean execute(String SQL, int[] columnIndices) throws SQLException {
+    TrackingOperation trackingOperation = trackExecution("java.sql.PreparedStatement.execute", SQL);
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.preparedStatement.execute(SQL, columnIndices);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public boolean execute(String SQL, int autoGeneratedKeys) throws SQLException {
+    TrackingOperation trackingOperation = trackExecution("java.sql.PreparedStatement.execute", SQL);
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = this.preparedStatement.execute(SQL, autoGeneratedKeys);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeBatch", this.preparedSql);
+    trackingOperation.recordBatchSize(this.batchSize);
+    // The batch is emptied whether or not it succeeds.
+    this.batchSize = 0;
+
+    Scope ws = trackingOperation.withSpan();
+    int[] result;
+    try {
+      result = recordBatchRowsAffected(trackingOperation, this.preparedStatement.executeBatch());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long[] executeLargeBatch() throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeLargeBatch", this.preparedSql);
+    trackingOperation.recordBatchSize(this.batchSize);
+    // The batch is emptied whether or not it succeeds.
+    this.batchSize = 0;
+
+    Scope ws = trackingOperation.withSpan();
+    long[] result;
+    try {
+      result =
+          recordBatchRowsAffected(trackingOperation, this.preparedStatement.executeLargeBatch());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate(String SQL) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeLargeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result =
+          recordRowsAffected(trackingOperation, this.preparedStatement.executeLargeUpdate(SQL));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate(String SQL, int autoGeneratedKeys) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeLargeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.preparedStatement.executeLargeUpdate(SQL, autoGeneratedKeys));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate(String SQL, int[] columnIndices) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeLargeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.preparedStatement.executeLargeUpdate(SQL, columnIndices));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate(String SQL, String[] columnNames) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeLargeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.preparedStatement.executeLargeUpdate(SQL, columnNames));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public long executeLargeUpdate() throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeLargeUpdate", this.preparedSql);
+
+    Scope ws = trackingOperation.withSpan();
+    long result;
+    try {
+      result = recordRowsAffected(trackingOperation, this.preparedStatement.executeLargeUpdate());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public void setLargeMaxRows(long max) throws SQLException {
+    // This method doesn't go over the network:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#setLargeMaxRows-long-
+    OriginalSettings original = originalSettings();
+    if (original != null && original.maxRows == null) {
+      original.maxRows = OriginalSettings.maxRows(this.preparedStatement);
+    }
+    this.preparedStatement.setLargeMaxRows(max);
+  }
+
+  @Override
+  public java.sql.ResultSet executeQuery(String SQL) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeQuery", SQL);
+    Scope ws = trackingOperation.withSpan();
+    java.sql.ResultSet result;
+    try {
+      java.sql.ResultSet rs = this.preparedStatement.executeQuery(SQL);
+      result = wrapResultSet(rs, "java.sql.PreparedStatement.executeQuery", null);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate(String SQL) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeUpdate", SQL);
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result = recordRowsAffected(trackingOperation, this.preparedStatement.executeUpdate(SQL));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate(String SQL, int autoGeneratedKeys) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeUpdate", SQL);
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.preparedStatement.executeUpdate(SQL, autoGeneratedKeys));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate(String SQL, int[] columnIndices) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeUpdate", SQL);
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.preparedStatement.executeUpdate(SQL, columnIndices));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate(String SQL, String[] columnNames) throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeUpdate", SQL);
+
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result =
+          recordRowsAffected(
+              trackingOperation, this.preparedStatement.executeUpdate(SQL, columnNames));
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public java.sql.ResultSet executeQuery() throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeQuery", this.preparedSql);
+
+    Scope ws = trackingOperation.withSpan();
+    java.sql.ResultSet result;
+    try {
+      String fingerprint = tuneFetchSize(trackingOperation, this.preparedSql);
+      java.sql.ResultSet rs = this.preparedStatement.executeQuery();
+      result = wrapResultSet(rs, "java.sql.PreparedStatement.executeQuery", fingerprint);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public int executeUpdate() throws SQLException {
+    TrackingOperation trackingOperation =
+        trackExecution("java.sql.PreparedStatement.executeUpdate", this.preparedSql);
+
+    Scope ws = trackingOperation.withSpan();
+    int result;
+    try {
+      result = recordRowsAffected(trackingOperation, this.preparedStatement.executeUpdate());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  @Override
+  public java.sql.ResultSet getGeneratedKeys() throws SQLException {
+    // This method doesn't go over the network:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#getGeneratedKeys--
+    java.sql.ResultSet rs = this.preparedStatement.getGeneratedKeys();
+    return wrapGeneratedKeys(rs, "java.sql.PreparedStatement.getGeneratedKeys");
+  }
+
+  @Override
+  public boolean getMoreResults(int current) throws SQLException {
+    // This method doesn't go over the network:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#getMoreResults--
+    if (current != java.sql.Statement.CLOSE_CURRENT_RESULT) {
+      this.keepsResultsOpen = true;
+    }
+    return this.preparedStatement.getMoreResults(current);
+  }
+
+  @Override
+  public java.sql.ResultSet getResultSet() throws SQLException {
+    // This method doesn't go over the network:
+    // Inherited from:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/Statement.html#getResultSet--
+    java.sql.ResultSet rs = this.preparedStatement.getResultSet();
+    if (rs == null) {
+      return null;
+    }
+    if (this.resultSetWrapper != null && this.resultSetWrapper.wraps(rs)) {
+      // Repeated calls for the same result get the same wrapper.
+      return this.resultSetWrapper;
+    }
+    return wrapResultSet(rs, "java.sql.PreparedStatement.getResultSet", null);
+  }
+
+  // Wraps rs, the new current ResultSet of this statement.
+  private OcWrapResultSet wrapResultSet(
+      java.sql.ResultSet rs, String method, @Nullable String fingerprint) {
+    this.resultSetWrapper =
+        OcWrapResultSet.rewrap(
+            this.resultSetWrapper,
+            !this.keepsResultsOpen,
+            rs,
+            this.startOptions,
+            method,
+            fingerprint);
+    return this.resultSetWrapper;
+  }
+
+  // Wraps rs, the generated keys of the last execution of this statement. Drivers may keep the
+  // keys of an execution open past the next one, so their wrapper is only re-targeted once closed.
+  @Nullable
+  private OcWrapResultSet wrapGeneratedKeys(@Nullable java.sql.ResultSet rs, String method) {
+    if (rs == null) {
+      return null;
+    }
+    if (this.generatedKeysWrapper == null || !this.generatedKeysWrapper.wraps(rs)) {
+      this.generatedKeysWrapper =
+          OcWrapResultSet.rewrap(
+              this.generatedKeysWrapper, false, rs, this.startOptions, method, null);
+    }
+    return this.generatedKeysWrapper;
+  }
+
+  // Readies the driver statement for the next user of the cache, by closing its current ResultSet,
+  // clearing its parameters and batch, and restoring its settings. Returns false if the statement
+  // can't be reused.
+  private boolean resetForReuse() {
+    if (this.notReusable) {
+      return false;
+    }
+    try {
+      if (this.preparedStatement.isClosed()) {
+        return false;
+      }
+      // The ResultSets are closed through their wrappers, which then record what they read, as
+      // closing the driver statement would.
+      java.sql.ResultSet rs = this.preparedStatement.getResultSet();
+      if (this.resultSetWrapper != null && this.resultSetWrapper.wraps(rs)) {
+        this.resultSetWrapper.close();
+      } else if (rs != null) {
+        rs.close();
+      }
+      if (this.generatedKeysWrapper != null) {
+        this.generatedKeysWrapper.close();
+      }
+      this.preparedStatement.clearParameters();
+      if (this.batchSize > 0) {
+        this.preparedStatement.clearBatch();
+        this.batchSize = 0;
+      }
+      // A fetch size set by the caller is restored with the other settings.
+      if (this.tunedFetchSize != 0 && !this.fetchSizeSet) {
+        this.preparedStatement.setFetchSize(0);
+      }
+      if (this.originalSettings != null) {
+        this.originalSettings.restore(this.preparedStatement);
+      }
+      return true;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  // Returns where to keep the settings of the driver statement before they change, or null when
+  // the statement isn't cached and so never restored.
+  @Nullable
+  private OriginalSettings originalSettings() {
+    if (this.cacheKey == null) {
+      return null;
+    }
+    if (this.originalSettings == null) {
+      this.originalSettings = new OriginalSettings();
+    }
+    return this.originalSettings;
+  }
+
+  @Override
+  public void setCursorName(String cursorName) throws SQLException {
+    this.preparedStatement.setCursorName(cursorName);
+    // A cursor name can't be reliably unset.
+    this.notReusable = true;
+  }
+
+  @Override
+  public void setEscapeProcessing(boolean enable) throws SQLException {
+    OriginalSettings original = originalSettings();
+    if (original != null) {
+      original.escapeProcessingChanged = true;
+    }
+    this.preparedStatement.setEscapeProcessing(enable);
+  }
+
+  @Override
+  public void setFetchDirection(int direction) throws SQLException {
+    OriginalSettings original = originalSettings();
+    if (original != null && original.fetchDirection == null) {
+      original.fetchDirection = this.preparedStatement.getFetchDirection();
+    }
+    this.preparedStatement.setFetchDirection(direction);
+  }
+
+  @Override
+  public void setFetchSize(int rows) throws SQLException {
+    OriginalSettings original = originalSettings();
+    if (original != null && original.fetchSize == null) {
+      // Tuning only ever changes the driver's default fetch size of 0.
+      original.fetchSize = this.tunedFetchSize != 0 ? 0 : this.preparedStatement.getFetchSize();
+    }
+    this.preparedStatement.setFetchSize(rows);
+    this.fetchSizeSet = true;
+  }
+
+  @Override
+  public void setMaxFieldSize(int max) throws SQLException {
+    OriginalSettings original = originalSettings();
+    if (original != null && original.maxFieldSize == null) {
+      original.maxFieldSize = this.preparedStatement.getMaxFieldSize();
+    }
+    this.preparedStatement.setMaxFieldSize(max);
+  }
+
+  @Override
+  public void setMaxRows(int max) throws SQLException {
+    OriginalSettings original = originalSettings();
+    if (original != null && original.maxRows == null) {
+      original.maxRows = OriginalSettings.maxRows(this.preparedStatement);
+    }
+    this.preparedStatement.setMaxRows(max);
+  }
+
+  @Override
+  public void setPoolable(boolean poolable) throws SQLException {
+    OriginalSettings original = originalSettings();
+    if (original != null && original.poolable == null) {
+      original.poolable = this.preparedStatement.isPoolable();
+    }
+    this.preparedStatement.setPoolable(poolable);
+  }
+
+  @Override
+  public void setQueryTimeout(int seconds) throws SQLException {
+    OriginalSettings original = originalSettings();
+    if (original != null && original.queryTimeout == null) {
+      original.queryTimeout = this.preparedStatement.getQueryTimeout();
+    }
+    this.preparedStatement.setQueryTimeout(seconds);
+  }
+
+  // The settings of a driver statement before they were changed, null for those left unchanged.
+  private static final class OriginalSettings {
+    @Nullable Long maxRows;
+    @Nullable Integer maxFieldSize;
+    @Nullable Integer queryTimeout;
+    @Nullable Integer fetchDirection;
+    @Nullable Integer fetchSize;
+    @Nullable Boolean poolable;
+    boolean escapeProcessingChanged;
+
+    void restore(PreparedStatement statement) throws SQLException {
+      if (maxRows != null) {
+        setMaxRows(statement, maxRows);
+      }
+      if (maxFieldSize != null) {
+        statement.setMaxFieldSize(maxFieldSize);
+      }
+      if (queryTimeout != null) {
+        statement.setQueryTimeout(queryTimeout);
+      }
+      if (fetchDirection != null) {
+        statement.setFetchDirection(fetchDirection);
+      }
+      if (fetchSize != null) {
+        statement.setFetchSize(fetchSize);
+      }
+      if (poolable != null) {
+        statement.setPoolable(poolable);
+      }
+      // Escape processing has no getter, and is on by default.
+      if (escapeProcessingChanged) {
+        statement.setEscapeProcessing(true);
+      }
+    }
+
+    // Reads the max rows as a long, so that a limit beyond Integer.MAX_VALUE isn't lost, or as an
+    // int from drivers that don't implement the large variant.
+    private static long maxRows(PreparedStatement statement) throws SQLException {
+      try {
+        return statement.getLargeMaxRows();
+      } catch (UnsupportedOperationException | SQLFeatureNotSupportedException e) {
+        return statement.getMaxRows();
+      }
+    }
+
+    // The counterpart of maxRows, where the int variant is only used with values read from it.
+    private static void setMaxRows(PreparedStatement statement, long maxRows) throws SQLException {
+      try {
+        statement.setLargeMaxRows(maxRows);
+      } catch (UnsupportedOperationException | SQLFeatureNotSupportedException e) {
+        statement.setMaxRows((int) maxRows);
+      }
+    }
+  }
+}
@@ -0,0 +1,356 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.common.Scope;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.integration.jdbc.Observability.TrackingOperation;
+import io.opencensus.integration.jdbc.codegen.GenerateWrapper;
+import io.opencensus.trace.AttributeValue;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/** Wraps and instruments a {@link ResultSet} instance with tracing and metrics using OpenCensus. */
+@GenerateWrapper(
+    delegate = "resultSet",
+    labelResolver = "columnIndex",
+    // The generated calls that may touch the database. The others pass through, and the methods
+    // implemented here track themselves.
+    trace = {
+      "absolute",
+      "afterLast",
+      "beforeFirst",
+      "cancelRowUpdates",
+      "clearWarnings",
+      "deleteRow",
+      "first",
+      "getAsciiStream",
+      "getCursorName",
+      "getHoldability",
+      "getRow",
+      "getTimestamp",
+      "getUnicodeStream",
+      "insertRow",
+      "isLast",
+      "last",
+      "moveToCurrentRow",
+      "moveToInsertRow",
+      "previous",
+      "refreshRow",
+      "relative",
+      "updateRow"
+    })
+abstract class AbstractOcWrapResultSet implements ResultSet {
+  // The statements that produced this wrapper re-target it at their next ResultSet, see rewrap, so
+  // the fields describing the wrapped ResultSet aren't final.
+  ResultSet resultSet;
+  final EnumSet<TraceOption> startOptions;
+  private final boolean shouldAggregateFetch;
+  // The method that produced this ResultSet, which the rows returned are recorded with.
+  private String sourceMethod;
+  // The fingerprint of the query, set when the rows read should tune its fetch size.
+  @Nullable private String queryFingerprint;
+  // Whether close was called since this wrapper was last targeted.
+  private boolean closed;
+
+  // The rows returned by next so far, recorded once the ResultSet is exhausted or closed.
+  private long rowsReturned;
+  private boolean rowsReturnedRecorded;
+
+  // Tracks this wrapper for leaks, or null when leaks aren't detected.
+  @Nullable private LeakDetector.Tracker leakTracker;
+
+  // The index of each column label, built from the metadata on the first label lookup so that
+  // label getters don't make the driver search the columns on every row. NO_COLUMN_INDEXES when
+  // the driver has no metadata, in which case label getters call the label getters of the driver.
+  @Nullable private Map<String, Integer> columnIndexes;
+
+  // VisibleForTesting
+  static final Map<String, Integer> NO_COLUMN_INDEXES = Collections.emptyMap();
+
+  // State of the aggregated "java.sql.ResultSet.fetch" operation, only used when
+  // shouldAggregateFetch is set.
+  @Nullable private TrackingOperation fetchOperation;
+  private boolean fetchEnded;
+  private long totalNextNs;
+  private long maxNextNs;
+
+  public AbstractOcWrapResultSet(ResultSet rs) {
+    this(rs, EnumSet.noneOf(TraceOption.class));
+  }
+
+  public AbstractOcWrapResultSet(ResultSet rs, EnumSet<TraceOption> opts) {
+    this(rs, opts, "java.sql.ResultSet.next");
+  }
+
+  AbstractOcWrapResultSet(ResultSet rs, EnumSet<TraceOption> opts, String sourceMethod) {
+    this(rs, opts, sourceMethod, null);
+  }
+
+  AbstractOcWrapResultSet(
+      ResultSet rs,
+      EnumSet<TraceOption> opts,
+      String sourceMethod,
+      @Nullable String queryFingerprint) {
+    this.resultSet = rs;
+    this.startOptions = opts;
+    this.shouldAggregateFetch = Observability.shouldAggregateResultSetFetch(opts);
+    this.sourceMethod = sourceMethod;
+    this.queryFingerprint = queryFingerprint;
+    this.leakTracker = trackLeaks(rs);
+  }
+
+  // Returns the wrapper of rs, a ResultSet just produced by a statement whose previous ResultSet
+  // was wrapped by previous. previous is re-targeted at rs rather than allocating a wrapper per
+  // execution once the caller closed it, as no handle to it is in use anymore. Otherwise the caller
+  // may still hold previous, which must keep wrapping its own ResultSet, so rs gets a new wrapper,
+  // and the rows of previous are recorded now when producing rs closed its ResultSet, as set by
+  // previousClosed.
+  static OcWrapResultSet rewrap(
+      @Nullable OcWrapResultSet previous,
+      boolean previousClosed,
+      ResultSet rs,
+      EnumSet<TraceOption> opts,
+      String sourceMethod,
+      @Nullable String queryFingerprint) {
+    AbstractOcWrapResultSet wrapper = previous;
+    if (wrapper != null && wrapper.closed) {
+      wrapper.retarget(rs, sourceMethod, queryFingerprint);
+      return previous;
+    }
+    if (wrapper != null && previousClosed) {
+      wrapper.endFetch();
+      wrapper.recordRowsReturned();
+    }
+    return new OcWrapResultSet(rs, opts, sourceMethod, queryFingerprint);
+  }
+
+  // Whether this wrapper currently wraps rs.
+  boolean wraps(ResultSet rs) {
+    return this.resultSet == rs;
+  }
+
+  private void retarget(ResultSet rs, String sourceMethod, @Nullable String queryFingerprint) {
+    if (this.leakTracker != null) {
+      this.leakTracker.close();
+    }
+
+    this.resultSet = rs;
+    this.sourceMethod = sourceMethod;
+    this.queryFingerprint = queryFingerprint;
+    this.closed = false;
+    this.rowsReturned = 0;
+    this.rowsReturnedRecorded = false;
+    this.columnIndexes = null;
+    this.fetchOperation = null;
+    this.fetchEnded = false;
+    this.totalNextNs = 0;
+    this.maxNextNs = 0;
+    this.leakTracker = trackLeaks(rs);
+  }
+
+  @Nullable
+  private LeakDetector.Tracker trackLeaks(ResultSet rs) {
+    return Observability.shouldDetectLeaks(this.startOptions)
+        ? Observability.trackLeaks(this, LeakDetector.Resource.RESULT_SET, rs::isClosed)
+        : null;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    // This method goes to the database directly:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/ResultSet.html#close--
+    endTracking();
+
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan("java.sql.ResultSet.close", this.startOptions);
+
+    Scope ws = trackingOperation.withSpan();
+    try {
+      this.resultSet.close();
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+  }
+
+  // Called by the statement of this ResultSet when closing the statement closes the ResultSet,
+  // as callers commonly close only the statement.
+  void statementClosed() {
+    endTracking();
+  }
+
+  // Records the rows read and ends the fetch of the ResultSet, once it is closed.
+  private void endTracking() {
+    this.closed = true;
+    endFetch();
+    recordRowsReturned();
+    if (this.leakTracker != null) {
+      this.leakTracker.close();
+    }
+  }
+
+  @Override
+  public int findColumn(String columnLabel) throws SQLException {
+    // This method doesn't touch the database, drivers resolve labels from the metadata they
+    // already hold:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/ResultSet.html#findColumn-java.lang.String-
+    int columnIndex = columnIndex(columnLabel);
+    return columnIndex > 0 ? columnIndex : this.resultSet.findColumn(columnLabel);
+  }
+
+  // Returns the index of the column labeled columnLabel, or 0 when the label is left for the
+  // driver to resolve or reject, because the metadata doesn't know it or isn't available.
+  int columnIndex(String columnLabel) {
+    Map<String, Integer> columnIndexes = this.columnIndexes;
+    if (columnIndexes == null) {
+      columnIndexes = columnIndexes(this.resultSet);
+      this.columnIndexes = columnIndexes;
+    }
+    if (columnIndexes == NO_COLUMN_INDEXES) {
+      return 0;
+    }
+    Integer columnIndex = columnIndexes.get(columnLabel);
+    if (columnIndex == null) {
+      columnIndex = columnIndexes.get(columnLabel.toLowerCase(Locale.ROOT));
+      if (columnIndex == null) {
+        return 0;
+      }
+      // Later lookups with the same spelling are served by the first get.
+      columnIndexes.put(columnLabel, columnIndex);
+    }
+    return columnIndex;
+  }
+
+  // Maps the lower cased labels of the columns to their index. Labels are matched case
+  // insensitively, and the first of the columns sharing a label wins, as per findColumn. Returns
+  // NO_COLUMN_INDEXES when the metadata isn't available.
+  // VisibleForTesting
+  static Map<String, Integer> columnIndexes(ResultSet rs) {
+    Map<String, Integer> columnIndexes = new HashMap<>();
+    try {
+      java.sql.ResultSetMetaData metaData = rs.getMetaData();
+      if (metaData == null) {
+        return NO_COLUMN_INDEXES;
+      }
+      int columnCount = metaData.getColumnCount();
+      for (int i = columnCount; i >= 1; i--) {
+        String label = metaData.getColumnLabel(i);
+        if (label != null) {
+          columnIndexes.put(label.toLowerCase(Locale.ROOT), i);
+        }
+      }
+    } catch (SQLException e) {
+      return NO_COLUMN_INDEXES;
+    }
+    return columnIndexes;
+  }
+
+  @Override
+  public boolean next() throws SQLException {
+    // This method may touch the database:
+    // https://docs.oracle.com/javase/8/docs/api/java/sql/ResultSet.html#next--
+    if (this.shouldAggregateFetch) {
+      return fetchNext();
+    }
+
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan("java.sql.ResultSet.next", this.startOptions);
+
+    Scope ws = trackingOperation.withSpan();
+    boolean result;
+    try {
+      result = countRow(this.resultSet.next());
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
+    }
+    trackingOperation.end(ws);
+    return result;
+  }
+
+  // fetchNext accounts a single next call to the aggregated fetch operation, which is started by
+  // the first call and ended once the ResultSet is exhausted.
+  private boolean fetchNext() throws SQLException {
+    if (this.fetchEnded) {
+      return countRow(this.resultSet.next());
+    }
+    if (this.fetchOperation == null) {
+      this.fetchOperation =
+          Observability.createRoundtripTrackingSpan("java.sql.ResultSet.fetch", this.startOptions);
+    }
+
+    long startNs = System.nanoTime();
+    boolean hasRow;
+    try {
+      hasRow = this.resultSet.next();
+    } catch (Exception e) {
+      this.fetchOperation.recordException(e);
+      endFetch();
+      throw e;
+    }
+
+    long nextNs = System.nanoTime() - startNs;
+    this.totalNextNs += nextNs;
+    if (nextNs > this.maxNextNs) {
+      this.maxNextNs = nextNs;
+    }
+    if (!countRow(hasRow)) {
+      endFetch();
+    }
+    return hasRow;
+  }
+
+  private boolean countRow(boolean hasRow) {
+    if (hasRow) {
+      this.rowsReturned++;
+    } else {
+      recordRowsReturned();
+    }
+    return hasRow;
+  }
+
+  private void recordRowsReturned() {
+    if (!this.rowsReturnedRecorded) {
+      this.rowsReturnedRecorded = true;
+      Observability.recordRowsReturned(this.sourceMethod, this.rowsReturned);
+      if (this.queryFingerprint != null) {
+        Observability.recordRowsRead(this.queryFingerprint, this.rowsReturned);
+      }
+    }
+  }
+
+  private void endFetch() {
+    TrackingOperation trackingOperation = this.fetchOperation;
+    if (trackingOperation == null || this.fetchEnded) {
+      return;
+    }
+
+    this.fetchEnded = true;
+    trackingOperation.putAttribute("rows", AttributeValue.longAttributeValue(this.rowsReturned));
+    trackingOperation.putAttribute(
+        "next_time_total_ns", AttributeValue.longAttributeValue(this.totalNextNs));
+    trackingOperation.putAttribute(
+        "next_time_max_ns", AttributeValue.longAttributeValue(this.maxNextNs));
+    trackingOperation.end();
+  }
+}
@@ -0,0 +1,146 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classifies exceptions into a small, bounded set of values for the java_sql_error tag.
+ *
+ * <p>Exception messages routinely contain row IDs, constraint values and timestamps, so tagging
+ * with them creates a new time series per failure. Instead, {@link SQLException}s are classified by
+ * their SQLState class, falling back to the vendor error code, and any other exception by its
+ * class name. Values outside of the well-known SQLState classes are capped, with the overflow
+ * folded into {@link #OTHER}.
+ */
+final class ErrorClassifier {
+
+  static final String OTHER = "other";
+
+  private static final int MAX_DYNAMIC_VALUES = 32;
+
+  private static final ErrorClassifier defaultClassifier = new ErrorClassifier(MAX_DYNAMIC_VALUES);
+
+  // SQLState values that get a category of their own, regardless of their class.
+  private static final Map<String, String> SQL_STATES = new HashMap<>();
+  // Well-known SQLState classes, i.e. the first two characters of the SQLState.
+  private static final Map<String, String> SQL_STATE_CLASSES = new HashMap<>();
+
+  static {
+    SQL_STATES.put("40001", "serialization_failure");
+    SQL_STATES.put("40P01", "deadlock_detected");
+    SQL_STATES.put("57014", "query_canceled");
+    SQL_STATES.put("HYT00", "timeout");
+    SQL_STATES.put("HYT01", "timeout");
+
+    SQL_STATE_CLASSES.put("01", "warning");
+    SQL_STATE_CLASSES.put("02", "no_data");
+    SQL_STATE_CLASSES.put("08", "connection_exception");
+    SQL_STATE_CLASSES.put("0A", "feature_not_supported");
+    SQL_STATE_CLASSES.put("21", "cardinality_violation");
+    SQL_STATE_CLASSES.put("22", "data_exception");
+    SQL_STATE_CLASSES.put("23", "integrity_constraint_violation");
+    SQL_STATE_CLASSES.put("24", "invalid_cursor_state");
+    SQL_STATE_CLASSES.put("25", "invalid_transaction_state");
+    SQL_STATE_CLASSES.put("28", "invalid_authorization");
+    SQL_STATE_CLASSES.put("40", "transaction_rollback");
+    SQL_STATE_CLASSES.put("42", "syntax_error_or_access_rule_violation");
+    SQL_STATE_CLASSES.put("53", "insufficient_resources");
+    SQL_STATE_CLASSES.put("54", "program_limit_exceeded");
+    SQL_STATE_CLASSES.put("57", "operator_intervention");
+    SQL_STATE_CLASSES.put("58", "system_error");
+    SQL_STATE_CLASSES.put("HY", "driver_error");
+    SQL_STATE_CLASSES.put("XX", "internal_error");
+  }
+
+  // Values that are not well-known, such as vendor codes and exception class names, admitted so
+  // far. Once maxDynamicValues are admitted, any new value is reported as OTHER.
+  private final Set<String> dynamicValues = ConcurrentHashMap.newKeySet();
+  // The slots of dynamicValues taken so far, reserved before a value is added so that concurrent
+  // first-seen values can't overshoot maxDynamicValues.
+  private final AtomicInteger admittedValues = new AtomicInteger();
+  private final int maxDynamicValues;
+
+  // VisibleForTesting
+  ErrorClassifier(int maxDynamicValues) {
+    this.maxDynamicValues = maxDynamicValues;
+  }
+
+  static String classify(Throwable t) {
+    return defaultClassifier.classifyError(t);
+  }
+
+  // VisibleForTesting
+  String classifyError(Throwable t) {
+    if (t instanceof SQLException) {
+      SQLException e = (SQLException) t;
+      String sqlState = e.getSQLState();
+      if (sqlState != null && sqlState.length() >= 2) {
+        String category = SQL_STATES.get(sqlState);
+        if (category == null) {
+          category = SQL_STATE_CLASSES.get(sqlState.substring(0, 2));
+        }
+        if (category != null) {
+          return category;
+        }
+        return cap("sqlstate_" + sqlState.substring(0, 2));
+      }
+      if (e.getErrorCode() != 0) {
+        return cap("vendor_" + e.getErrorCode());
+      }
+    }
+    return cap(t.getClass().getSimpleName());
+  }
+
+  private String cap(String value) {
+    if (dynamicValues.contains(value)) {
+      return value;
+    }
+    if (!isPrintable(value)) {
+      return OTHER;
+    }
+    int admitted;
+    do {
+      admitted = admittedValues.get();
+      if (admitted >= maxDynamicValues) {
+        return OTHER;
+      }
+    } while (!admittedValues.compareAndSet(admitted, admitted + 1));
+    if (!dynamicValues.add(value)) {
+      // Another thread admitted the same value meanwhile, give the slot back.
+      admittedValues.decrementAndGet();
+    }
+    return value;
+  }
+
+  // TagValues only allow printable ASCII characters.
+  private static boolean isPrintable(String value) {
+    if (value.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < ' ' || c > '~') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,139 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Learns how many rows are typically read from the ResultSets of each query, and turns that into
+ * a fetch size for the next executions of the query.
+ *
+ * <p>The rows read are tracked per query fingerprint as an exponentially weighted moving average,
+ * so that a query whose consumption changes is followed within a few executions. The fetch size
+ * is the average plus one, so that the driver can tell the ResultSet is exhausted without another
+ * round trip, clamped to the configured bounds.
+ *
+ * <p>At most {@code maxQueries} queries are tracked. While the table is full, untracked queries
+ * keep the driver's default fetch size, and every {@code maxQueries} of their executions sweep
+ * the table to evict the queries that weren't executed since the previous sweep, making room for
+ * the queries that run now.
+ */
+final class FetchSizeTuner {
+
+  static final int DEFAULT_MIN_FETCH_SIZE = 10;
+  static final int DEFAULT_MAX_FETCH_SIZE = 1000;
+
+  // The weight of the latest execution in the moving average.
+  private static final double ALPHA = 0.25;
+
+  private final int maxQueries;
+  private final ConcurrentHashMap<String, RowsEstimate> estimates = new ConcurrentHashMap<>();
+  // The executions of untracked queries while the table was full.
+  private final AtomicInteger missesWhileFull = new AtomicInteger();
+
+  private volatile int minFetchSize = DEFAULT_MIN_FETCH_SIZE;
+  private volatile int maxFetchSize = DEFAULT_MAX_FETCH_SIZE;
+
+  FetchSizeTuner(int maxQueries) {
+    this.maxQueries = maxQueries;
+  }
+
+  void setBounds(int minFetchSize, int maxFetchSize) {
+    if (minFetchSize <= 0 || maxFetchSize < minFetchSize) {
+      throw new IllegalArgumentException(
+          "Invalid fetch size bounds: [" + minFetchSize + ", " + maxFetchSize + "]");
+    }
+    this.minFetchSize = minFetchSize;
+    this.maxFetchSize = maxFetchSize;
+  }
+
+  // Returns the fetch size to execute the query with, or 0 when nothing is known about it yet.
+  int fetchSize(String fingerprint) {
+    RowsEstimate estimate = estimates.get(fingerprint);
+    if (estimate == null) {
+      return 0;
+    }
+    estimate.markUsed();
+    long fetchSize = (long) Math.ceil(estimate.rows()) + 1;
+    return (int) Math.max(minFetchSize, Math.min(maxFetchSize, fetchSize));
+  }
+
+  void recordRowsRead(String fingerprint, long rows) {
+    RowsEstimate estimate = estimates.get(fingerprint);
+    if (estimate == null) {
+      if (estimates.size() >= maxQueries) {
+        if (missesWhileFull.incrementAndGet() % maxQueries == 0) {
+          evictUnused();
+        }
+        return;
+      }
+      estimate = estimates.putIfAbsent(fingerprint, new RowsEstimate(rows));
+      if (estimate == null) {
+        return;
+      }
+    }
+    estimate.update(rows);
+  }
+
+  // Evicts the queries that weren't executed since the previous sweep, and starts over tracking
+  // which queries are executed.
+  private void evictUnused() {
+    for (Iterator<RowsEstimate> it = estimates.values().iterator(); it.hasNext(); ) {
+      RowsEstimate estimate = it.next();
+      if (estimate.used) {
+        estimate.used = false;
+      } else {
+        it.remove();
+      }
+    }
+  }
+
+  private static final class RowsEstimate {
+    // The bits of the average number of rows, a double updated atomically.
+    private final AtomicLong rowsBits;
+    // Whether the query was executed since the last sweep.
+    volatile boolean used = true;
+
+    RowsEstimate(double rows) {
+      this.rowsBits = new AtomicLong(Double.doubleToRawLongBits(rows));
+    }
+
+    double rows() {
+      return Double.longBitsToDouble(rowsBits.get());
+    }
+
+    void update(long rows) {
+      long bits;
+      long updatedBits;
+      do {
+        bits = rowsBits.get();
+        double average = Double.longBitsToDouble(bits);
+        updatedBits = Double.doubleToRawLongBits(average + ALPHA * (rows - average));
+      } while (!rowsBits.compareAndSet(bits, updatedBits));
+      markUsed();
+    }
+
+    // Only writes the flag when it changes, so that executions of a popular query don't keep
+    // invalidating the cache line it shares with other threads.
+    void markUsed() {
+      if (!used) {
+        used = true;
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.stats.BucketBoundaries;
+import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.MeasureMap;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.tags.TagContext;
+import java.util.List;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram that pre-aggregates latencies locally, using the same bucket boundaries
+ * as the views the latencies are eventually recorded into.
+ *
+ * <p>Each bucket keeps a count, a sum and a sum of squares in striped {@link LongAdder}/{@link
+ * DoubleAdder} cells, so concurrent recording threads never contend on a shared lock. {@link
+ * #flush} replays the aggregated data into a {@link StatsRecorder}, which only accepts single
+ * values, so a bucket hit n times is still recorded n times, from the flushing thread. The values
+ * are spread around the mean of the bucket so that the count, the sum and the sum of squared
+ * deviations of the bucket stay exact; only the minimum and maximum of a bucket are lost.
+ */
+final class LatencyHistogram {
+  private final double[] boundaries;
+  private final LongAdder[] counts;
+  private final DoubleAdder[] sums;
+  private final DoubleAdder[] sumsOfSquares;
+
+  LatencyHistogram(BucketBoundaries bucketBoundaries) {
+    List<Double> boundaryList = bucketBoundaries.getBoundaries();
+    this.boundaries = new double[boundaryList.size()];
+    for (int i = 0; i < this.boundaries.length; i++) {
+      this.boundaries[i] = boundaryList.get(i);
+    }
+
+    // There is one bucket below the first boundary, and one bucket per boundary.
+    this.counts = new LongAdder[this.boundaries.length + 1];
+    this.sums = new DoubleAdder[this.boundaries.length + 1];
+    this.sumsOfSquares = new DoubleAdder[this.boundaries.length + 1];
+    for (int i = 0; i < this.counts.length; i++) {
+      this.counts[i] = new LongAdder();
+      this.sums[i] = new DoubleAdder();
+      this.sumsOfSquares[i] = new DoubleAdder();
+    }
+  }
+
+  void record(double value) {
+    int bucket = bucketIndex(value);
+    this.counts[bucket].increment();
+    this.sums[bucket].add(value);
+    this.sumsOfSquares[bucket].add(value * value);
+  }
+
+  // Records all the values aggregated since the last flush with the given tags, and resets the
+  // histogram.
+  //
+  // Half of the values of a bucket are replayed at mean - deviation and the other half at mean +
+  // deviation, with the odd one out at the mean, where the deviation is chosen to keep the sum of
+  // squared deviations of the bucket. Each distinct value is put in a single MeasureMap that is
+  // recorded repeatedly, so a flush allocates per bucket rather than per value.
+  void flush(StatsRecorder statsRecorder, MeasureDouble measure, TagContext tagContext) {
+    for (int bucket = 0; bucket < this.counts.length; bucket++) {
+      long count = this.counts[bucket].sumThenReset();
+      if (count == 0) {
+        continue;
+      }
+      double sum = this.sums[bucket].sumThenReset();
+      double sumOfSquares = this.sumsOfSquares[bucket].sumThenReset();
+
+      // The count and the sums are not reset atomically, so a concurrent record might land in
+      // the sums of this flush and the count of the next one. Clamping keeps the replayed values
+      // in the bucket they were recorded in.
+      double mean = clampToBucket(bucket, sum / count);
+      long pairs = count / 2;
+      double deviation = 0;
+      if (pairs > 0) {
+        double sumOfSquaredDeviations = Math.max(0, sumOfSquares - sum * sum / count);
+        deviation = Math.sqrt(sumOfSquaredDeviations / (2 * pairs));
+        deviation = Math.min(deviation, mean - clampToBucket(bucket, mean - deviation));
+        deviation = Math.min(deviation, clampToBucket(bucket, mean + deviation) - mean);
+      }
+
+      if (deviation == 0) {
+        recordRepeatedly(statsRecorder, measure, mean, count, tagContext);
+      } else {
+        recordRepeatedly(statsRecorder, measure, mean - deviation, pairs, tagContext);
+        recordRepeatedly(statsRecorder, measure, mean + deviation, pairs, tagContext);
+        recordRepeatedly(statsRecorder, measure, mean, count - 2 * pairs, tagContext);
+      }
+    }
+  }
+
+  private static void recordRepeatedly(
+      StatsRecorder statsRecorder,
+      MeasureDouble measure,
+      double value,
+      long times,
+      TagContext tagContext) {
+    if (times == 0) {
+      return;
+    }
+    MeasureMap measureMap = statsRecorder.newMeasureMap().put(measure, value);
+    for (long i = 0; i < times; i++) {
+      measureMap.record(tagContext);
+    }
+  }
+
+  // Returns the index of the bucket that value falls in, where bucket i covers
+  // [boundaries[i-1], boundaries[i]).
+  // VisibleForTesting
+  int bucketIndex(double value) {
+    int low = 0;
+    int high = this.boundaries.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (value < this.boundaries[mid]) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  private double clampToBucket(int bucket, double value) {
+    if (bucket > 0 && value < this.boundaries[bucket - 1]) {
+      return this.boundaries[bucket - 1];
+    }
+    if (bucket < this.boundaries.length && value >= this.boundaries[bucket]) {
+      return Math.nextDown(this.boundaries[bucket]);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,229 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.tags.TagValue;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Reports the wrappers that are garbage collected without having been closed, while the JDBC
+ * object they wrap is still open.
+ *
+ * <p>Each tracked wrapper is referenced by a {@link PhantomReference}, which is dropped when the
+ * wrapper is closed. The references of the wrappers collected without being closed are polled
+ * whenever a new wrapper is tracked, and by the stats flusher thread while it runs, so that leaks
+ * are also reported once the application stops opening wrappers. The wrapped object is then asked
+ * whether it was closed some other way, e.g. a ResultSet through its Statement, before the wrapper
+ * is reported as leaked. The stack trace of the allocation of wrappers, which costs as much as
+ * creating an exception, is only captured for the sampled fraction of them.
+ */
+final class LeakDetector {
+
+  private static final Logger logger = Logger.getLogger(LeakDetector.class.getName());
+
+  // Bounds the references expunged per tracked wrapper, so that a burst of collected wrappers
+  // doesn't stall the thread that happens to track the next one.
+  private static final int MAX_EXPUNGED_PER_TRACK = 16;
+
+  /** The kinds of tracked wrappers, used as the java_sql_resource tag value. */
+  enum Resource {
+    CONNECTION("java.sql.Connection"),
+    STATEMENT("java.sql.Statement"),
+    PREPARED_STATEMENT("java.sql.PreparedStatement"),
+    CALLABLE_STATEMENT("java.sql.CallableStatement"),
+    RESULT_SET("java.sql.ResultSet");
+
+    final TagValue tagValue;
+
+    Resource(String name) {
+      this.tagValue = TagValue.create(name);
+    }
+  }
+
+  /** Tells whether the wrapped JDBC object is closed, e.g. {@code resultSet::isClosed}. */
+  interface ClosedCheck {
+    boolean isClosed() throws SQLException;
+  }
+
+  /** Records the number of open wrappers of a Resource, e.g. into OpenCensus. */
+  interface OpenCountRecorder {
+    void record(Resource resource, long open);
+  }
+
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+  // The trackers of the wrappers that haven't been closed. PhantomReferences must be strongly
+  // reachable to be enqueued.
+  private final Set<Tracker> open = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  // The number of open wrappers of each Resource, by ordinal.
+  private final OpenCount[] openCounts = new OpenCount[Resource.values().length];
+  private final OpenCountRecorder openCountRecorder;
+
+  private volatile double stackSampleRate;
+
+  LeakDetector() {
+    this(Observability::recordOpenResources);
+  }
+
+  // VisibleForTesting
+  LeakDetector(OpenCountRecorder openCountRecorder) {
+    this.openCountRecorder = openCountRecorder;
+    for (Resource resource : Resource.values()) {
+      openCounts[resource.ordinal()] = new OpenCount(resource);
+    }
+  }
+
+  void setStackSampleRate(double stackSampleRate) {
+    this.stackSampleRate = stackSampleRate;
+  }
+
+  // Starts tracking wrapper, which wraps a JDBC object whose closed state closedCheck tells.
+  Tracker track(Object wrapper, Resource resource, ClosedCheck closedCheck) {
+    expungeCollected(MAX_EXPUNGED_PER_TRACK);
+
+    double sampleRate = this.stackSampleRate;
+    Throwable allocation =
+        sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate
+            ? new Throwable(resource.tagValue.asString() + " allocated here")
+            : null;
+    Tracker tracker = new Tracker(wrapper, queue, this, resource, closedCheck, allocation);
+    open.add(tracker);
+    recordOpenCount(resource, 1);
+    return tracker;
+  }
+
+  // Processes up to max collected wrappers, and returns the number of them that leaked.
+  int expungeCollected(int max) {
+    int leaks = 0;
+    for (int i = 0; i < max; i++) {
+      Tracker tracker = (Tracker) queue.poll();
+      if (tracker == null) {
+        break;
+      }
+      if (!open.remove(tracker)) {
+        continue;
+      }
+      recordOpenCount(tracker.resource, -1);
+      if (tracker.isLeaked()) {
+        leaks++;
+        Observability.recordLeak(tracker.resource);
+        report(tracker);
+      }
+    }
+    return leaks;
+  }
+
+  private void recordOpenCount(Resource resource, int delta) {
+    openCounts[resource.ordinal()].add(delta, openCountRecorder);
+  }
+
+  // VisibleForTesting
+  int openCount() {
+    return open.size();
+  }
+
+  private static void report(Tracker tracker) {
+    String message =
+        tracker.resource.tagValue.asString() + " was garbage collected without being closed";
+    if (tracker.allocation != null) {
+      logger.log(Level.WARNING, message, tracker.allocation);
+    } else {
+      logger.warning(
+          message + ". Observability.setLeakStackSampleRate enables allocation stack traces.");
+    }
+  }
+
+  // The number of open wrappers of a Resource. Recording the count from every thread that changes
+  // it would let a thread record a count that another thread has already changed and recorded,
+  // leaving a stale last value. Instead each change marks the count dirty, and whichever thread
+  // wins the publishing flag records the latest count until no change is left unrecorded, while
+  // the others return right away.
+  private static final class OpenCount {
+    private final Resource resource;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean publishing = new AtomicBoolean();
+
+    OpenCount(Resource resource) {
+      this.resource = resource;
+    }
+
+    void add(int delta, OpenCountRecorder recorder) {
+      count.addAndGet(delta);
+      dirty.set(true);
+      // A change made after the publisher last cleared the flag, but before it released
+      // publishing, is published by the publisher on its way out.
+      while (dirty.get() && publishing.compareAndSet(false, true)) {
+        try {
+          while (dirty.getAndSet(false)) {
+            recorder.record(resource, count.get());
+          }
+        } finally {
+          publishing.set(false);
+        }
+      }
+    }
+  }
+
+  /** Tracks one wrapper until it is closed or garbage collected. */
+  static final class Tracker extends PhantomReference<Object> {
+    private final LeakDetector detector;
+    private final Resource resource;
+    private final ClosedCheck closedCheck;
+    @Nullable private final Throwable allocation;
+
+    private Tracker(
+        Object wrapper,
+        ReferenceQueue<Object> queue,
+        LeakDetector detector,
+        Resource resource,
+        ClosedCheck closedCheck,
+        @Nullable Throwable allocation) {
+      super(wrapper, queue);
+      this.detector = detector;
+      this.resource = resource;
+      this.closedCheck = closedCheck;
+      this.allocation = allocation;
+    }
+
+    // Called when the wrapper is closed, after which it is no longer tracked. Closing a wrapper
+    // more than once is fine.
+    void close() {
+      if (detector.open.remove(this)) {
+        clear();
+        detector.recordOpenCount(resource, -1);
+      }
+    }
+
+    private boolean isLeaked() {
+      try {
+        return !closedCheck.isClosed();
+      } catch (SQLException | RuntimeException e) {
+        // A driver failing to tell is no evidence of a leak.
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,133 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.trace.SpanId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Counts the executions of each query fingerprint under their parent span, to spot the N+1 query
+ * pattern of lazily loading ORMs.
+ *
+ * <p>The executions are counted per parent span id, whichever thread they run on, so that parents
+ * whose statements interleave on a thread, or spread over several threads, are counted correctly.
+ * Each parent counts into its own small open-addressing table, and only the first few distinct
+ * fingerprints under a parent are tracked, so that parents running many different queries don't
+ * cost more than a handful of comparisons per execution. The executions of the fingerprints past
+ * that bound are counted as dropped, and logged.
+ *
+ * <p>The parents are kept in a bounded LRU of about {@code maxParents} entries, so that a new
+ * parent evicts the one that ran a query the longest ago, such as one that has ended. The LRU is
+ * split into independently locked stripes, so concurrent executions under different parents rarely
+ * contend.
+ */
+final class NPlusOneDetector {
+
+  private static final Logger logger = Logger.getLogger(NPlusOneDetector.class.getName());
+
+  static final int DEFAULT_THRESHOLD = 10;
+
+  private static final int STRIPES = 16;
+
+  // The number of slots of the table of a parent, a power of two.
+  private static final int CAPACITY = 16;
+  // Keeps the table at most three quarters full, so that probes stay short.
+  // VisibleForTesting
+  static final int MAX_FINGERPRINTS = CAPACITY * 3 / 4;
+
+  private final Map<SpanId, Executions>[] parentStripes;
+  // The executions of fingerprints that weren't tracked as their parent had too many already.
+  private final AtomicLong droppedExecutions = new AtomicLong();
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  NPlusOneDetector(int maxParents) {
+    int maxParentsPerStripe = Math.max(1, (maxParents + STRIPES - 1) / STRIPES);
+    this.parentStripes = new Map[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      parentStripes[i] =
+          new LinkedHashMap<SpanId, Executions>(maxParentsPerStripe, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SpanId, Executions> eldest) {
+              return size() > maxParentsPerStripe;
+            }
+          };
+    }
+  }
+
+  // Counts an execution of fingerprint under parent, and returns the number of its executions
+  // under parent so far, or 0 if the fingerprint isn't tracked.
+  int recordExecution(SpanId parent, String fingerprint) {
+    int hash = parent.hashCode();
+    Map<SpanId, Executions> stripe = parentStripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    int count;
+    synchronized (stripe) {
+      Executions executions = stripe.get(parent);
+      if (executions == null) {
+        executions = new Executions();
+        stripe.put(parent, executions);
+      }
+      count = executions.record(fingerprint);
+    }
+    if (count == 0) {
+      long dropped = droppedExecutions.incrementAndGet();
+      // Logs the first drop, and then every power of two, so that a parent running many distinct
+      // queries shows up without flooding the log.
+      if ((dropped & (dropped - 1)) == 0) {
+        logger.log(
+            Level.INFO,
+            "N+1 detection only tracks the first {0} distinct queries under a parent span, "
+                + "{1} executions of other queries weren''t counted so far",
+            new Object[] {MAX_FINGERPRINTS, dropped});
+      }
+    }
+    return count;
+  }
+
+  // VisibleForTesting
+  long droppedExecutions() {
+    return droppedExecutions.get();
+  }
+
+  // The executions of each fingerprint under a parent, guarded by the lock of its stripe.
+  private static final class Executions {
+    private final String[] fingerprints = new String[CAPACITY];
+    private final int[] counts = new int[CAPACITY];
+    private int size;
+
+    int record(String fingerprint) {
+      int hash = fingerprint.hashCode();
+      int slot = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+      while (true) {
+        String tracked = fingerprints[slot];
+        if (tracked == null) {
+          if (size >= MAX_FINGERPRINTS) {
+            return 0;
+          }
+          fingerprints[slot] = fingerprint;
+          size++;
+          return counts[slot] = 1;
+        }
+        if (tracked == fingerprint || tracked.equals(fingerprint)) {
+          return ++counts[slot];
+        }
+        slot = (slot + 1) & (CAPACITY - 1);
+      }
+    }
+  }
+}
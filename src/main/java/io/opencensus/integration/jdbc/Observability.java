@@ -19,6 +19,8 @@ import io.opencensus.stats.Aggregation;
 import io.opencensus.stats.Aggregation.Distribution;
 import io.opencensus.stats.BucketBoundaries;
 import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.Measure.MeasureLong;
+import io.opencensus.stats.MeasureMap;
 import io.opencensus.stats.Stats;
 import io.opencensus.stats.StatsRecorder;
 import io.opencensus.stats.View;
@@ -32,11 +34,22 @@ import io.opencensus.tags.Tagger;
 import io.opencensus.tags.Tags;
 import io.opencensus.trace.AttributeValue;
 import io.opencensus.trace.Span;
+import io.opencensus.trace.SpanContext;
 import io.opencensus.trace.Status;
 import io.opencensus.trace.Tracer;
 import io.opencensus.trace.Tracing;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 
 /** Observability for JDBC. */
@@ -50,63 +63,153 @@ public final class Observability {
 
   // Units of measurement
   private static final String MILLISECONDS = "ms";
+  private static final String DIMENSIONLESS = "1";
 
   // Tag keys
   static final TagKey JAVA_SQL_METHOD = TagKey.create("java_sql_method");
   static final TagKey JAVA_SQL_ERROR = TagKey.create("java_sql_error");
   static final TagKey JAVA_SQL_STATUS = TagKey.create("java_sql_status");
+  static final TagKey JAVA_SQL_QUERY = TagKey.create("java_sql_query");
+  static final TagKey JAVA_SQL_OUTCOME = TagKey.create("java_sql_outcome");
+  static final TagKey JAVA_SQL_CACHE_RESULT = TagKey.create("java_sql_cache_result");
+  static final TagKey JAVA_SQL_RESOURCE = TagKey.create("java_sql_resource");
 
   // Tag values
   // VisibleForTesting
   static final TagValue VALUE_OK = TagValue.create("OK");
   static final TagValue VALUE_ERROR = TagValue.create("ERROR");
+  static final TagValue VALUE_COMMIT = TagValue.create("commit");
+  static final TagValue VALUE_ROLLBACK = TagValue.create("rollback");
+  static final TagValue VALUE_CLOSE = TagValue.create("close");
+  static final TagValue VALUE_HIT = TagValue.create("hit");
+  static final TagValue VALUE_MISS = TagValue.create("miss");
+  static final TagValue VALUE_EVICT = TagValue.create("evict");
 
   // Measures
   static final MeasureDouble MEASURE_LATENCY_MS =
       MeasureDouble.create(
           "java.sql/latency", "The latency of calls in milliseconds", MILLISECONDS);
 
+  static final MeasureDouble MEASURE_QUERY_LATENCY_MS =
+      MeasureDouble.create(
+          "java.sql/query_latency",
+          "The latency of calls executing SQL in milliseconds",
+          MILLISECONDS);
+
+  static final MeasureDouble MEASURE_CONNECTION_ACQUIRE_LATENCY_MS =
+      MeasureDouble.create(
+          "java.sql/connection_acquire_latency",
+          "The latency of acquiring connections from a DataSource in milliseconds",
+          MILLISECONDS);
+
+  static final MeasureDouble MEASURE_TRANSACTION_LATENCY_MS =
+      MeasureDouble.create(
+          "java.sql/transaction_latency",
+          "The time from the first statement of transactions until they end in milliseconds",
+          MILLISECONDS);
+
+  static final MeasureLong MEASURE_COUNTED_CALLS =
+      MeasureLong.create(
+          "java.sql/counted_calls",
+          "The calls of methods instrumented at COUNT_ONLY, which aren't timed",
+          DIMENSIONLESS);
+
+  static final MeasureLong MEASURE_BATCH_SIZE =
+      MeasureLong.create(
+          "java.sql/batch_size",
+          "The number of commands sent by executeBatch calls",
+          DIMENSIONLESS);
+
+  static final MeasureLong MEASURE_ROWS_AFFECTED =
+      MeasureLong.create(
+          "java.sql/rows_affected",
+          "The number of rows inserted, updated or deleted by calls",
+          DIMENSIONLESS);
+
+  static final MeasureLong MEASURE_ROWS_RETURNED =
+      MeasureLong.create(
+          "java.sql/rows_returned", "The number of rows read from ResultSets", DIMENSIONLESS);
+
+  static final MeasureLong MEASURE_FETCH_SIZE =
+      MeasureLong.create(
+          "java.sql/fetch_size", "The fetch sizes applied to queries by tuning", DIMENSIONLESS);
+
+  static final MeasureLong MEASURE_STATEMENT_CACHE =
+      MeasureLong.create(
+          "java.sql/statement_cache",
+          "The lookups and evictions of prepared statement caches",
+          DIMENSIONLESS);
+
+  static final MeasureLong MEASURE_N_PLUS_ONE =
+      MeasureLong.create(
+          "java.sql/n_plus_one",
+          "The queries repeated more than the N+1 threshold under one parent span",
+          DIMENSIONLESS);
+
+  static final MeasureLong MEASURE_OPEN_RESOURCES =
+      MeasureLong.create(
+          "java.sql/open_resources",
+          "The number of wrappers that are open, recorded whenever it changes",
+          DIMENSIONLESS);
+
+  static final MeasureLong MEASURE_LEAKS =
+      MeasureLong.create(
+          "java.sql/leaks",
+          "The wrappers garbage collected without being closed",
+          DIMENSIONLESS);
+
+  static final BucketBoundaries LATENCY_BUCKET_BOUNDARIES =
+      BucketBoundaries.create(
+          Arrays.asList(
+              // [0ms, 0.001ms, 0.005ms, 0.01ms, 0.05ms, 0.1ms, 0.5ms, 1ms, 1.5ms, 2ms, 2.5ms,
+              // 5ms, 10ms, 25ms, 50ms, 100ms, 200ms, 400ms, 600ms, 800ms, 1s, 1.5s, 2s, 2.5s,
+              // 5s, 10s, 20s, 40s, 100s, 200s, 500s]
+              0.0,
+              0.001,
+              0.005,
+              0.01,
+              0.05,
+              0.1,
+              0.5,
+              1.0,
+              1.5,
+              2.0,
+              2.5,
+              5.0,
+              10.0,
+              25.0,
+              50.0,
+              100.0,
+              200.0,
+              400.0,
+              600.0,
+              800.0,
+              1000.0,
+              1500.0,
+              2000.0,
+              2500.0,
+              5000.0,
+              10000.0,
+              20000.0,
+              40000.0,
+              100000.0,
+              200000.0,
+              500000.0));
+
   // VisibleForTesting
   static final Aggregation DEFAULT_MILLISECONDS_DISTRIBUTION =
-      Distribution.create(
-          BucketBoundaries.create(
-              Arrays.asList(
-                  // [0ms, 0.001ms, 0.005ms, 0.01ms, 0.05ms, 0.1ms, 0.5ms, 1ms, 1.5ms, 2ms, 2.5ms,
-                  // 5ms, 10ms, 25ms, 50ms, 100ms, 200ms, 400ms, 600ms, 800ms, 1s, 1.5s, 2s, 2.5s,
-                  // 5s, 10s, 20s, 40s, 100s, 200s, 500s]
-                  0.0,
-                  0.001,
-                  0.005,
-                  0.01,
-                  0.05,
-                  0.1,
-                  0.5,
-                  1.0,
-                  1.5,
-                  2.0,
-                  2.5,
-                  5.0,
-                  10.0,
-                  25.0,
-                  50.0,
-                  100.0,
-                  200.0,
-                  400.0,
-                  600.0,
-                  800.0,
-                  1000.0,
-                  1500.0,
-                  2000.0,
-                  2500.0,
-                  5000.0,
-                  10000.0,
-                  20000.0,
-                  40000.0,
-                  100000.0,
-                  200000.0,
-                  500000.0)));
+      Distribution.create(LATENCY_BUCKET_BOUNDARIES);
 
   static final Aggregation COUNT = Aggregation.Count.create();
+  static final Aggregation LAST_VALUE = Aggregation.LastValue.create();
+
+  static final BucketBoundaries SIZE_BUCKET_BOUNDARIES =
+      BucketBoundaries.create(
+          Arrays.asList(
+              0.0, 1.0, 2.0, 5.0, 10.0, 20.0, 50.0, 100.0, 200.0, 500.0, 1000.0, 2000.0, 5000.0,
+              10000.0, 20000.0, 50000.0, 100000.0));
+
+  static final Aggregation SIZE_DISTRIBUTION = Distribution.create(SIZE_BUCKET_BOUNDARIES);
 
   static final View SQL_CLIENT_LATENCY_VIEW =
       View.create(
@@ -124,111 +227,1266 @@ public final class Observability {
           COUNT,
           Arrays.asList(JAVA_SQL_METHOD, JAVA_SQL_ERROR, JAVA_SQL_STATUS));
 
+  static final View SQL_CLIENT_COUNTED_CALLS_VIEW =
+      View.create(
+          Name.create("java.sql/client/counted_calls"),
+          "The number of calls of the methods that are only counted",
+          MEASURE_COUNTED_CALLS,
+          COUNT,
+          Arrays.asList(JAVA_SQL_METHOD, JAVA_SQL_ERROR, JAVA_SQL_STATUS));
+
+  static final View SQL_CLIENT_CONNECTION_ACQUIRE_VIEW =
+      View.create(
+          Name.create("java.sql/client/connection_acquire"),
+          "The distribution of the latencies of acquiring connections in milliseconds",
+          MEASURE_CONNECTION_ACQUIRE_LATENCY_MS,
+          DEFAULT_MILLISECONDS_DISTRIBUTION,
+          Arrays.asList(JAVA_SQL_METHOD, JAVA_SQL_ERROR, JAVA_SQL_STATUS));
+
+  static final View SQL_CLIENT_BATCH_SIZE_VIEW =
+      View.create(
+          Name.create("java.sql/client/batch_size"),
+          "The distribution of the number of commands sent by executeBatch calls",
+          MEASURE_BATCH_SIZE,
+          SIZE_DISTRIBUTION,
+          Arrays.asList(JAVA_SQL_METHOD, JAVA_SQL_STATUS));
+
+  static final View SQL_CLIENT_ROWS_AFFECTED_VIEW =
+      View.create(
+          Name.create("java.sql/client/rows_affected"),
+          "The distribution of the number of rows inserted, updated or deleted by calls",
+          MEASURE_ROWS_AFFECTED,
+          SIZE_DISTRIBUTION,
+          Arrays.asList(JAVA_SQL_METHOD));
+
+  static final View SQL_CLIENT_ROWS_RETURNED_VIEW =
+      View.create(
+          Name.create("java.sql/client/rows_returned"),
+          "The distribution of the number of rows read from ResultSets, by producing method",
+          MEASURE_ROWS_RETURNED,
+          SIZE_DISTRIBUTION,
+          Arrays.asList(JAVA_SQL_METHOD));
+
+  static final View SQL_CLIENT_FETCH_SIZE_VIEW =
+      View.create(
+          Name.create("java.sql/client/fetch_size"),
+          "The distribution of the fetch sizes applied to queries by tuning",
+          MEASURE_FETCH_SIZE,
+          SIZE_DISTRIBUTION,
+          Arrays.asList(JAVA_SQL_METHOD));
+
+  static final View SQL_CLIENT_STATEMENT_CACHE_VIEW =
+      View.create(
+          Name.create("java.sql/client/statement_cache"),
+          "The number of prepared statement cache hits, misses and evictions",
+          MEASURE_STATEMENT_CACHE,
+          COUNT,
+          Arrays.asList(JAVA_SQL_CACHE_RESULT));
+
+  static final View SQL_CLIENT_N_PLUS_ONE_VIEW =
+      View.create(
+          Name.create("java.sql/client/n_plus_one"),
+          "The number of queries repeated more than the N+1 threshold under one parent span",
+          MEASURE_N_PLUS_ONE,
+          COUNT,
+          Arrays.asList(JAVA_SQL_METHOD));
+
+  static final View SQL_CLIENT_OPEN_RESOURCES_VIEW =
+      View.create(
+          Name.create("java.sql/client/open_resources"),
+          "The number of wrappers that are open, by type",
+          MEASURE_OPEN_RESOURCES,
+          LAST_VALUE,
+          Arrays.asList(JAVA_SQL_RESOURCE));
+
+  static final View SQL_CLIENT_LEAKS_VIEW =
+      View.create(
+          Name.create("java.sql/client/leaks"),
+          "The number of wrappers garbage collected without being closed, by type",
+          MEASURE_LEAKS,
+          COUNT,
+          Arrays.asList(JAVA_SQL_RESOURCE));
+
+  static final View SQL_CLIENT_TRANSACTION_DURATION_VIEW =
+      View.create(
+          Name.create("java.sql/client/transaction_duration"),
+          "The distribution of the durations of transactions in milliseconds",
+          MEASURE_TRANSACTION_LATENCY_MS,
+          DEFAULT_MILLISECONDS_DISTRIBUTION,
+          Arrays.asList(JAVA_SQL_OUTCOME, JAVA_SQL_STATUS));
+
+  static final View SQL_CLIENT_QUERY_LATENCY_VIEW =
+      View.create(
+          Name.create("java.sql/client/query_latency"),
+          "The distribution of the latencies of calls executing SQL in milliseconds, by query",
+          MEASURE_QUERY_LATENCY_MS,
+          DEFAULT_MILLISECONDS_DISTRIBUTION,
+          Arrays.asList(JAVA_SQL_METHOD, JAVA_SQL_QUERY, JAVA_SQL_STATUS));
+
+  // Bounds the number of distinct java_sql_query tag values.
+  private static final int MAX_QUERY_TAG_VALUES = 100;
+
+  private static final QueryHeavyHitters queryHeavyHitters =
+      new QueryHeavyHitters(MAX_QUERY_TAG_VALUES);
+
+  // Set once the query views are registered, as fingerprinting SQL is only worth it then.
+  private static volatile boolean queryStatsEnabled;
+
   public enum TraceOption {
     NONE,
-    ANNOTATE_TRACES_WITH_SQL
+    ANNOTATE_TRACES_WITH_SQL,
+    // Replaces the per-row ResultSet.next spans and stats with a single "java.sql.ResultSet.fetch"
+    // span per ResultSet, covering its first next until it is closed or exhausted.
+    AGGREGATE_RESULT_SET_FETCH,
+    // Annotates spans with the fingerprint of their SQL, see SqlFingerprint.
+    ANNOTATE_TRACES_WITH_SQL_FINGERPRINT,
+    // Only creates spans for calls that fail or take at least the deferred span threshold, see
+    // setDeferredSpanThreshold. Stats are still recorded for every call.
+    DEFER_SPANS,
+    // Sets the fetch size of queries whose statement is left at the driver's default fetch size of
+    // 0, from the rows typically read from their ResultSets, see setFetchSizeBounds.
+    TUNE_FETCH_SIZE,
+    // Caches the PreparedStatements closed on a connection for the next time the same SQL is
+    // prepared on it, see setPreparedStatementCacheSize.
+    CACHE_PREPARED_STATEMENTS,
+    // Annotates the parent span of queries executed more than the N+1 threshold times under it,
+    // see setNPlusOneThreshold.
+    DETECT_N_PLUS_ONE,
+    // Tracks the wrappers that are open, and reports those garbage collected without being closed,
+    // see setLeakStackSampleRate.
+    DETECT_LEAKS
   }
 
   static boolean shouldAnnotateSpansWithSQL(EnumSet<TraceOption> opts) {
-    for (TraceOption opt : opts) {
-      if (opt == TraceOption.ANNOTATE_TRACES_WITH_SQL) {
-        return true;
+    return opts.contains(TraceOption.ANNOTATE_TRACES_WITH_SQL);
+  }
+
+  static boolean shouldAnnotateSpansWithSQLFingerprint(EnumSet<TraceOption> opts) {
+    return opts.contains(TraceOption.ANNOTATE_TRACES_WITH_SQL_FINGERPRINT);
+  }
+
+  static boolean shouldAggregateResultSetFetch(EnumSet<TraceOption> opts) {
+    return opts.contains(TraceOption.AGGREGATE_RESULT_SET_FETCH);
+  }
+
+  static boolean shouldDeferSpans(EnumSet<TraceOption> opts) {
+    return opts.contains(TraceOption.DEFER_SPANS);
+  }
+
+  // Whether to tune the fetch size of the statement, which is read once when it's wrapped: only a
+  // statement left at the driver's default fetch size of 0 is tuned, so that fetch sizes configured
+  // on the driver or in the JDBC URL are kept.
+  static boolean shouldTuneFetchSize(EnumSet<TraceOption> opts, Statement statement) {
+    if (!opts.contains(TraceOption.TUNE_FETCH_SIZE)) {
+      return false;
+    }
+    try {
+      return statement.getFetchSize() == 0;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  static boolean shouldCachePreparedStatements(EnumSet<TraceOption> opts) {
+    return opts.contains(TraceOption.CACHE_PREPARED_STATEMENTS);
+  }
+
+  static boolean shouldDetectNPlusOne(EnumSet<TraceOption> opts) {
+    return opts.contains(TraceOption.DETECT_N_PLUS_ONE);
+  }
+
+  static boolean shouldDetectLeaks(EnumSet<TraceOption> opts) {
+    return opts.contains(TraceOption.DETECT_LEAKS);
+  }
+
+  // Bounds the number of queries whose fetch size is tuned.
+  private static final int MAX_TUNED_QUERIES = 1000;
+
+  private static final FetchSizeTuner fetchSizeTuner = new FetchSizeTuner(MAX_TUNED_QUERIES);
+
+  /**
+   * Sets the bounds of the fetch sizes applied with {@link TraceOption#TUNE_FETCH_SIZE}. Defaults
+   * to [10, 1000].
+   *
+   * @throws IllegalArgumentException if minFetchSize isn't positive or maxFetchSize is lower than
+   *     minFetchSize.
+   */
+  public static void setFetchSizeBounds(int minFetchSize, int maxFetchSize) {
+    fetchSizeTuner.setBounds(minFetchSize, maxFetchSize);
+  }
+
+  // Returns the fetch size to execute the query with, or 0 to leave the fetch size as is.
+  static int tunedFetchSize(String fingerprint) {
+    return fetchSizeTuner.fetchSize(fingerprint);
+  }
+
+  static void recordRowsRead(String fingerprint, long rows) {
+    fetchSizeTuner.recordRowsRead(fingerprint, rows);
+  }
+
+  private static volatile int preparedStatementCacheSize = PreparedStatementCache.DEFAULT_MAX_SIZE;
+
+  /**
+   * Sets the number of idle PreparedStatements cached per connection with {@link
+   * TraceOption#CACHE_PREPARED_STATEMENTS}, for the connections opened afterwards. Defaults to 32.
+   *
+   * @throws IllegalArgumentException if size is negative.
+   */
+  public static void setPreparedStatementCacheSize(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Invalid prepared statement cache size: " + size);
+    }
+    preparedStatementCacheSize = size;
+  }
+
+  static int preparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
+  // Bounds the number of parent spans whose query executions are counted.
+  private static final int MAX_N_PLUS_ONE_PARENTS = 1000;
+
+  private static final NPlusOneDetector nPlusOneDetector =
+      new NPlusOneDetector(MAX_N_PLUS_ONE_PARENTS);
+
+  private static volatile int nPlusOneThreshold = NPlusOneDetector.DEFAULT_THRESHOLD;
+
+  /**
+   * Sets the number of executions of a query under one parent span that {@link
+   * TraceOption#DETECT_N_PLUS_ONE} tolerates before flagging it. Defaults to 10.
+   *
+   * @throws IllegalArgumentException if threshold isn't positive.
+   */
+  public static void setNPlusOneThreshold(int threshold) {
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("Invalid N+1 threshold: " + threshold);
+    }
+    nPlusOneThreshold = threshold;
+  }
+
+  // Counts the execution of the query under the current span, and flags the current span the
+  // first time the query exceeds the N+1 threshold under it.
+  private static void detectNPlusOne(String method, @Nullable String fingerprint) {
+    if (fingerprint == null) {
+      return;
+    }
+    Span parent = tracer.getCurrentSpan();
+    SpanContext parentContext = parent.getContext();
+    if (!parentContext.isValid()) {
+      return;
+    }
+    int threshold = nPlusOneThreshold;
+    int executions = nPlusOneDetector.recordExecution(parentContext.getSpanId(), fingerprint);
+    if (executions != threshold + 1) {
+      return;
+    }
+
+    MethodTags methodTags = methodTags(method);
+    InstrumentationLevel level = methodTags.instrumentationLevel;
+    if (level.traces) {
+      Map<String, AttributeValue> attributes = new HashMap<>();
+      attributes.put("sql_fingerprint", AttributeValue.stringAttributeValue(fingerprint));
+      attributes.put("executions", AttributeValue.longAttributeValue(executions));
+      attributes.put("method", AttributeValue.stringAttributeValue(method));
+      parent.addAnnotation("N+1 query", attributes);
+    }
+    if (!level.stats) {
+      return;
+    }
+    TagContext tagContext =
+        isEmptyTagContext(tagger, tagger.getCurrentTagContext())
+            ? methodTags.okTagContext(tagger).tagContext
+            : tagger.currentBuilder().put(JAVA_SQL_METHOD, methodTags.methodValue).build();
+    statsRecorder.newMeasureMap().put(MEASURE_N_PLUS_ONE, 1).record(tagContext);
+  }
+
+  private static final LeakDetector leakDetector = new LeakDetector();
+
+  /**
+   * Sets the fraction of the wrappers tracked with {@link TraceOption#DETECT_LEAKS} whose
+   * allocation stack trace is captured, and logged if they leak. Defaults to 0, as capturing stack
+   * traces is expensive.
+   *
+   * @throws IllegalArgumentException if sampleRate isn't within [0, 1].
+   */
+  public static void setLeakStackSampleRate(double sampleRate) {
+    if (!(sampleRate >= 0 && sampleRate <= 1)) {
+      throw new IllegalArgumentException("Invalid leak stack sample rate: " + sampleRate);
+    }
+    leakDetector.setStackSampleRate(sampleRate);
+  }
+
+  // Starts tracking wrapper for leaks, guarded by shouldDetectLeaks so that the ClosedCheck isn't
+  // even allocated when leaks aren't detected. Returns null if the global instrumentation level is
+  // PASS_THROUGH, in which case the wrapper is never tracked.
+  @Nullable
+  static LeakDetector.Tracker trackLeaks(
+      Object wrapper, LeakDetector.Resource resource, LeakDetector.ClosedCheck closedCheck) {
+    if (globalInstrumentationLevel == InstrumentationLevel.PASS_THROUGH) {
+      return null;
+    }
+    return leakDetector.track(wrapper, resource, closedCheck);
+  }
+
+  // The open resources and leaks are recorded without the ambient tags, as they are counted
+  // across all the calls rather than per call. Their TagContexts are built once per resource.
+  private static final TagContext[] resourceTagContexts = buildResourceTagContexts();
+
+  private static TagContext[] buildResourceTagContexts() {
+    LeakDetector.Resource[] resources = LeakDetector.Resource.values();
+    TagContext[] tagContexts = new TagContext[resources.length];
+    for (LeakDetector.Resource resource : resources) {
+      tagContexts[resource.ordinal()] =
+          tagger.emptyBuilder().put(JAVA_SQL_RESOURCE, resource.tagValue).build();
+    }
+    return tagContexts;
+  }
+
+  static void recordOpenResources(LeakDetector.Resource resource, long open) {
+    if (!globalInstrumentationLevel.stats) {
+      return;
+    }
+    statsRecorder
+        .newMeasureMap()
+        .put(MEASURE_OPEN_RESOURCES, open)
+        .record(resourceTagContexts[resource.ordinal()]);
+  }
+
+  static void recordLeak(LeakDetector.Resource resource) {
+    if (!globalInstrumentationLevel.stats) {
+      return;
+    }
+    statsRecorder
+        .newMeasureMap()
+        .put(MEASURE_LEAKS, 1)
+        .record(resourceTagContexts[resource.ordinal()]);
+  }
+
+  private static final long DEFAULT_DEFERRED_SPAN_THRESHOLD_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static volatile long deferredSpanThresholdNs = DEFAULT_DEFERRED_SPAN_THRESHOLD_NS;
+
+  /**
+   * Sets the latency from which calls made with {@link TraceOption#DEFER_SPANS} get a span. Calls
+   * that fail always get a span. Defaults to 1 millisecond.
+   */
+  public static void setDeferredSpanThreshold(long threshold, TimeUnit unit) {
+    deferredSpanThresholdNs = unit.toNanos(threshold);
+  }
+
+  /**
+   * How the calls of a method are instrumented, see {@link #setInstrumentationLevel} and {@link
+   * #setGlobalInstrumentationLevel}.
+   */
+  public enum InstrumentationLevel {
+    // Records the stats of the calls, and traces them as per the TraceOptions.
+    TRACE(true, true, true),
+    // Records the stats of the calls without ever creating spans for them.
+    STATS_ONLY(false, true, true),
+    // Traces the calls as per the TraceOptions without recording their stats.
+    TRACES_ONLY(true, false, false),
+    // Only counts the calls into the "java.sql/client/counted_calls" view, by status, without
+    // reading the clock or recording any other stats.
+    COUNT_ONLY(false, false, true),
+    // Doesn't record anything, not even the time of the calls.
+    PASS_THROUGH(false, false, false);
+
+    final boolean traces;
+    final boolean stats;
+    // Whether the calls are counted, as part of their stats or by themselves.
+    final boolean counts;
+
+    InstrumentationLevel(boolean traces, boolean stats, boolean counts) {
+      this.traces = traces;
+      this.stats = stats;
+      this.counts = counts;
+    }
+
+    // Returns the level that records what both this level and cap record.
+    InstrumentationLevel cappedBy(InstrumentationLevel cap) {
+      boolean traces = this.traces && cap.traces;
+      boolean stats = this.stats && cap.stats;
+      if (traces) {
+        return stats ? TRACE : TRACES_ONLY;
       }
+      if (stats) {
+        return STATS_ONLY;
+      }
+      return this.counts && cap.counts ? COUNT_ONLY : PASS_THROUGH;
+    }
+  }
+
+  private static volatile InstrumentationLevel globalInstrumentationLevel =
+      InstrumentationLevel.TRACE;
+
+  /**
+   * Sets how the calls of a method are instrumented, e.g. {@code
+   * setInstrumentationLevel("java.sql.ResultSet.next", InstrumentationLevel.STATS_ONLY)}. Methods
+   * are named as in their spans and java_sql_method tags, and default to the level the wrappers
+   * are generated with, which is {@link InstrumentationLevel#TRACE} unless their policy says
+   * otherwise. Applies to the calls started afterwards, on all connections. The methods the
+   * wrappers pass through aren't instrumented at all, whatever their level.
+   *
+   * @throws IllegalArgumentException if method or level is null.
+   */
+  public static synchronized void setInstrumentationLevel(
+      String method, InstrumentationLevel level) {
+    if (method == null || level == null) {
+      throw new IllegalArgumentException(
+          "Invalid instrumentation level " + level + " for method " + method);
+    }
+    MethodTags methodTags = methodTags(method);
+    methodTags.methodInstrumentationLevel = level;
+    methodTags.updateInstrumentationLevel();
+  }
+
+  /**
+   * Caps how the calls of all methods are instrumented, on top of their own levels: a call is only
+   * traced if both its method's level and the global level trace, and likewise for stats. This
+   * lets operators turn the wrappers into plain delegation at runtime with {@link
+   * InstrumentationLevel#PASS_THROUGH}, e.g. while investigating the overhead of instrumentation,
+   * and restore them with {@link InstrumentationLevel#TRACE}, the default. Applies to the calls
+   * started afterwards. Transactions are only tracked while the global level isn't {@link
+   * InstrumentationLevel#PASS_THROUGH}, and the stats not tied to a method, such as those of the
+   * prepared statement cache and leak detection, only while it records stats.
+   *
+   * @throws IllegalArgumentException if level is null.
+   */
+  public static synchronized void setGlobalInstrumentationLevel(InstrumentationLevel level) {
+    if (level == null) {
+      throw new IllegalArgumentException("Invalid global instrumentation level: null");
+    }
+    globalInstrumentationLevel = level;
+    for (MethodTags methodTags : methodTagsRegistry.values()) {
+      methodTags.updateInstrumentationLevel();
+    }
+  }
+
+  static InstrumentationLevel globalInstrumentationLevel() {
+    return globalInstrumentationLevel;
+  }
+
+  private static final Scope NOOP_SCOPE = () -> {};
+
+  // Bounds the number of distinct error TagContexts memoized per method.
+  private static final int MAX_MEMOIZED_ERROR_TAG_CONTEXTS = 64;
+
+  // Registry of the java_sql_method tag values, keyed by method name. The method names are a small
+  // fixed set of string literals so this never grows past a few hundred entries.
+  private static final ConcurrentHashMap<String, MethodTags> methodTagsRegistry =
+      new ConcurrentHashMap<>();
+
+  // The ambient TagContext that was last found to be empty. It is compared by identity so that the
+  // common case of no ambient tags doesn't have to iterate over the context on every call.
+  @Nullable private static volatile TagContext knownEmptyTagContext;
+
+  static MethodTags methodTags(String method) {
+    MethodTags methodTags = methodTagsRegistry.get(method);
+    if (methodTags == null) {
+      methodTags = methodTagsRegistry.computeIfAbsent(method, MethodTags::new);
+      // Catches up with a global level set while the method was being registered.
+      methodTags.updateInstrumentationLevel();
     }
+    return methodTags;
+  }
 
+  static boolean isEmptyTagContext(Tagger tagger, @Nullable TagContext tagContext) {
+    if (tagContext == null) {
+      return false;
+    }
+    if (tagContext == knownEmptyTagContext) {
+      return true;
+    }
+    if (tagContext.equals(tagger.empty())) {
+      knownEmptyTagContext = tagContext;
+      return true;
+    }
     return false;
   }
 
+  // MethodTags holds the pre-built java_sql_method tag value of a method and its instrumentation
+  // level, together with the TagContexts memoized for it while the ambient TagContext is empty.
+  static final class MethodTags {
+    final String method;
+    final TagValue methodValue;
+
+    // The level set for the method, and the level its calls are instrumented at, which is the
+    // former capped by the global level. Calls only read the latter, with a single volatile read.
+    volatile InstrumentationLevel methodInstrumentationLevel;
+    volatile InstrumentationLevel instrumentationLevel;
+
+    @Nullable private volatile MemoizedTagContext okTagContext;
+    private final ConcurrentHashMap<String, MemoizedTagContext> errorTagContexts =
+        new ConcurrentHashMap<>();
+
+    MethodTags(String method) {
+      this.method = method;
+      this.methodValue = TagValue.create(method);
+      this.methodInstrumentationLevel = InstrumentationPolicy.defaultLevel(method);
+      this.instrumentationLevel = this.methodInstrumentationLevel;
+    }
+
+    // Synchronized so that concurrent updates can't leave a stale global level in place.
+    synchronized void updateInstrumentationLevel() {
+      this.instrumentationLevel = methodInstrumentationLevel.cappedBy(globalInstrumentationLevel);
+    }
+
+    MemoizedTagContext okTagContext(Tagger tagger) {
+      MemoizedTagContext tagContext = this.okTagContext;
+      if (tagContext == null) {
+        tagContext =
+            new MemoizedTagContext(
+                tagger
+                    .emptyBuilder()
+                    .put(JAVA_SQL_METHOD, this.methodValue)
+                    .put(JAVA_SQL_STATUS, VALUE_OK)
+                    .build());
+        this.okTagContext = tagContext;
+      }
+      return tagContext;
+    }
+
+    // Returns null once MAX_MEMOIZED_ERROR_TAG_CONTEXTS distinct errors have been memoized.
+    @Nullable
+    MemoizedTagContext errorTagContext(Tagger tagger, String error) {
+      MemoizedTagContext tagContext = this.errorTagContexts.get(error);
+      if (tagContext == null) {
+        if (this.errorTagContexts.size() >= MAX_MEMOIZED_ERROR_TAG_CONTEXTS) {
+          return null;
+        }
+        tagContext =
+            new MemoizedTagContext(
+                tagger
+                    .emptyBuilder()
+                    .put(JAVA_SQL_METHOD, this.methodValue)
+                    .put(JAVA_SQL_ERROR, TagValue.create(error))
+                    .put(JAVA_SQL_STATUS, VALUE_ERROR)
+                    .build());
+        MemoizedTagContext previous = this.errorTagContexts.putIfAbsent(error, tagContext);
+        if (previous != null) {
+          tagContext = previous;
+        }
+      }
+      return tagContext;
+    }
+  }
+
+  // MemoizedTagContext is a TagContext memoized for a (method, status, error), together with the
+  // histogram its latencies are pre-aggregated into while stats aggregation is enabled.
+  static final class MemoizedTagContext {
+    final TagContext tagContext;
+    final LatencyHistogram latencyHistogram = new LatencyHistogram(LATENCY_BUCKET_BOUNDARIES);
+
+    MemoizedTagContext(TagContext tagContext) {
+      this.tagContext = tagContext;
+      memoizedTagContexts.add(this);
+    }
+  }
+
+  // All the MemoizedTagContexts ever created, so that their histograms can be flushed.
+  private static final Queue<MemoizedTagContext> memoizedTagContexts =
+      new ConcurrentLinkedQueue<>();
+
+  private static volatile boolean statsAggregationEnabled;
+
+  @Nullable private static ScheduledExecutorService statsFlusher;
+
+  /**
+   * Enables pre-aggregating latencies into local lock-free histograms, which are flushed into
+   * OpenCensus every {@code flushInterval}.
+   *
+   * <p>Recording straight into the {@link StatsRecorder} on every call serializes all the calling
+   * threads on the stats implementation. With aggregation enabled, calls made without ambient tags
+   * only update a striped histogram, and a single background thread replays the aggregated
+   * latencies into OpenCensus. Calls made with ambient tags are still recorded directly. The same
+   * thread reports the wrappers leaked with {@link TraceOption#DETECT_LEAKS} every {@code
+   * flushInterval}.
+   */
+  public static synchronized void enableStatsAggregation(long flushInterval, TimeUnit unit) {
+    disableStatsAggregation();
+
+    statsFlusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "ocjdbc-stats-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    statsFlusher.scheduleAtFixedRate(
+        Observability::flushInBackground, flushInterval, flushInterval, unit);
+    statsAggregationEnabled = true;
+  }
+
+  /** Disables the aggregation of latencies, flushing the latencies aggregated so far. */
+  public static synchronized void disableStatsAggregation() {
+    statsAggregationEnabled = false;
+    if (statsFlusher != null) {
+      statsFlusher.shutdown();
+      statsFlusher = null;
+    }
+    flushAggregatedStats();
+  }
+
+  // Runs on the stats flusher thread. Besides flushing the aggregated latencies, reports the
+  // wrappers collected without being closed, which are otherwise only polled as new wrappers are
+  // tracked.
+  private static void flushInBackground() {
+    flushAggregatedStats();
+    leakDetector.expungeCollected(Integer.MAX_VALUE);
+  }
+
+  // VisibleForTesting
+  static void flushAggregatedStats() {
+    for (MemoizedTagContext tagContext : memoizedTagContexts) {
+      tagContext.latencyHistogram.flush(statsRecorder, MEASURE_LATENCY_MS, tagContext.tagContext);
+    }
+  }
+
   // TrackingOperation records both the metric latency in milliseconds, and the span created by
   // tracing the calling function.
+  //
+  // A deferred TrackingOperation only holds on to its parent span, and creates its own span at end
+  // if the call failed or was slower than the deferred span threshold. OpenCensus doesn't allow
+  // setting the start time of a span, so such a span carries the latency of the call in its
+  // "latency_ns" attribute.
+  //
+  // The calls of STATS_ONLY methods never get a span, the calls of TRACES_ONLY methods record no
+  // stats, the calls of COUNT_ONLY methods are only counted, and the calls of PASS_THROUGH methods
+  // all share DISABLED, which is born ended so that it records nothing.
   static final class TrackingOperation {
-    private final Span span;
+    static final TrackingOperation DISABLED = new TrackingOperation();
+
+    @Nullable private Span span;
     private final long startTimeNs;
-    private final String method;
+    private final MethodTags methodTags;
+    private final boolean traced;
+    private final boolean recordsStats;
+    private final boolean countsOnly;
     private boolean closed;
     private String recordedError;
 
+    // State of a deferred operation, only used until its span is created.
+    @Nullable private final Span parentSpan;
+    @Nullable private final AttributeValue sql;
+    @Nullable private final AttributeValue sqlFingerprint;
+    @Nullable private final String queryFingerprint;
+    @Nullable private MeasureDouble additionalLatencyMeasure;
+    private long batchSize = -1;
+    private long rowsAffected = -1;
+    private long fetchSize = -1;
+    @Nullable private Map<String, AttributeValue> deferredAttributes;
+    @Nullable private Status deferredStatus;
+
     private final StatsRecorder statsRecorder;
     private final Tagger tagger;
     private final Tracer tracer;
 
-    TrackingOperation(String method) {
-      this(method, null);
-    }
-
-    TrackingOperation(String method, @Nullable String sql) {
-      this(method, sql, Observability.statsRecorder, Observability.tagger, Observability.tracer);
+    // VisibleForTesting
+    TrackingOperation(
+        String method,
+        @Nullable String sql,
+        StatsRecorder statsRecorder,
+        Tagger tagger,
+        Tracer tracer) {
+      this(method, sql, false, statsRecorder, tagger, tracer);
     }
 
     // VisibleForTesting
     TrackingOperation(
         String method,
         @Nullable String sql,
+        boolean deferSpan,
         StatsRecorder statsRecorder,
         Tagger tagger,
         Tracer tracer) {
-      startTimeNs = System.nanoTime();
-      span = tracer.spanBuilder(method).startSpan();
-      this.method = method;
-      if (sql != null) {
-        span.putAttribute("sql", AttributeValue.stringAttributeValue(sql));
+      this(
+          method,
+          sql == null ? null : AttributeValue.stringAttributeValue(sql),
+          null,
+          null,
+          deferSpan,
+          statsRecorder,
+          tagger,
+          tracer);
+    }
+
+    TrackingOperation(
+        String method,
+        @Nullable AttributeValue sql,
+        @Nullable AttributeValue sqlFingerprint,
+        @Nullable String queryFingerprint,
+        boolean deferSpan,
+        StatsRecorder statsRecorder,
+        Tagger tagger,
+        Tracer tracer) {
+      this(
+          Observability.methodTags(method),
+          sql,
+          sqlFingerprint,
+          queryFingerprint,
+          deferSpan,
+          statsRecorder,
+          tagger,
+          tracer);
+    }
+
+    TrackingOperation(
+        MethodTags methodTags,
+        @Nullable AttributeValue sql,
+        @Nullable AttributeValue sqlFingerprint,
+        @Nullable String queryFingerprint,
+        boolean deferSpan,
+        StatsRecorder statsRecorder,
+        Tagger tagger,
+        Tracer tracer) {
+      this.methodTags = methodTags;
+      this.queryFingerprint = queryFingerprint;
+      InstrumentationLevel level = methodTags.instrumentationLevel;
+      this.traced = level.traces;
+      this.recordsStats = level.stats;
+      this.countsOnly = level == InstrumentationLevel.COUNT_ONLY;
+      this.startTimeNs = this.countsOnly ? 0 : System.nanoTime();
+      if (!this.traced) {
+        this.parentSpan = null;
+        this.sql = null;
+        this.sqlFingerprint = null;
+      } else if (deferSpan) {
+        this.parentSpan = tracer.getCurrentSpan();
+        this.sql = sql;
+        this.sqlFingerprint = sqlFingerprint;
+      } else {
+        this.parentSpan = null;
+        this.sql = null;
+        this.sqlFingerprint = null;
+        span = tracer.spanBuilder(methodTags.method).startSpan();
+        putSqlAttributes(span, sql, sqlFingerprint);
       }
       this.statsRecorder = statsRecorder;
       this.tagger = tagger;
       this.tracer = tracer;
     }
 
+    private TrackingOperation() {
+      this.startTimeNs = 0;
+      this.methodTags = new MethodTags("disabled");
+      this.traced = false;
+      this.recordsStats = false;
+      this.countsOnly = false;
+      this.closed = true;
+      this.parentSpan = null;
+      this.sql = null;
+      this.sqlFingerprint = null;
+      this.queryFingerprint = null;
+      this.statsRecorder = Observability.statsRecorder;
+      this.tagger = Observability.tagger;
+      this.tracer = Observability.tracer;
+    }
+
     @SuppressWarnings("MustBeClosedChecker")
     Scope withSpan() {
-      return tracer.withSpan(span);
+      // A deferred operation has no span to put in scope yet.
+      return span == null ? NOOP_SCOPE : tracer.withSpan(span);
     }
 
     void end() {
       if (closed) return;
+      if (countsOnly) {
+        recordCount();
+        closed = true;
+        return;
+      }
 
+      long totalTimeNs = System.nanoTime() - this.startTimeNs;
       try {
-        // Finally record the latency of the entire call,
-        // as well as "status": "OK" for non-error calls.
-        TagContextBuilder tagContextBuilder = tagger.currentBuilder();
-        tagContextBuilder.put(JAVA_SQL_METHOD, TagValue.create(this.method));
-
-        if (recordedError == null) {
-          tagContextBuilder.put(JAVA_SQL_STATUS, VALUE_OK);
-        } else {
-          tagContextBuilder.put(JAVA_SQL_ERROR, TagValue.create(recordedError));
-          tagContextBuilder.put(JAVA_SQL_STATUS, VALUE_ERROR);
+        if (recordsStats) {
+          recordStats(totalTimeNs);
+        }
+      } finally {
+        if (span == null
+            && traced
+            && (recordedError != null || totalTimeNs >= deferredSpanThresholdNs)) {
+          startDeferredSpan(totalTimeNs);
+        }
+        if (span != null) {
+          span.end();
         }
+        closed = true;
+      }
+    }
+
+    private void recordCount() {
+      MemoizedTagContext memoizedTagContext = memoizedTagContext();
+      statsRecorder
+          .newMeasureMap()
+          .put(MEASURE_COUNTED_CALLS, 1)
+          .record(memoizedTagContext == null ? currentTagContext() : memoizedTagContext.tagContext);
+    }
+
+    private void recordStats(long totalTimeNs) {
+      double timeSpentMs = ((double) totalTimeNs) / 1e6;
 
-        long totalTimeNs = System.nanoTime() - this.startTimeNs;
-        double timeSpentMs = ((double) totalTimeNs) / 1e6;
+      // Now finally record all the stats the same tags.
+      MemoizedTagContext memoizedTagContext = memoizedTagContext();
+      if (memoizedTagContext == null) {
+        recordStatWithTags(timeSpentMs, currentTagContext());
+      } else if (statsAggregationEnabled) {
+        memoizedTagContext.latencyHistogram.record(timeSpentMs);
+      } else {
+        recordStatWithTags(timeSpentMs, memoizedTagContext.tagContext);
+      }
+      if (queryFingerprint != null && queryStatsEnabled) {
+        recordQueryStat(timeSpentMs);
+      }
+      if (additionalLatencyMeasure != null) {
+        statsRecorder
+            .newMeasureMap()
+            .put(additionalLatencyMeasure, timeSpentMs)
+            .record(currentTagContext());
+      }
+      if (batchSize >= 0 || rowsAffected >= 0 || fetchSize >= 0) {
+        recordSizes(
+            memoizedTagContext == null ? currentTagContext() : memoizedTagContext.tagContext);
+      }
+    }
 
-        // Now finally record all the stats the same tags.
-        recordStatWithTags(timeSpentMs, tagContextBuilder.build());
+    // Closes the scope of the span of a call that returned, and ends the operation. The wrapper
+    // methods all end their operations with this and endExceptionally, so that they read alike.
+    void end(Scope scope) {
+      scope.close();
+      end();
+    }
+
+    // Closes the scope of the span of a call that threw, and ends the operation. Kept out of the
+    // callers, as calls rarely fail.
+    void endExceptionally(Scope scope, Throwable t) {
+      try {
+        scope.close();
+        if (t instanceof Exception) {
+          recordException((Exception) t);
+        }
       } finally {
-        span.end();
-        closed = true;
+        end();
       }
     }
 
+    // Also records the latency of the call into measure, with the same tags as the latency.
+    void recordLatencyAlsoAs(MeasureDouble measure) {
+      if (closed) return;
+      additionalLatencyMeasure = measure;
+    }
+
+    // Records the number of commands sent by an executeBatch call, both on the span and into the
+    // batch size view.
+    void recordBatchSize(long batchSize) {
+      if (closed) return;
+      this.batchSize = batchSize;
+      putAttribute("batch_size", AttributeValue.longAttributeValue(batchSize));
+    }
+
+    // Records the number of rows inserted, updated or deleted by the call, both on the span and
+    // into the rows affected view.
+    void recordRowsAffected(long rows) {
+      if (closed) return;
+      this.rowsAffected = rows;
+      putAttribute("rows_affected", AttributeValue.longAttributeValue(rows));
+    }
+
+    // Records the fetch size applied to the query, both on the span and into the fetch size view.
+    void recordFetchSize(long fetchSize) {
+      if (closed) return;
+      this.fetchSize = fetchSize;
+      putAttribute("fetch_size", AttributeValue.longAttributeValue(fetchSize));
+    }
+
+    void putAttribute(String key, AttributeValue value) {
+      if (span != null) {
+        span.putAttribute(key, value);
+        return;
+      }
+      if (closed || !traced) {
+        return;
+      }
+      if (deferredAttributes == null) {
+        deferredAttributes = new HashMap<>();
+      }
+      deferredAttributes.put(key, value);
+    }
+
     // Annotates the underlying span with the description of the exception. The actual ending
-    // will be performed by end.
+    // will be performed by end. Only the bounded classification of the exception is used for
+    // tagging stats, the full description is kept on the span.
     void recordException(Exception e) {
-      recordedError = e.toString();
-      span.setStatus(Status.UNKNOWN.withDescription(recordedError));
+      if (closed) return;
+      recordedError = ErrorClassifier.classify(e);
+      if (!traced) {
+        return;
+      }
+      Status status = Status.UNKNOWN.withDescription(e.toString());
+      if (span != null) {
+        span.setStatus(status);
+      } else {
+        deferredStatus = status;
+      }
+    }
+
+    private void startDeferredSpan(long totalTimeNs) {
+      span = tracer.spanBuilderWithExplicitParent(methodTags.method, parentSpan).startSpan();
+      putSqlAttributes(span, sql, sqlFingerprint);
+      span.putAttribute("latency_ns", AttributeValue.longAttributeValue(totalTimeNs));
+      if (deferredAttributes != null) {
+        span.putAttributes(deferredAttributes);
+      }
+      if (deferredStatus != null) {
+        span.setStatus(deferredStatus);
+      }
+    }
+
+    private static void putSqlAttributes(
+        Span span, @Nullable AttributeValue sql, @Nullable AttributeValue sqlFingerprint) {
+      if (sql != null) {
+        span.putAttribute("sql", sql);
+      }
+      if (sqlFingerprint != null) {
+        span.putAttribute("sql_fingerprint", sqlFingerprint);
+      }
+    }
+
+    // Returns the memoized tags to record the latency of the entire call with, as well as
+    // "status": "OK" for non-error calls. Tags are only memoized without ambient tags.
+    @Nullable
+    private MemoizedTagContext memoizedTagContext() {
+      if (!isEmptyTagContext(tagger, tagger.getCurrentTagContext())) {
+        return null;
+      }
+      return recordedError == null
+          ? methodTags.okTagContext(tagger)
+          : methodTags.errorTagContext(tagger, recordedError);
+    }
+
+    private TagContext currentTagContext() {
+      TagContextBuilder tagContextBuilder = tagger.currentBuilder();
+      tagContextBuilder.put(JAVA_SQL_METHOD, methodTags.methodValue);
+
+      if (recordedError == null) {
+        tagContextBuilder.put(JAVA_SQL_STATUS, VALUE_OK);
+      } else {
+        tagContextBuilder.put(JAVA_SQL_ERROR, TagValue.create(recordedError));
+        tagContextBuilder.put(JAVA_SQL_STATUS, VALUE_ERROR);
+      }
+      return tagContextBuilder.build();
     }
 
     private void recordStatWithTags(double value, TagContext tagContext) {
       statsRecorder.newMeasureMap().put(Observability.MEASURE_LATENCY_MS, value).record(tagContext);
     }
+
+    private void recordSizes(TagContext tagContext) {
+      MeasureMap measureMap = statsRecorder.newMeasureMap();
+      if (batchSize >= 0) {
+        measureMap.put(MEASURE_BATCH_SIZE, batchSize);
+      }
+      if (rowsAffected >= 0) {
+        measureMap.put(MEASURE_ROWS_AFFECTED, rowsAffected);
+      }
+      if (fetchSize >= 0) {
+        measureMap.put(MEASURE_FETCH_SIZE, fetchSize);
+      }
+      measureMap.record(tagContext);
+    }
+
+    private void recordQueryStat(double value) {
+      TagContext tagContext =
+          tagger
+              .currentBuilder()
+              .put(JAVA_SQL_METHOD, methodTags.methodValue)
+              .put(JAVA_SQL_QUERY, queryHeavyHitters.tagValue(queryFingerprint, value))
+              .put(JAVA_SQL_STATUS, recordedError == null ? VALUE_OK : VALUE_ERROR)
+              .build();
+      statsRecorder.newMeasureMap().put(MEASURE_QUERY_LATENCY_MS, value).record(tagContext);
+    }
+  }
+
+  // Returns the number of rows affected by a batch, leaving out the commands for which the driver
+  // reported Statement.SUCCESS_NO_INFO or Statement.EXECUTE_FAILED.
+  static long rowsAffected(int[] updateCounts) {
+    long rows = 0;
+    for (int count : updateCounts) {
+      if (count > 0) {
+        rows += count;
+      }
+    }
+    return rows;
+  }
+
+  static long rowsAffected(long[] updateCounts) {
+    long rows = 0;
+    for (long count : updateCounts) {
+      if (count > 0) {
+        rows += count;
+      }
+    }
+    return rows;
+  }
+
+  // Records the number of rows read from a ResultSet produced by method.
+  static void recordRowsReturned(String method, long rows) {
+    MethodTags methodTags = methodTags(method);
+    if (!methodTags.instrumentationLevel.stats) {
+      return;
+    }
+    TagContext tagContext =
+        isEmptyTagContext(tagger, tagger.getCurrentTagContext())
+            ? methodTags.okTagContext(tagger).tagContext
+            : tagger.currentBuilder().put(JAVA_SQL_METHOD, methodTags.methodValue).build();
+    statsRecorder.newMeasureMap().put(MEASURE_ROWS_RETURNED, rows).record(tagContext);
+  }
+
+  // Records a lookup or an eviction of a prepared statement cache, as VALUE_HIT, VALUE_MISS or
+  // VALUE_EVICT.
+  static void recordStatementCache(TagValue result) {
+    if (!globalInstrumentationLevel.stats) {
+      return;
+    }
+    statsRecorder
+        .newMeasureMap()
+        .put(MEASURE_STATEMENT_CACHE, 1)
+        .record(tagger.currentBuilder().put(JAVA_SQL_CACHE_RESULT, result).build());
   }
 
   static TrackingOperation createRoundtripTrackingSpan(String method) {
-    return new TrackingOperation(method);
+    MethodTags methodTags = methodTags(method);
+    if (methodTags.instrumentationLevel == InstrumentationLevel.PASS_THROUGH) {
+      return TrackingOperation.DISABLED;
+    }
+    return new TrackingOperation(
+        methodTags, null, null, null, false, statsRecorder, tagger, tracer);
   }
 
   static TrackingOperation createRoundtripTrackingSpan(
       String method, boolean canRecordSQL, String sql) {
-    return new TrackingOperation(method, canRecordSQL ? sql : null);
+    MethodTags methodTags = methodTags(method);
+    if (methodTags.instrumentationLevel == InstrumentationLevel.PASS_THROUGH) {
+      return TrackingOperation.DISABLED;
+    }
+    return new TrackingOperation(
+        methodTags,
+        canRecordSQL && sql != null ? AttributeValue.stringAttributeValue(sql) : null,
+        null,
+        null,
+        false,
+        statsRecorder,
+        tagger,
+        tracer);
+  }
+
+  static TrackingOperation createRoundtripTrackingSpan(String method, EnumSet<TraceOption> opts) {
+    MethodTags methodTags = methodTags(method);
+    if (methodTags.instrumentationLevel == InstrumentationLevel.PASS_THROUGH) {
+      return TrackingOperation.DISABLED;
+    }
+    return new TrackingOperation(
+        methodTags, null, null, null, shouldDeferSpans(opts), statsRecorder, tagger, tracer);
+  }
+
+  static TrackingOperation createRoundtripTrackingSpan(
+      String method, EnumSet<TraceOption> opts, @Nullable String sql) {
+    MethodTags methodTags = methodTags(method);
+    if (methodTags.instrumentationLevel == InstrumentationLevel.PASS_THROUGH) {
+      return TrackingOperation.DISABLED;
+    }
+    AttributeValue sqlValue = null;
+    AttributeValue sqlFingerprint = null;
+    String queryFingerprint = null;
+    if (sql != null) {
+      if (shouldAnnotateSpansWithSQL(opts)) {
+        sqlValue = AttributeValue.stringAttributeValue(sql);
+      }
+      boolean annotateFingerprint = shouldAnnotateSpansWithSQLFingerprint(opts);
+      boolean detectNPlusOne = shouldDetectNPlusOne(opts);
+      if (annotateFingerprint || queryStatsEnabled || detectNPlusOne) {
+        String fingerprint = SqlFingerprint.fingerprint(sql);
+        if (annotateFingerprint) {
+          sqlFingerprint = AttributeValue.stringAttributeValue(fingerprint);
+        }
+        if (queryStatsEnabled) {
+          queryFingerprint = fingerprint;
+        }
+        if (detectNPlusOne) {
+          detectNPlusOne(method, fingerprint);
+        }
+      }
+    }
+    return new TrackingOperation(
+        methodTags,
+        sqlValue,
+        sqlFingerprint,
+        queryFingerprint,
+        shouldDeferSpans(opts),
+        statsRecorder,
+        tagger,
+        tracer);
+  }
+
+  static TrackingOperation createRoundtripTrackingSpan(
+      String method, EnumSet<TraceOption> opts, PreparedSql sql) {
+    MethodTags methodTags = methodTags(method);
+    if (methodTags.instrumentationLevel == InstrumentationLevel.PASS_THROUGH) {
+      return TrackingOperation.DISABLED;
+    }
+    if (shouldDetectNPlusOne(opts)) {
+      detectNPlusOne(method, sql.fingerprint());
+    }
+    return new TrackingOperation(
+        methodTags,
+        sql.sqlValue,
+        sql.sqlFingerprintValue,
+        queryStatsEnabled ? sql.fingerprint() : null,
+        shouldDeferSpans(opts),
+        statsRecorder,
+        tagger,
+        tracer);
+  }
+
+  // PreparedSql holds the SQL of a prepared or callable statement, together with the span
+  // attributes derived from it. These are computed once when the statement is prepared rather
+  // than on every execution.
+  static final class PreparedSql {
+    static final PreparedSql NONE = new PreparedSql(null, null, null, null);
+
+    @Nullable private final String sql;
+    @Nullable final AttributeValue sqlValue;
+    @Nullable final AttributeValue sqlFingerprintValue;
+    @Nullable private volatile String fingerprint;
+
+    private PreparedSql(
+        @Nullable String sql,
+        @Nullable AttributeValue sqlValue,
+        @Nullable AttributeValue sqlFingerprintValue,
+        @Nullable String fingerprint) {
+      this.sql = sql;
+      this.sqlValue = sqlValue;
+      this.sqlFingerprintValue = sqlFingerprintValue;
+      this.fingerprint = fingerprint;
+    }
+
+    // Returns the fingerprint of the SQL, computing it on first use if it wasn't needed when the
+    // statement was prepared.
+    @Nullable
+    String fingerprint() {
+      String fingerprint = this.fingerprint;
+      if (fingerprint == null && sql != null) {
+        fingerprint = SqlFingerprint.fingerprint(sql);
+        this.fingerprint = fingerprint;
+      }
+      return fingerprint;
+    }
+  }
+
+  static PreparedSql prepareSql(EnumSet<TraceOption> opts, @Nullable String sql) {
+    if (sql == null) {
+      return PreparedSql.NONE;
+    }
+    AttributeValue sqlValue = null;
+    if (shouldAnnotateSpansWithSQL(opts)) {
+      sqlValue = AttributeValue.stringAttributeValue(sql);
+    }
+    AttributeValue sqlFingerprintValue = null;
+    String fingerprint = null;
+    boolean annotateFingerprint = shouldAnnotateSpansWithSQLFingerprint(opts);
+    if (annotateFingerprint || queryStatsEnabled) {
+      fingerprint = SqlFingerprint.fingerprint(sql);
+      if (annotateFingerprint) {
+        sqlFingerprintValue = AttributeValue.stringAttributeValue(fingerprint);
+      }
+    }
+    return new PreparedSql(sql, sqlValue, sqlFingerprintValue, fingerprint);
+  }
+
+  // TransactionOperation tracks a transaction from its first statement until it is committed,
+  // rolled back or its connection is closed. Its span is the parent of the spans of the calls made
+  // within the transaction, and carries the number of statements and the rows they affected.
+  //
+  // Its span and stats follow the global instrumentation level when the transaction begins, and its
+  // stats are dropped if the global level no longer records stats when it ends.
+  //
+  // Like the connection it belongs to, a TransactionOperation isn't meant to be used by several
+  // threads at once.
+  static final class TransactionOperation {
+    @Nullable private final Span span;
+    private final boolean recordsStats;
+    private final long startTimeNs;
+    private long statements;
+    private long rowsAffected;
+
+    private final StatsRecorder statsRecorder;
+    private final Tagger tagger;
+    private final Tracer tracer;
+
+    TransactionOperation() {
+      this(Observability.statsRecorder, Observability.tagger, Observability.tracer);
+    }
+
+    // VisibleForTesting
+    TransactionOperation(StatsRecorder statsRecorder, Tagger tagger, Tracer tracer) {
+      InstrumentationLevel level = globalInstrumentationLevel;
+      recordsStats = level.stats;
+      startTimeNs = recordsStats ? System.nanoTime() : 0;
+      span =
+          level.traces ? tracer.spanBuilder("java.sql.Connection.transaction").startSpan() : null;
+      this.statsRecorder = statsRecorder;
+      this.tagger = tagger;
+      this.tracer = tracer;
+    }
+
+    @SuppressWarnings("MustBeClosedChecker")
+    Scope withSpan() {
+      return span == null ? NOOP_SCOPE : tracer.withSpan(span);
+    }
+
+    void recordStatement() {
+      statements++;
+    }
+
+    void recordRowsAffected(long rows) {
+      // Drivers report unknown counts as negative values, such as Statement.SUCCESS_NO_INFO.
+      if (rows > 0) {
+        rowsAffected += rows;
+      }
+    }
+
+    // Ends the transaction with outcome, one of VALUE_COMMIT, VALUE_ROLLBACK or VALUE_CLOSE. t is
+    // what was thrown while ending it, if anything.
+    void end(TagValue outcome, @Nullable Throwable t) {
+      try {
+        if (recordsStats && globalInstrumentationLevel.stats) {
+          recordDuration(outcome, t);
+        }
+      } finally {
+        if (span != null) {
+          span.putAttribute("statements", AttributeValue.longAttributeValue(statements));
+          span.putAttribute("rows_affected", AttributeValue.longAttributeValue(rowsAffected));
+          span.putAttribute("outcome", AttributeValue.stringAttributeValue(outcome.asString()));
+          if (t != null) {
+            span.setStatus(Status.UNKNOWN.withDescription(t.toString()));
+          }
+          span.end();
+        }
+      }
+    }
+
+    private void recordDuration(TagValue outcome, @Nullable Throwable t) {
+      double timeSpentMs = ((double) (System.nanoTime() - startTimeNs)) / 1e6;
+      TagContext tagContext =
+          tagger
+              .currentBuilder()
+              .put(JAVA_SQL_OUTCOME, outcome)
+              .put(JAVA_SQL_STATUS, t == null ? VALUE_OK : VALUE_ERROR)
+              .build();
+      statsRecorder
+          .newMeasureMap()
+          .put(MEASURE_TRANSACTION_LATENCY_MS, timeSpentMs)
+          .record(tagContext);
+    }
   }
 
   public static void registerAllViews() {
@@ -237,8 +1495,37 @@ public final class Observability {
 
   // VisibleForTesting
   static void registerAllViews(ViewManager viewManager) {
-    for (View v : Arrays.asList(SQL_CLIENT_LATENCY_VIEW, SQL_CLIENT_CALLS_VIEW)) {
+    for (View v :
+        Arrays.asList(
+            SQL_CLIENT_LATENCY_VIEW,
+            SQL_CLIENT_CALLS_VIEW,
+            SQL_CLIENT_COUNTED_CALLS_VIEW,
+            SQL_CLIENT_CONNECTION_ACQUIRE_VIEW,
+            SQL_CLIENT_TRANSACTION_DURATION_VIEW,
+            SQL_CLIENT_BATCH_SIZE_VIEW,
+            SQL_CLIENT_ROWS_AFFECTED_VIEW,
+            SQL_CLIENT_ROWS_RETURNED_VIEW,
+            SQL_CLIENT_FETCH_SIZE_VIEW,
+            SQL_CLIENT_STATEMENT_CACHE_VIEW,
+            SQL_CLIENT_N_PLUS_ONE_VIEW,
+            SQL_CLIENT_OPEN_RESOURCES_VIEW,
+            SQL_CLIENT_LEAKS_VIEW)) {
       viewManager.registerView(v);
     }
   }
+
+  /**
+   * Registers the views slicing latencies by query fingerprint, i.e. by SQL with its literals
+   * replaced by placeholders. Only the fingerprints that account for the most latency get a
+   * java_sql_query tag value of their own, all the other queries are tagged as "other".
+   */
+  public static void registerQueryViews() {
+    registerQueryViews(Stats.getViewManager());
+  }
+
+  // VisibleForTesting
+  static void registerQueryViews(ViewManager viewManager) {
+    viewManager.registerView(SQL_CLIENT_QUERY_LATENCY_VIEW);
+    queryStatsEnabled = true;
+  }
 }
@@ -18,15 +18,53 @@ import io.opencensus.common.Scope;
 import io.opencensus.integration.jdbc.Observability.TraceOption;
 import io.opencensus.integration.jdbc.Observability.TrackingOperation;
 import java.sql.Driver;
+import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.EnumSet;
+import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
-/** Wraps and instruments a {@link Driver} instance with tracing and metrics using OpenCensus. */
+/**
+ * Wraps and instruments a {@link Driver} instance with tracing and metrics using OpenCensus.
+ *
+ * <p>Besides wrapping a given driver, OcWrapDriver registers itself with the {@link DriverManager}
+ * for URLs starting with {@code jdbc:opencensus:}, such as {@code
+ * jdbc:opencensus:postgresql://localhost/db}. Such a URL is handled by the driver registered for
+ * the URL without {@code opencensus:}. {@link TraceOption}s are read from the comma separated
+ * {@code opencensus.traceOptions} URL parameter or connection property, which is removed before
+ * connecting.
+ */
 public class OcWrapDriver implements Driver {
-  private final Driver driver;
+  static final String URL_PREFIX = "jdbc:opencensus:";
+  static final String TRACE_OPTIONS_PARAMETER = "opencensus.traceOptions";
+
+  // The drivers that handle the URLs following "jdbc:opencensus:", keyed by their
+  // "jdbc:<subprotocol>:" prefix, so that DriverManager is only searched once per subprotocol.
+  private static final ConcurrentHashMap<String, Driver> driversByPrefix =
+      new ConcurrentHashMap<>();
+
+  static {
+    try {
+      DriverManager.registerDriver(new OcWrapDriver());
+    } catch (SQLException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  // The wrapped driver, or null when the driver is looked up from the URL.
+  @Nullable private final Driver driver;
+
+  /**
+   * Creates a driver for {@code jdbc:opencensus:} URLs, which wraps the driver handling the URL
+   * without {@code opencensus:}.
+   */
+  public OcWrapDriver() {
+    this.driver = null;
+  }
 
   public OcWrapDriver(Driver driver) {
     this.driver = driver;
@@ -34,48 +72,164 @@ public class OcWrapDriver implements Driver {
 
   @Override
   public boolean acceptsURL(String url) throws SQLException {
-    return this.driver.acceptsURL(url);
+    if (this.driver != null) {
+      return this.driver.acceptsURL(url);
+    }
+    return url != null && url.startsWith(URL_PREFIX);
   }
 
   @Override
   public java.sql.Connection connect(String url, Properties info) throws SQLException {
+    if (this.driver != null) {
+      return connect(this.driver, url, info, EnumSet.noneOf(TraceOption.class));
+    }
+    if (!acceptsURL(url)) {
+      // As per the JDBC spec, let the DriverManager try the next driver.
+      return null;
+    }
+
+    EnumSet<TraceOption> opts = EnumSet.noneOf(TraceOption.class);
+    String delegateUrl = parseTraceOptions(delegateUrl(url), opts);
+    Properties delegateInfo = parseTraceOptions(info, opts);
+    return connect(delegateDriver(delegateUrl), delegateUrl, delegateInfo, opts);
+  }
+
+  private static java.sql.Connection connect(
+      Driver driver, String url, Properties info, EnumSet<TraceOption> opts) throws SQLException {
     TrackingOperation trackingOperation =
-        Observability.createRoundtripTrackingSpan("java.sql.Driver.connect");
+        Observability.createRoundtripTrackingSpan("java.sql.Driver.connect", opts);
 
-    try (Scope ws = trackingOperation.withSpan()) {
-      return new OcWrapConnection(
-          this.driver.connect(url, info), EnumSet.noneOf(TraceOption.class));
-    } catch (Exception e) {
-      trackingOperation.recordException(e);
-      throw e;
-    } finally {
-      trackingOperation.end();
+    Scope ws = trackingOperation.withSpan();
+    java.sql.Connection result;
+    try {
+      java.sql.Connection connection = driver.connect(url, info);
+      result = connection == null ? null : new OcWrapConnection(connection, opts);
+    } catch (Throwable t) {
+      trackingOperation.endExceptionally(ws, t);
+      throw t;
     }
+    trackingOperation.end(ws);
+    return result;
   }
 
   @Override
   public boolean jdbcCompliant() {
-    return this.driver.jdbcCompliant();
+    return this.driver != null && this.driver.jdbcCompliant();
   }
 
   @Override
   public int getMajorVersion() {
-    return this.driver.getMajorVersion();
+    return this.driver == null ? 1 : this.driver.getMajorVersion();
   }
 
   @Override
   public int getMinorVersion() {
-    return this.driver.getMinorVersion();
+    return this.driver == null ? 0 : this.driver.getMinorVersion();
   }
 
   @Override
   public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    if (this.driver == null) {
+      throw new SQLFeatureNotSupportedException();
+    }
     return this.driver.getParentLogger();
   }
 
   @Override
   public java.sql.DriverPropertyInfo[] getPropertyInfo(String url, Properties info)
       throws SQLException {
-    return this.driver.getPropertyInfo(url, info);
+    if (this.driver != null) {
+      return this.driver.getPropertyInfo(url, info);
+    }
+    if (!acceptsURL(url)) {
+      return new java.sql.DriverPropertyInfo[0];
+    }
+
+    EnumSet<TraceOption> opts = EnumSet.noneOf(TraceOption.class);
+    String delegateUrl = parseTraceOptions(delegateUrl(url), opts);
+    return delegateDriver(delegateUrl).getPropertyInfo(delegateUrl, parseTraceOptions(info, opts));
+  }
+
+  // Turns "jdbc:opencensus:<subprotocol>:..." into "jdbc:<subprotocol>:...".
+  private static String delegateUrl(String url) {
+    return "jdbc:" + url.substring(URL_PREFIX.length());
+  }
+
+  private static Driver delegateDriver(String url) throws SQLException {
+    int subprotocolEnd = url.indexOf(':', "jdbc:".length());
+    String prefix = subprotocolEnd < 0 ? url : url.substring(0, subprotocolEnd + 1);
+
+    Driver driver = driversByPrefix.get(prefix);
+    if (driver == null || !driver.acceptsURL(url)) {
+      driver = DriverManager.getDriver(url);
+      driversByPrefix.put(prefix, driver);
+    }
+    return driver;
+  }
+
+  // Adds the TraceOptions of the opencensus.traceOptions URL parameter to opts, and returns the
+  // URL without the parameter. Both "?a=b&c=d" and ";a=b;c=d" style parameters are supported.
+  // VisibleForTesting
+  static String parseTraceOptions(String url, EnumSet<TraceOption> opts) throws SQLException {
+    String key = TRACE_OPTIONS_PARAMETER + "=";
+    int start = url.indexOf(key);
+    while (start > 0 && !isParameterSeparator(url.charAt(start - 1))) {
+      start = url.indexOf(key, start + 1);
+    }
+    if (start <= 0) {
+      return url;
+    }
+
+    int valueStart = start + key.length();
+    int end = valueStart;
+    while (end < url.length() && url.charAt(end) != '&' && url.charAt(end) != ';') {
+      end++;
+    }
+    addTraceOptions(url.substring(valueStart, end), opts);
+
+    if (url.charAt(start - 1) == '?') {
+      // Keep the '?' if other parameters follow.
+      return end < url.length()
+          ? url.substring(0, start) + url.substring(end + 1)
+          : url.substring(0, start - 1);
+    }
+    return url.substring(0, start - 1) + url.substring(end);
+  }
+
+  private static boolean isParameterSeparator(char c) {
+    return c == '?' || c == '&' || c == ';';
+  }
+
+  // Adds the TraceOptions of the opencensus.traceOptions property to opts, and returns the
+  // properties without it.
+  // VisibleForTesting
+  static Properties parseTraceOptions(@Nullable Properties info, EnumSet<TraceOption> opts)
+      throws SQLException {
+    if (info == null || info.getProperty(TRACE_OPTIONS_PARAMETER) == null) {
+      return info;
+    }
+    addTraceOptions(info.getProperty(TRACE_OPTIONS_PARAMETER), opts);
+    Properties delegateInfo = new Properties();
+    for (String name : info.stringPropertyNames()) {
+      if (!name.equals(TRACE_OPTIONS_PARAMETER)) {
+        delegateInfo.setProperty(name, info.getProperty(name));
+      }
+    }
+    return delegateInfo;
+  }
+
+  private static void addTraceOptions(String value, EnumSet<TraceOption> opts)
+      throws SQLException {
+    for (String name : value.split(",")) {
+      name = name.trim();
+      if (name.isEmpty()) {
+        continue;
+      }
+      try {
+        opts.add(TraceOption.valueOf(name.toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        throw new SQLException("Unknown " + TRACE_OPTIONS_PARAMETER + ": " + name, e);
+      }
+    }
   }
 }
@@ -0,0 +1,198 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the driver PreparedStatements closed by the application on a connection, so that preparing
+ * the same SQL again doesn't cost another parse.
+ *
+ * <p>Statements are cached by their SQL and the ResultSet type, concurrency, holdability and
+ * generated keys they were prepared with. A statement is taken out of the cache while in use, so
+ * a statement is never handed out twice, and the least recently returned statements are closed
+ * once more than {@code maxSize} are idle. Lookups and evictions are recorded into the
+ * "java.sql/client/statement_cache" view.
+ */
+final class PreparedStatementCache {
+
+  static final int DEFAULT_MAX_SIZE = 32;
+
+  private final int maxSize;
+
+  // The idle statements, from the least to the most recently returned, guarded by this.
+  private final LinkedHashMap<Key, PreparedStatement> idle = new LinkedHashMap<>();
+  private boolean closed;
+
+  PreparedStatementCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  // Takes the idle statement cached for key out of the cache, or returns null if there is none.
+  @Nullable
+  PreparedStatement take(Key key) {
+    PreparedStatement statement;
+    synchronized (this) {
+      statement = idle.remove(key);
+    }
+    Observability.recordStatementCache(
+        statement == null ? Observability.VALUE_MISS : Observability.VALUE_HIT);
+    return statement;
+  }
+
+  // Returns a statement to the cache. Returns false if the statement wasn't cached, in which case
+  // the caller closes it.
+  boolean offer(Key key, PreparedStatement statement) {
+    List<PreparedStatement> evicted = null;
+    synchronized (this) {
+      if (closed || maxSize <= 0 || idle.containsKey(key)) {
+        return false;
+      }
+      idle.put(key, statement);
+      Iterator<PreparedStatement> eldest = idle.values().iterator();
+      while (idle.size() > maxSize) {
+        if (evicted == null) {
+          evicted = new ArrayList<>(1);
+        }
+        evicted.add(eldest.next());
+        eldest.remove();
+      }
+    }
+    if (evicted != null) {
+      for (PreparedStatement evictedStatement : evicted) {
+        Observability.recordStatementCache(Observability.VALUE_EVICT);
+        closeQuietly(evictedStatement);
+      }
+    }
+    return true;
+  }
+
+  // Closes the idle statements, and stops caching the statements returned later on.
+  void close() {
+    List<PreparedStatement> statements;
+    synchronized (this) {
+      closed = true;
+      statements = new ArrayList<>(idle.values());
+      idle.clear();
+    }
+    for (PreparedStatement statement : statements) {
+      closeQuietly(statement);
+    }
+  }
+
+  // Drops the idle statements without closing them, for connections being aborted.
+  synchronized void clear() {
+    closed = true;
+    idle.clear();
+  }
+
+  // VisibleForTesting
+  synchronized int size() {
+    return idle.size();
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // The statement is released along with its connection anyway.
+    }
+  }
+
+  /** The SQL and options a statement was prepared with. */
+  static final class Key {
+    private final String sql;
+    private final int resultSetType;
+    private final int resultSetConcurrency;
+    private final int resultSetHoldability;
+    // An Integer autoGeneratedKeys flag, the int[] column indexes or the String[] column names of
+    // the generated keys, or null if none were requested.
+    @Nullable private final Object generatedKeys;
+    private final int hashCode;
+
+    // Options left to the driver's defaults are passed as 0, which no JDBC constant uses.
+    Key(
+        String sql,
+        int resultSetType,
+        int resultSetConcurrency,
+        int resultSetHoldability,
+        @Nullable Object generatedKeys) {
+      this.sql = sql;
+      this.resultSetType = resultSetType;
+      this.resultSetConcurrency = resultSetConcurrency;
+      this.resultSetHoldability = resultSetHoldability;
+      this.generatedKeys = generatedKeys;
+      this.hashCode =
+          31 * Objects.hash(sql, resultSetType, resultSetConcurrency, resultSetHoldability)
+              + Arrays.deepHashCode(new Object[] {generatedKeys});
+    }
+
+    static Key of(String sql) {
+      return new Key(sql, 0, 0, 0, null);
+    }
+
+    static Key of(String sql, int resultSetType, int resultSetConcurrency) {
+      return new Key(sql, resultSetType, resultSetConcurrency, 0, null);
+    }
+
+    static Key of(
+        String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) {
+      return new Key(sql, resultSetType, resultSetConcurrency, resultSetHoldability, null);
+    }
+
+    static Key withGeneratedKeys(String sql, int autoGeneratedKeys) {
+      return new Key(sql, 0, 0, 0, autoGeneratedKeys);
+    }
+
+    // The arrays are copied, so that the application reusing them can't change cached keys.
+    static Key withGeneratedKeys(String sql, int[] columnIndexes) {
+      return new Key(sql, 0, 0, 0, columnIndexes == null ? null : columnIndexes.clone());
+    }
+
+    static Key withGeneratedKeys(String sql, String[] columnNames) {
+      return new Key(sql, 0, 0, 0, columnNames == null ? null : columnNames.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return hashCode == that.hashCode
+          && resultSetType == that.resultSetType
+          && resultSetConcurrency == that.resultSetConcurrency
+          && resultSetHoldability == that.resultSetHoldability
+          && sql.equals(that.sql)
+          && Objects.deepEquals(generatedKeys, that.generatedKeys);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,207 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import io.opencensus.tags.TagValue;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the java_sql_query tag to the query fingerprints that account for the most latency.
+ *
+ * <p>Fingerprints are tracked with the weighted space-saving algorithm, using a fixed number of
+ * counters weighted by latency. A fingerprint is admitted as a tag value of its own once the
+ * latency guaranteed to belong to it reaches {@code 1 / maxTagValues} of the latency offered to
+ * the counters by the fingerprints not admitted yet, so that only the most expensive queries
+ * qualify. At most {@code maxTagValues}
+ * fingerprints are admitted, and all the others are reported as {@link #OTHER}.
+ *
+ * <p>Fingerprints that aren't admitted are offered to the counters only if their lock is free, so
+ * callers never wait on each other; under contention the counters see a sample of the calls.
+ * Every {@code offersPerDecay} offers, the counters are halved so that old latency fades, and an
+ * admitted fingerprint whose share of the latency since the previous decay fell below half of
+ * the admission threshold gives its tag value up for the fingerprints now costing more. Admitted
+ * fingerprints otherwise keep their tag value, so that their time series stay continuous.
+ */
+final class QueryHeavyHitters {
+
+  static final TagValue OTHER = TagValue.create("other");
+
+  // The number of counters per admissible tag value. More counters tighten the error bounds of
+  // the counts, at the cost of memory.
+  private static final int COUNTERS_PER_TAG_VALUE = 8;
+
+  // The number of offers between decays, per counter.
+  private static final int OFFERS_PER_DECAY_PER_COUNTER = 64;
+
+  private static final Comparator<Counter> BY_COUNT =
+      Comparator.<Counter>comparingDouble(counter -> counter.count)
+          .thenComparingLong(counter -> counter.id);
+
+  private final int maxTagValues;
+  private final int maxCounters;
+  private final int offersPerDecay;
+
+  private final ConcurrentHashMap<String, Admitted> admitted = new ConcurrentHashMap<>();
+  // The weight of all the fingerprints since the last decay, admitted or not.
+  private final DoubleAdder totalWeight = new DoubleAdder();
+
+  // VisibleForTesting
+  final ReentrantLock lock = new ReentrantLock();
+
+  // The space-saving counters of the fingerprints that haven't been admitted, by fingerprint and
+  // by count, and the weight offered to them. Guarded by lock.
+  private final Map<String, Counter> counters = new HashMap<>();
+  private final TreeSet<Counter> countersByCount = new TreeSet<>(BY_COUNT);
+  private double offeredWeight;
+  private long offers;
+  private long nextCounterId;
+
+  QueryHeavyHitters(int maxTagValues) {
+    this(maxTagValues, maxTagValues * COUNTERS_PER_TAG_VALUE * OFFERS_PER_DECAY_PER_COUNTER);
+  }
+
+  // VisibleForTesting
+  QueryHeavyHitters(int maxTagValues, int offersPerDecay) {
+    this.maxTagValues = maxTagValues;
+    this.maxCounters = maxTagValues * COUNTERS_PER_TAG_VALUE;
+    this.offersPerDecay = offersPerDecay;
+  }
+
+  // Accounts weight to the fingerprint, and returns the tag value to record it with.
+  TagValue tagValue(String fingerprint, double weight) {
+    totalWeight.add(weight);
+    Admitted admittedFingerprint = admitted.get(fingerprint);
+    if (admittedFingerprint != null) {
+      admittedFingerprint.weight.add(weight);
+      return admittedFingerprint.tagValue;
+    }
+    if (!lock.tryLock()) {
+      return OTHER;
+    }
+    try {
+      return offer(fingerprint, weight);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private TagValue offer(String fingerprint, double weight) {
+    Counter counter = counters.get(fingerprint);
+    if (counter == null) {
+      counter = new Counter(fingerprint, nextCounterId++);
+      if (counters.size() >= maxCounters) {
+        // Take over the smallest counter. Its count is an upper bound of what the new fingerprint
+        // might have been seen with while untracked, which becomes its error.
+        Counter smallest = countersByCount.pollFirst();
+        counters.remove(smallest.fingerprint);
+        counter.count = smallest.count;
+        counter.error = smallest.count;
+      }
+      counters.put(fingerprint, counter);
+    } else {
+      countersByCount.remove(counter);
+    }
+    counter.count += weight;
+    countersByCount.add(counter);
+    offeredWeight += weight;
+
+    if (++offers % offersPerDecay == 0) {
+      decay();
+    }
+
+    // Until every counter has been offered once, the total is too small to tell heavy hitters
+    // apart from the first few queries that happened to run.
+    if (offers < maxCounters) {
+      return OTHER;
+    }
+    if (counter.count - counter.error < offeredWeight / maxTagValues
+        || admitted.size() >= maxTagValues) {
+      return OTHER;
+    }
+
+    counters.remove(fingerprint);
+    countersByCount.remove(counter);
+    offeredWeight -= counter.count - counter.error;
+    TagValue tagValue = TagValue.create(toTagValue(fingerprint));
+    // The guaranteed weight carries over, so that a decay right after the admission doesn't
+    // demote the fingerprint for lack of weight since.
+    admitted.put(fingerprint, new Admitted(tagValue, counter.count - counter.error));
+    return tagValue;
+  }
+
+  // Halves the counters, and demotes the admitted fingerprints that account for less than half of
+  // the admission threshold since the previous decay.
+  private void decay() {
+    double demotionThreshold = totalWeight.sumThenReset() / (2 * maxTagValues);
+    for (Iterator<Admitted> it = admitted.values().iterator(); it.hasNext(); ) {
+      if (it.next().weight.sumThenReset() < demotionThreshold) {
+        it.remove();
+      }
+    }
+
+    List<Counter> halved = new ArrayList<>(countersByCount);
+    countersByCount.clear();
+    for (Counter counter : halved) {
+      counter.count /= 2;
+      counter.error /= 2;
+      countersByCount.add(counter);
+    }
+    offeredWeight /= 2;
+  }
+
+  // TagValues are limited to TagValue.MAX_LENGTH printable ASCII characters.
+  private static String toTagValue(String fingerprint) {
+    int length = Math.min(fingerprint.length(), TagValue.MAX_LENGTH);
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      char c = fingerprint.charAt(i);
+      chars[i] = c < ' ' || c > '~' ? '_' : c;
+    }
+    return new String(chars);
+  }
+
+  private static final class Admitted {
+    final TagValue tagValue;
+    // The weight of the fingerprint since the last decay.
+    final DoubleAdder weight = new DoubleAdder();
+
+    Admitted(TagValue tagValue, double weight) {
+      this.tagValue = tagValue;
+      this.weight.add(weight);
+    }
+  }
+
+  private static final class Counter {
+    final String fingerprint;
+    // Breaks ties between counters of the same count.
+    final long id;
+    double count;
+    double error;
+
+    Counter(String fingerprint, long id) {
+      this.fingerprint = fingerprint;
+      this.id = id;
+    }
+  }
+}
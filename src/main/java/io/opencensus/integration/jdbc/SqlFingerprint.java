@@ -0,0 +1,362 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Normalizes SQL statements into fingerprints that are the same for every execution of a query,
+ * regardless of the values it was executed with.
+ *
+ * <p>String and numeric literals, signed or not, as well as bind parameters are replaced with
+ * {@code ?}, IN-lists are collapsed into {@code IN (?)}, the repeated rows of a VALUES list into a
+ * single row, comments are removed and runs of whitespace are collapsed into a single space. For
+ * example {@code SELECT * FROM users WHERE id IN (1, -2, 3) -- by id} becomes {@code SELECT *
+ * FROM users WHERE id IN (?)}, and {@code INSERT INTO t (a) VALUES (1), (2)} becomes {@code
+ * INSERT INTO t (a) VALUES (?)}. Keywords and identifiers are kept as is.
+ *
+ * <p>Fingerprints are cached in a bounded LRU keyed by the SQL string, so repeated statements are
+ * only normalized once. The cache is split into independently locked stripes, so concurrent
+ * lookups of different statements rarely contend.
+ */
+final class SqlFingerprint {
+
+  private static final int STRIPES = 16;
+  private static final int MAX_ENTRIES_PER_STRIPE = 64;
+  // Statements longer than this are normalized on every call rather than pinned in the cache.
+  private static final int MAX_CACHED_SQL_LENGTH = 16 * 1024;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static final Map<String, String>[] cacheStripes = new Map[STRIPES];
+
+  static {
+    for (int i = 0; i < STRIPES; i++) {
+      cacheStripes[i] =
+          new LinkedHashMap<String, String>(MAX_ENTRIES_PER_STRIPE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+              return size() > MAX_ENTRIES_PER_STRIPE;
+            }
+          };
+    }
+  }
+
+  private SqlFingerprint() {}
+
+  static String fingerprint(String sql) {
+    if (sql.length() > MAX_CACHED_SQL_LENGTH) {
+      return normalize(sql);
+    }
+
+    // Spread the hash so that statements differing only in their last characters still land in
+    // different stripes.
+    int hash = sql.hashCode();
+    Map<String, String> stripe = cacheStripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    synchronized (stripe) {
+      String fingerprint = stripe.get(sql);
+      if (fingerprint != null) {
+        return fingerprint;
+      }
+    }
+
+    // Normalize outside of the lock; racing threads compute the same fingerprint.
+    String fingerprint = normalize(sql);
+    synchronized (stripe) {
+      stripe.put(sql, fingerprint);
+    }
+    return fingerprint;
+  }
+
+  // VisibleForTesting
+  static String normalize(String sql) {
+    int length = sql.length();
+    StringBuilder out = new StringBuilder(length);
+
+    // The position in out of the opening parenthesis of an IN-list, or -1 when not in one.
+    int inListStart = -1;
+    // Whether the IN-list holds nothing but placeholders and commas so far.
+    boolean inListCollapsible = false;
+    // Whether the last token was the IN keyword.
+    boolean afterIn = false;
+
+    // The position in out of the opening parenthesis of a row of a VALUES list, or -1 when not in
+    // one. Rows holding nothing but placeholders and commas are collapsible, like IN-lists.
+    int valuesRowStart = -1;
+    // Where the last collapsible row of the current VALUES list starts and ends in out, or -1 when
+    // the list has none or has ended.
+    int previousRowStart = -1;
+    int previousRowEnd = -1;
+    // Whether the last token was the VALUES keyword, or the comma after a row of a VALUES list.
+    boolean afterValues = false;
+
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+
+      if (Character.isWhitespace(c)) {
+        i++;
+        appendSpace(out);
+        continue;
+      }
+
+      if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+        // A line comment.
+        i += 2;
+        while (i < length && sql.charAt(i) != '\n' && sql.charAt(i) != '\r') {
+          i++;
+        }
+        appendSpace(out);
+        continue;
+      }
+
+      if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+        // A block comment.
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? length : end + 2;
+        appendSpace(out);
+        continue;
+      }
+
+      boolean escapeString = (c == 'E' || c == 'e') && i + 1 < length && sql.charAt(i + 1) == '\'';
+      if (c == '\'' || escapeString) {
+        // A string literal, where quotes are escaped by doubling them, and also by a backslash in
+        // PostgreSQL's E'...' strings.
+        i += escapeString ? 2 : 1;
+        while (i < length) {
+          if (escapeString && sql.charAt(i) == '\\') {
+            i += 2;
+            continue;
+          }
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        i++;
+        out.append('?');
+        afterIn = false;
+        continue;
+      }
+
+      if (c == '"' || c == '`') {
+        // A quoted identifier, which is kept as is.
+        int end = sql.indexOf(c, i + 1);
+        end = end < 0 ? length : end + 1;
+        out.append(sql, i, end);
+        i = end;
+        afterIn = false;
+        inListCollapsible = false;
+        continue;
+      }
+
+      if ((isNumberStart(sql, i) && !followsIdentifier(sql, i))
+          || ((c == '-' || c == '+') && isNumberStart(sql, i + 1) && isOperandPosition(out))) {
+        // A numeric literal, with its sign when it follows an operator or a separator rather than
+        // an operand, so that "IN (-1, 2)" collapses like "IN (1, 2)".
+        i = skipNumber(sql, isDigit(c) || c == '.' ? i : i + 1);
+        out.append('?');
+        afterIn = false;
+        continue;
+      }
+
+      if (c == '$' && i + 1 < length && isDigit(sql.charAt(i + 1))) {
+        // A positional bind parameter.
+        i++;
+        while (i < length && isDigit(sql.charAt(i))) {
+          i++;
+        }
+        out.append('?');
+        afterIn = false;
+        continue;
+      }
+
+      // The part of a qualified name after its dot may start with a digit, as in MySQL's "t.1col".
+      if (isIdentifierStart(c) || (isDigit(c) && isQualifierDot(sql, i - 1))) {
+        int start = i;
+        while (i < length && isIdentifierPart(sql.charAt(i))) {
+          i++;
+        }
+        out.append(sql, start, i);
+        afterIn = i - start == 2 && sql.regionMatches(true, start, "IN", 0, 2);
+        afterValues = i - start == 6 && sql.regionMatches(true, start, "VALUES", 0, 6);
+        inListCollapsible = false;
+        previousRowEnd = -1;
+        continue;
+      }
+
+      if (c == '(') {
+        valuesRowStart = -1;
+        if (afterIn) {
+          appendSpace(out);
+          inListStart = out.length();
+          inListCollapsible = true;
+        } else if (afterValues) {
+          inListStart = -1;
+          valuesRowStart = out.length();
+          inListCollapsible = true;
+        } else {
+          inListStart = -1;
+          previousRowEnd = -1;
+        }
+      } else if (c == ')') {
+        if (inListStart >= 0 && inListCollapsible) {
+          out.setLength(inListStart);
+          out.append("(?)");
+          inListStart = -1;
+          afterIn = false;
+          i++;
+          continue;
+        }
+        if (valuesRowStart >= 0 && inListCollapsible) {
+          out.append(')');
+          if (previousRowEnd >= 0
+              && isRepeatedRow(out, previousRowStart, previousRowEnd, valuesRowStart)) {
+            out.setLength(previousRowEnd);
+          } else {
+            previousRowStart = valuesRowStart;
+            previousRowEnd = out.length();
+          }
+          valuesRowStart = -1;
+          afterValues = false;
+          i++;
+          continue;
+        }
+        inListStart = -1;
+        valuesRowStart = -1;
+        previousRowEnd = -1;
+      } else if (c != ',' && c != '?') {
+        inListCollapsible = false;
+        previousRowEnd = -1;
+      }
+
+      out.append(c);
+      afterIn = false;
+      // A row of a VALUES list may follow the comma after the previous one.
+      afterValues = c == ',' && previousRowEnd >= 0 && valuesRowStart < 0;
+      i++;
+    }
+
+    int end = out.length();
+    if (end > 0 && out.charAt(end - 1) == ' ') {
+      out.setLength(end - 1);
+    }
+    return out.toString();
+  }
+
+  // Whether the row ending out, which starts at rowStart, repeats the row between previousStart and
+  // previousEnd and is only separated from it by a comma. Spaces are ignored.
+  private static boolean isRepeatedRow(
+      StringBuilder out, int previousStart, int previousEnd, int rowStart) {
+    String separator = out.substring(previousEnd, rowStart).replace(" ", "");
+    return separator.equals(",")
+        && out.substring(previousStart, previousEnd)
+            .replace(" ", "")
+            .equals(out.substring(rowStart).replace(" ", ""));
+  }
+
+  // Whether a value, rather than an operator, is expected after out, i.e. whether a sign starting
+  // here belongs to a numeric literal.
+  private static boolean isOperandPosition(StringBuilder out) {
+    int end = out.length();
+    if (end > 0 && out.charAt(end - 1) == ' ') {
+      end--;
+    }
+    if (end == 0) {
+      return true;
+    }
+    return "(,=<>+-*/%".indexOf(out.charAt(end - 1)) >= 0;
+  }
+
+  private static boolean isNumberStart(String sql, int i) {
+    if (i >= sql.length()) {
+      return false;
+    }
+    char c = sql.charAt(i);
+    return isDigit(c) || (c == '.' && i + 1 < sql.length() && isDigit(sql.charAt(i + 1)));
+  }
+
+  // Whether the character at i continues an identifier or a qualified name, so that a digit or a
+  // dot there doesn't start a numeric literal.
+  private static boolean followsIdentifier(String sql, int i) {
+    return i > 0 && (isIdentifierEnd(sql.charAt(i - 1)) || isQualifierDot(sql, i - 1));
+  }
+
+  // Whether the character at i is the dot of a qualified name, i.e. follows an identifier.
+  private static boolean isQualifierDot(String sql, int i) {
+    return i > 0 && sql.charAt(i) == '.' && isIdentifierEnd(sql.charAt(i - 1));
+  }
+
+  // Whether c may end an identifier, quoted ones included, as their quotes are skipped with them.
+  private static boolean isIdentifierEnd(char c) {
+    return isIdentifierPart(c) || c == '"' || c == '`';
+  }
+
+  private static void appendSpace(StringBuilder out) {
+    int length = out.length();
+    if (length > 0 && out.charAt(length - 1) != ' ') {
+      out.append(' ');
+    }
+  }
+
+  // Returns the position right after the numeric literal starting at start, covering decimals,
+  // exponents and hexadecimal literals.
+  private static int skipNumber(String sql, int start) {
+    int length = sql.length();
+    int i = start;
+    if (sql.charAt(i) == '0'
+        && i + 1 < length
+        && (sql.charAt(i + 1) == 'x' || sql.charAt(i + 1) == 'X')) {
+      i += 2;
+      while (i < length && Character.digit(sql.charAt(i), 16) >= 0) {
+        i++;
+      }
+      return i;
+    }
+
+    while (i < length && (isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+      i++;
+    }
+    if (i < length && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+      int exponent = i + 1;
+      if (exponent < length && (sql.charAt(exponent) == '+' || sql.charAt(exponent) == '-')) {
+        exponent++;
+      }
+      if (exponent < length && isDigit(sql.charAt(exponent))) {
+        i = exponent;
+        while (i < length && isDigit(sql.charAt(i))) {
+          i++;
+        }
+      }
+    }
+    return i;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isIdentifierStart(char c) {
+    return Character.isLetter(c) || c == '_';
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+}
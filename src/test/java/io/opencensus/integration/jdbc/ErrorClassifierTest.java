@@ -0,0 +1,111 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ErrorClassifier}. */
+@RunWith(JUnit4.class)
+public class ErrorClassifierTest {
+
+  @Test
+  public void classify_bySqlStateClass() {
+    assertThat(
+            ErrorClassifier.classify(
+                new SQLException("duplicate key value (id)=(42) violates \"pk\"", "23505")))
+        .isEqualTo("integrity_constraint_violation");
+    assertThat(ErrorClassifier.classify(new SQLException("connection refused", "08001")))
+        .isEqualTo("connection_exception");
+    assertThat(ErrorClassifier.classify(new SQLException("syntax error", "42601")))
+        .isEqualTo("syntax_error_or_access_rule_violation");
+  }
+
+  @Test
+  public void classify_bySqlState() {
+    assertThat(ErrorClassifier.classify(new SQLException("could not serialize", "40001")))
+        .isEqualTo("serialization_failure");
+    assertThat(ErrorClassifier.classify(new SQLException("deadlock detected", "40P01")))
+        .isEqualTo("deadlock_detected");
+    assertThat(ErrorClassifier.classify(new SQLException("rolled back", "40002")))
+        .isEqualTo("transaction_rollback");
+  }
+
+  @Test
+  public void classify_byVendorCode() {
+    assertThat(ErrorClassifier.classify(new SQLException("lock wait timeout", null, 1205)))
+        .isEqualTo("vendor_1205");
+  }
+
+  @Test
+  public void classify_byExceptionClass() {
+    assertThat(ErrorClassifier.classify(new IllegalStateException("closed at 12:00:01")))
+        .isEqualTo("IllegalStateException");
+  }
+
+  @Test
+  public void classify_capsDynamicValues() {
+    ErrorClassifier classifier = new ErrorClassifier(2);
+    assertThat(classifier.classifyError(new SQLException("first", null, 1))).isEqualTo("vendor_1");
+    assertThat(classifier.classifyError(new IllegalStateException("second")))
+        .isEqualTo("IllegalStateException");
+    assertThat(classifier.classifyError(new SQLException("one too many", null, 3)))
+        .isEqualTo(ErrorClassifier.OTHER);
+    // Values admitted before reaching the cap keep being reported.
+    assertThat(classifier.classifyError(new SQLException("again", null, 1))).isEqualTo("vendor_1");
+    // Well-known SQLStates are never folded into the overflow bucket.
+    assertThat(classifier.classifyError(new SQLException("connection reset", "08006")))
+        .isEqualTo("connection_exception");
+  }
+
+  @Test
+  public void classify_capsDynamicValuesUnderContention() throws InterruptedException {
+    ErrorClassifier classifier = new ErrorClassifier(4);
+    Set<String> reported = ConcurrentHashMap.newKeySet();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      int vendorCode = i + 1;
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                reported.add(classifier.classifyError(new SQLException("", null, vendorCode)));
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    reported.remove(ErrorClassifier.OTHER);
+    assertThat(reported.size()).isAtMost(4);
+  }
+}
@@ -0,0 +1,92 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link FetchSizeTuner}. */
+@RunWith(JUnit4.class)
+public class FetchSizeTunerTest {
+
+  @Test
+  public void fetchSize_unknownQuery() {
+    FetchSizeTuner tuner = new FetchSizeTuner(10);
+    assertThat(tuner.fetchSize("SELECT a FROM t")).isEqualTo(0);
+  }
+
+  @Test
+  public void fetchSize_followsRowsRead() {
+    FetchSizeTuner tuner = new FetchSizeTuner(10);
+    tuner.recordRowsRead("SELECT a FROM t", 200);
+    assertThat(tuner.fetchSize("SELECT a FROM t")).isEqualTo(201);
+
+    // The average moves a quarter of the way towards each new execution.
+    tuner.recordRowsRead("SELECT a FROM t", 600);
+    assertThat(tuner.fetchSize("SELECT a FROM t")).isEqualTo(301);
+  }
+
+  @Test
+  public void fetchSize_isClampedToBounds() {
+    FetchSizeTuner tuner = new FetchSizeTuner(10);
+    tuner.recordRowsRead("SELECT a FROM t WHERE id = ?", 1);
+    tuner.recordRowsRead("SELECT a FROM t", 1_000_000);
+    assertThat(tuner.fetchSize("SELECT a FROM t WHERE id = ?"))
+        .isEqualTo(FetchSizeTuner.DEFAULT_MIN_FETCH_SIZE);
+    assertThat(tuner.fetchSize("SELECT a FROM t"))
+        .isEqualTo(FetchSizeTuner.DEFAULT_MAX_FETCH_SIZE);
+
+    tuner.setBounds(1, 50);
+    assertThat(tuner.fetchSize("SELECT a FROM t WHERE id = ?")).isEqualTo(2);
+    assertThat(tuner.fetchSize("SELECT a FROM t")).isEqualTo(50);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setBounds_rejectsInvertedBounds() {
+    new FetchSizeTuner(10).setBounds(100, 10);
+  }
+
+  @Test
+  public void recordRowsRead_boundsTrackedQueries() {
+    FetchSizeTuner tuner = new FetchSizeTuner(1);
+    tuner.recordRowsRead("SELECT a FROM t", 100);
+    tuner.recordRowsRead("SELECT b FROM t", 100);
+    assertThat(tuner.fetchSize("SELECT a FROM t")).isEqualTo(101);
+    assertThat(tuner.fetchSize("SELECT b FROM t")).isEqualTo(0);
+  }
+
+  @Test
+  public void recordRowsRead_evictsQueriesThatStopped() {
+    FetchSizeTuner tuner = new FetchSizeTuner(1);
+    tuner.recordRowsRead("SELECT a FROM t", 100);
+
+    // While "SELECT a" keeps running, it keeps its place.
+    for (int i = 0; i < 5; i++) {
+      tuner.recordRowsRead("SELECT b FROM t", 100);
+      assertThat(tuner.fetchSize("SELECT a FROM t")).isEqualTo(101);
+    }
+    assertThat(tuner.fetchSize("SELECT b FROM t")).isEqualTo(0);
+
+    // Once it stops, a sweep without it running evicts it, and "SELECT b" takes its place.
+    tuner.recordRowsRead("SELECT b FROM t", 100);
+    tuner.recordRowsRead("SELECT b FROM t", 100);
+    tuner.recordRowsRead("SELECT b FROM t", 100);
+    assertThat(tuner.fetchSize("SELECT a FROM t")).isEqualTo(0);
+    assertThat(tuner.fetchSize("SELECT b FROM t")).isEqualTo(101);
+  }
+}
@@ -0,0 +1,94 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.integration.jdbc.LeakDetector.Resource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link LeakDetector}. */
+@RunWith(JUnit4.class)
+public class LeakDetectorTest {
+
+  @Test
+  public void close_stopsTracking() {
+    LeakDetector detector = new LeakDetector();
+    LeakDetector.Tracker tracker = detector.track(new Object(), Resource.STATEMENT, () -> false);
+    assertThat(detector.openCount()).isEqualTo(1);
+    tracker.close();
+    tracker.close();
+    assertThat(detector.openCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void expungeCollected_reportsUnclosedWrappers() throws InterruptedException {
+    LeakDetector detector = new LeakDetector();
+    detector.setStackSampleRate(1);
+    detector.track(new Object(), Resource.RESULT_SET, () -> false);
+    assertThat(collectAndExpunge(detector)).isEqualTo(1);
+    assertThat(detector.openCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void expungeCollected_ignoresWrappedObjectsClosedOtherwise() throws InterruptedException {
+    LeakDetector detector = new LeakDetector();
+    // E.g. a ResultSet closed along with its Statement.
+    detector.track(new Object(), Resource.RESULT_SET, () -> true);
+    assertThat(collectAndExpunge(detector)).isEqualTo(0);
+    assertThat(detector.openCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void close_recordsLatestOpenCountLast() throws InterruptedException {
+    long[] lastRecorded = {-1};
+    LeakDetector detector =
+        new LeakDetector(
+            (resource, open) -> {
+              // Only ever called by one thread at a time, so that the last value wins.
+              lastRecorded[0] = open;
+            });
+    Thread[] threads = new Thread[8];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 1000; i++) {
+                  detector.track(new Object(), Resource.STATEMENT, () -> true).close();
+                }
+              });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(detector.openCount()).isEqualTo(0);
+    assertThat(lastRecorded[0]).isEqualTo(0);
+  }
+
+  private static int collectAndExpunge(LeakDetector detector) throws InterruptedException {
+    for (int i = 0; i < 50 && detector.openCount() > 0; i++) {
+      System.gc();
+      Thread.sleep(10);
+      int leaks = detector.expungeCollected(Integer.MAX_VALUE);
+      if (leaks > 0) {
+        return leaks;
+      }
+    }
+    return 0;
+  }
+}
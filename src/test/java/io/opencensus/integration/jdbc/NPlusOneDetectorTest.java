@@ -0,0 +1,84 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.trace.SpanId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link NPlusOneDetector}. */
+@RunWith(JUnit4.class)
+public class NPlusOneDetectorTest {
+  private static final SpanId PARENT = SpanId.fromLowerBase16("00f067aa0ba902b7");
+  private static final SpanId OTHER_PARENT = SpanId.fromLowerBase16("00f067aa0ba902b8");
+
+  @Test
+  public void recordExecution_countsPerFingerprint() {
+    NPlusOneDetector detector = new NPlusOneDetector(10);
+    assertThat(detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?")).isEqualTo(1);
+    assertThat(detector.recordExecution(PARENT, "SELECT * FROM b WHERE id = ?")).isEqualTo(1);
+    assertThat(detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?")).isEqualTo(2);
+    assertThat(detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?")).isEqualTo(3);
+  }
+
+  @Test
+  public void recordExecution_countsInterleavedParentsSeparately() {
+    NPlusOneDetector detector = new NPlusOneDetector(10);
+    detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?");
+    detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?");
+    assertThat(detector.recordExecution(OTHER_PARENT, "SELECT * FROM a WHERE id = ?"))
+        .isEqualTo(1);
+    // Returning to the first parent resumes its counts.
+    assertThat(detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?")).isEqualTo(3);
+  }
+
+  @Test
+  public void recordExecution_countsParentAcrossThreads() throws InterruptedException {
+    NPlusOneDetector detector = new NPlusOneDetector(10);
+    detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?");
+    Thread other =
+        new Thread(() -> detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?"));
+    other.start();
+    other.join();
+    assertThat(detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?")).isEqualTo(3);
+  }
+
+  @Test
+  public void recordExecution_boundsTrackedFingerprints() {
+    NPlusOneDetector detector = new NPlusOneDetector(10);
+    for (int i = 0; i < NPlusOneDetector.MAX_FINGERPRINTS; i++) {
+      assertThat(detector.recordExecution(PARENT, "SELECT * FROM t" + i)).isEqualTo(1);
+    }
+    assertThat(detector.recordExecution(PARENT, "SELECT * FROM untracked")).isEqualTo(0);
+    assertThat(detector.recordExecution(PARENT, "SELECT * FROM t0")).isEqualTo(2);
+    assertThat(detector.droppedExecutions()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordExecution_countsNewParentsAfterOthersCameAndWent() {
+    NPlusOneDetector detector = new NPlusOneDetector(16);
+    for (long id = 1; id <= 1000; id++) {
+      SpanId ended = SpanId.fromLowerBase16(String.format("%016x", id));
+      assertThat(detector.recordExecution(ended, "SELECT * FROM a WHERE id = ?")).isEqualTo(1);
+    }
+    // The parents that came and went make room for the new one, which is counted from the start.
+    for (int i = 1; i <= NPlusOneDetector.DEFAULT_THRESHOLD; i++) {
+      assertThat(detector.recordExecution(PARENT, "SELECT * FROM a WHERE id = ?")).isEqualTo(i);
+    }
+  }
+}
@@ -17,14 +17,20 @@ package io.opencensus.integration.jdbc;
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 
+import io.opencensus.integration.jdbc.Observability.InstrumentationLevel;
+import io.opencensus.integration.jdbc.Observability.PreparedSql;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
 import io.opencensus.integration.jdbc.Observability.TrackingOperation;
+import io.opencensus.integration.jdbc.Observability.TransactionOperation;
 import io.opencensus.stats.Aggregation.Distribution;
 import io.opencensus.stats.BucketBoundaries;
 import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.Measure.MeasureLong;
 import io.opencensus.stats.MeasureMap;
 import io.opencensus.stats.StatsRecorder;
 import io.opencensus.stats.View;
@@ -40,6 +46,9 @@ import io.opencensus.trace.SpanBuilder;
 import io.opencensus.trace.Status;
 import io.opencensus.trace.Tracer;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -74,6 +83,7 @@ public class ObservabilityTest {
     Mockito.when(mockStatsRecorder.newMeasureMap()).thenReturn(mockMeasureMap);
     Mockito.when(mockMeasureMap.put(any(MeasureDouble.class), anyDouble()))
         .thenReturn(mockMeasureMap);
+    Mockito.when(mockMeasureMap.put(any(MeasureLong.class), anyLong())).thenReturn(mockMeasureMap);
     Mockito.doNothing().when(mockMeasureMap).record(any(TagContext.class));
     Mockito.when(mockTracer.spanBuilderWithExplicitParent(anyString(), anyObject()))
         .thenReturn(mockSpanBuilder);
@@ -141,6 +151,72 @@ public class ObservabilityTest {
         .registerView(Observability.SQL_CLIENT_CALLS_VIEW);
     Mockito.verify(mockViewManager, Mockito.times(1))
         .registerView(Observability.SQL_CLIENT_LATENCY_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_COUNTED_CALLS_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_CONNECTION_ACQUIRE_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_TRANSACTION_DURATION_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_BATCH_SIZE_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_ROWS_AFFECTED_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_ROWS_RETURNED_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_FETCH_SIZE_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_STATEMENT_CACHE_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_N_PLUS_ONE_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_OPEN_RESOURCES_VIEW);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_LEAKS_VIEW);
+  }
+
+  @Test
+  public void registerQueryViews() {
+    Observability.registerQueryViews(mockViewManager);
+    Mockito.verify(mockViewManager, Mockito.times(1))
+        .registerView(Observability.SQL_CLIENT_QUERY_LATENCY_VIEW);
+  }
+
+  @Test
+  public void prepareSql() {
+    PreparedSql plain =
+        Observability.prepareSql(EnumSet.noneOf(TraceOption.class), "SELECT * FROM t WHERE id = 1");
+    assertThat(plain.sqlValue).isNull();
+    assertThat(plain.sqlFingerprintValue).isNull();
+    assertThat(plain.fingerprint()).isEqualTo("SELECT * FROM t WHERE id = ?");
+
+    PreparedSql annotated =
+        Observability.prepareSql(
+            EnumSet.of(
+                TraceOption.ANNOTATE_TRACES_WITH_SQL,
+                TraceOption.ANNOTATE_TRACES_WITH_SQL_FINGERPRINT),
+            "SELECT * FROM t WHERE id = 1");
+    assertThat(annotated.sqlValue)
+        .isEqualTo(AttributeValue.stringAttributeValue("SELECT * FROM t WHERE id = 1"));
+    assertThat(annotated.sqlFingerprintValue)
+        .isEqualTo(AttributeValue.stringAttributeValue("SELECT * FROM t WHERE id = ?"));
+
+    assertThat(Observability.prepareSql(EnumSet.of(TraceOption.ANNOTATE_TRACES_WITH_SQL), null))
+        .isSameAs(PreparedSql.NONE);
+  }
+
+  @Test
+  public void shouldAggregateResultSetFetch() {
+    assertThat(Observability.shouldAggregateResultSetFetch(EnumSet.noneOf(TraceOption.class)))
+        .isFalse();
+    assertThat(
+            Observability.shouldAggregateResultSetFetch(
+                EnumSet.of(TraceOption.ANNOTATE_TRACES_WITH_SQL)))
+        .isFalse();
+    assertThat(
+            Observability.shouldAggregateResultSetFetch(
+                EnumSet.of(TraceOption.AGGREGATE_RESULT_SET_FETCH)))
+        .isTrue();
   }
 
   @Test
@@ -154,6 +230,23 @@ public class ObservabilityTest {
         .putAttribute("sql", AttributeValue.stringAttributeValue("update"));
   }
 
+  @Test
+  public void trackingOperation_withSqlFingerprint() {
+    new TrackingOperation(
+        "method",
+        null,
+        AttributeValue.stringAttributeValue("SELECT * FROM t WHERE id = ?"),
+        null,
+        false,
+        mockStatsRecorder,
+        mockTagger,
+        mockTracer);
+    Mockito.verify(mockSpan, Mockito.never()).putAttribute(eq("sql"), any(AttributeValue.class));
+    Mockito.verify(mockSpan, Mockito.times(1))
+        .putAttribute(
+            "sql_fingerprint", AttributeValue.stringAttributeValue("SELECT * FROM t WHERE id = ?"));
+  }
+
   @Test
   public void trackingOperation_end() {
     TrackingOperation trackingOperation =
@@ -171,6 +264,193 @@ public class ObservabilityTest {
     Mockito.verify(mockSpan, Mockito.times(1)).end();
   }
 
+  @Test
+  public void trackingOperation_end_recordLatencyAlsoAs() {
+    TrackingOperation trackingOperation =
+        new TrackingOperation("method", null, mockStatsRecorder, mockTagger, mockTracer);
+    trackingOperation.recordLatencyAlsoAs(Observability.MEASURE_CONNECTION_ACQUIRE_LATENCY_MS);
+    trackingOperation.end();
+    Mockito.verify(mockMeasureMap, Mockito.times(1))
+        .put(eq(Observability.MEASURE_LATENCY_MS), anyDouble());
+    Mockito.verify(mockMeasureMap, Mockito.times(1))
+        .put(eq(Observability.MEASURE_CONNECTION_ACQUIRE_LATENCY_MS), anyDouble());
+    Mockito.verify(mockMeasureMap, Mockito.times(2)).record(any(TagContext.class));
+  }
+
+  @Test
+  public void trackingOperation_end_recordBatchSize() {
+    TrackingOperation trackingOperation =
+        new TrackingOperation("method", null, mockStatsRecorder, mockTagger, mockTracer);
+    trackingOperation.recordBatchSize(10);
+    trackingOperation.recordRowsAffected(7);
+    trackingOperation.end();
+    Mockito.verify(mockSpan, Mockito.times(1))
+        .putAttribute("batch_size", AttributeValue.longAttributeValue(10));
+    Mockito.verify(mockSpan, Mockito.times(1))
+        .putAttribute("rows_affected", AttributeValue.longAttributeValue(7));
+    Mockito.verify(mockMeasureMap, Mockito.times(1))
+        .put(eq(Observability.MEASURE_LATENCY_MS), anyDouble());
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_BATCH_SIZE, 10L);
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_ROWS_AFFECTED, 7L);
+    Mockito.verify(mockMeasureMap, Mockito.times(2)).record(any(TagContext.class));
+  }
+
+  @Test
+  public void trackingOperation_statsOnly_hasNoSpan() {
+    Observability.setInstrumentationLevel("statsOnlyMethod", InstrumentationLevel.STATS_ONLY);
+    try {
+      TrackingOperation trackingOperation =
+          new TrackingOperation(
+              "statsOnlyMethod", "update", true, mockStatsRecorder, mockTagger, mockTracer);
+      trackingOperation.withSpan().close();
+      trackingOperation.recordRowsAffected(3);
+      trackingOperation.recordException(new IllegalArgumentException("message"));
+      trackingOperation.end();
+      Mockito.verify(mockTracer, Mockito.never())
+          .spanBuilderWithExplicitParent(anyString(), any(Span.class));
+      Mockito.verify(mockMeasureMap, Mockito.times(1))
+          .put(eq(Observability.MEASURE_LATENCY_MS), anyDouble());
+      Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_ROWS_AFFECTED, 3L);
+    } finally {
+      Observability.setInstrumentationLevel("statsOnlyMethod", InstrumentationLevel.TRACE);
+    }
+  }
+
+  @Test
+  public void trackingOperation_countOnly_onlyCounts() {
+    Observability.setInstrumentationLevel("countOnlyMethod", InstrumentationLevel.COUNT_ONLY);
+    try {
+      TrackingOperation trackingOperation =
+          new TrackingOperation(
+              "countOnlyMethod", "update", true, mockStatsRecorder, mockTagger, mockTracer);
+      trackingOperation.withSpan().close();
+      trackingOperation.recordRowsAffected(3);
+      trackingOperation.recordException(new IllegalArgumentException("message"));
+      trackingOperation.end();
+      Mockito.verify(mockTracer, Mockito.never())
+          .spanBuilderWithExplicitParent(anyString(), any(Span.class));
+      Mockito.verify(mockMeasureMap, Mockito.never())
+          .put(eq(Observability.MEASURE_LATENCY_MS), anyDouble());
+      Mockito.verify(mockMeasureMap, Mockito.never()).put(Observability.MEASURE_ROWS_AFFECTED, 3L);
+      Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_COUNTED_CALLS, 1L);
+      Mockito.verify(mockMeasureMap, Mockito.times(1)).record(any(TagContext.class));
+    } finally {
+      Observability.setInstrumentationLevel("countOnlyMethod", InstrumentationLevel.TRACE);
+    }
+  }
+
+  @Test
+  public void createRoundtripTrackingSpan_passThrough() {
+    Observability.setInstrumentationLevel(
+        "java.sql.ResultSet.passThrough", InstrumentationLevel.PASS_THROUGH);
+    try {
+      TrackingOperation trackingOperation =
+          Observability.createRoundtripTrackingSpan(
+              "java.sql.ResultSet.passThrough",
+              EnumSet.of(TraceOption.ANNOTATE_TRACES_WITH_SQL),
+              "SELECT 1");
+      assertThat(trackingOperation).isSameAs(TrackingOperation.DISABLED);
+      trackingOperation.withSpan().close();
+      trackingOperation.recordBatchSize(10);
+      trackingOperation.putAttribute("rows", AttributeValue.longAttributeValue(1));
+      trackingOperation.recordException(new IllegalArgumentException("message"));
+      trackingOperation.end();
+    } finally {
+      Observability.setInstrumentationLevel(
+          "java.sql.ResultSet.passThrough", InstrumentationLevel.TRACE);
+    }
+    TrackingOperation trackingOperation =
+        Observability.createRoundtripTrackingSpan(
+            "java.sql.ResultSet.passThrough", EnumSet.noneOf(TraceOption.class));
+    assertThat(trackingOperation).isNotSameAs(TrackingOperation.DISABLED);
+    trackingOperation.end();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setInstrumentationLevel_null() {
+    Observability.setInstrumentationLevel("java.sql.ResultSet.next", null);
+  }
+
+  @Test
+  public void trackingOperation_tracesOnly_recordsNoStats() {
+    Observability.setInstrumentationLevel("tracesOnlyMethod", InstrumentationLevel.TRACES_ONLY);
+    try {
+      TrackingOperation trackingOperation =
+          new TrackingOperation(
+              "tracesOnlyMethod", "update", mockStatsRecorder, mockTagger, mockTracer);
+      trackingOperation.recordRowsAffected(3);
+      trackingOperation.recordException(new IllegalArgumentException("message"));
+      trackingOperation.end();
+      Mockito.verify(mockTracer, Mockito.times(1))
+          .spanBuilderWithExplicitParent(eq("tracesOnlyMethod"), any(Span.class));
+      Mockito.verify(mockSpan, Mockito.times(1)).end();
+      Mockito.verify(mockStatsRecorder, Mockito.never()).newMeasureMap();
+    } finally {
+      Observability.setInstrumentationLevel("tracesOnlyMethod", InstrumentationLevel.TRACE);
+    }
+  }
+
+  @Test
+  public void setGlobalInstrumentationLevel_capsMethodLevels() {
+    Observability.setInstrumentationLevel("cappedMethod", InstrumentationLevel.STATS_ONLY);
+    try {
+      Observability.setGlobalInstrumentationLevel(InstrumentationLevel.TRACES_ONLY);
+      assertThat(Observability.methodTags("cappedMethod").instrumentationLevel)
+          .isEqualTo(InstrumentationLevel.PASS_THROUGH);
+      assertThat(
+              Observability.createRoundtripTrackingSpan(
+                  "cappedMethod", EnumSet.noneOf(TraceOption.class)))
+          .isSameAs(TrackingOperation.DISABLED);
+      // Methods registered afterwards are capped too.
+      assertThat(Observability.methodTags("uncappedMethod").instrumentationLevel)
+          .isEqualTo(InstrumentationLevel.TRACES_ONLY);
+
+      Observability.setGlobalInstrumentationLevel(InstrumentationLevel.PASS_THROUGH);
+      assertThat(
+              Observability.createRoundtripTrackingSpan(
+                  "uncappedMethod", EnumSet.noneOf(TraceOption.class)))
+          .isSameAs(TrackingOperation.DISABLED);
+    } finally {
+      Observability.setGlobalInstrumentationLevel(InstrumentationLevel.TRACE);
+      Observability.setInstrumentationLevel("cappedMethod", InstrumentationLevel.TRACE);
+    }
+    assertThat(Observability.methodTags("uncappedMethod").instrumentationLevel)
+        .isEqualTo(InstrumentationLevel.TRACE);
+  }
+
+  @Test
+  public void instrumentationLevel_cappedBy() {
+    for (InstrumentationLevel level : InstrumentationLevel.values()) {
+      assertThat(level.cappedBy(InstrumentationLevel.TRACE)).isEqualTo(level);
+      assertThat(level.cappedBy(InstrumentationLevel.PASS_THROUGH))
+          .isEqualTo(InstrumentationLevel.PASS_THROUGH);
+    }
+    assertThat(InstrumentationLevel.TRACE.cappedBy(InstrumentationLevel.STATS_ONLY))
+        .isEqualTo(InstrumentationLevel.STATS_ONLY);
+    assertThat(InstrumentationLevel.STATS_ONLY.cappedBy(InstrumentationLevel.TRACES_ONLY))
+        .isEqualTo(InstrumentationLevel.PASS_THROUGH);
+    assertThat(InstrumentationLevel.TRACE.cappedBy(InstrumentationLevel.COUNT_ONLY))
+        .isEqualTo(InstrumentationLevel.COUNT_ONLY);
+    assertThat(InstrumentationLevel.COUNT_ONLY.cappedBy(InstrumentationLevel.TRACES_ONLY))
+        .isEqualTo(InstrumentationLevel.PASS_THROUGH);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setGlobalInstrumentationLevel_null() {
+    Observability.setGlobalInstrumentationLevel(null);
+  }
+
+  @Test
+  public void rowsAffected() {
+    assertThat(Observability.rowsAffected(new int[0])).isEqualTo(0L);
+    int[] updateCounts = {
+      2, java.sql.Statement.SUCCESS_NO_INFO, 0, 3, java.sql.Statement.EXECUTE_FAILED
+    };
+    assertThat(Observability.rowsAffected(updateCounts)).isEqualTo(5L);
+    assertThat(Observability.rowsAffected(new long[] {3_000_000_000L, 1L, -2L}))
+        .isEqualTo(3_000_000_001L);
+  }
+
   @Test
   public void trackingOperation_end_recordException() {
     TrackingOperation trackingOperation =
@@ -182,7 +462,7 @@ public class ObservabilityTest {
     Mockito.verify(mockTagContextBuilder, Mockito.times(1))
         .put(eq(Observability.JAVA_SQL_METHOD), eq(TagValue.create("method")));
     Mockito.verify(mockTagContextBuilder, Mockito.times(1))
-        .put(eq(Observability.JAVA_SQL_ERROR), eq(TagValue.create(exception.toString())));
+        .put(eq(Observability.JAVA_SQL_ERROR), eq(TagValue.create("IllegalArgumentException")));
     Mockito.verify(mockTagContextBuilder, Mockito.times(1))
         .put(eq(Observability.JAVA_SQL_STATUS), eq(Observability.VALUE_ERROR));
     Mockito.verify(mockSpan, Mockito.times(1))
@@ -193,4 +473,246 @@ public class ObservabilityTest {
     Mockito.verify(mockMeasureMap, Mockito.times(1)).record(any(TagContext.class));
     Mockito.verify(mockSpan, Mockito.times(1)).end();
   }
+
+  @Test
+  public void transactionOperation_end() {
+    TransactionOperation transaction =
+        new TransactionOperation(mockStatsRecorder, mockTagger, mockTracer);
+    Mockito.verify(mockTracer, Mockito.times(1))
+        .spanBuilderWithExplicitParent(eq("java.sql.Connection.transaction"), any(Span.class));
+    transaction.recordStatement();
+    transaction.recordRowsAffected(3);
+    transaction.recordStatement();
+    transaction.recordRowsAffected(java.sql.Statement.SUCCESS_NO_INFO);
+    transaction.end(Observability.VALUE_COMMIT, null);
+
+    Mockito.verify(mockSpan, Mockito.times(1))
+        .putAttribute("statements", AttributeValue.longAttributeValue(2));
+    Mockito.verify(mockSpan, Mockito.times(1))
+        .putAttribute("rows_affected", AttributeValue.longAttributeValue(3));
+    Mockito.verify(mockSpan, Mockito.times(1))
+        .putAttribute("outcome", AttributeValue.stringAttributeValue("commit"));
+    Mockito.verify(mockSpan, Mockito.never()).setStatus(any(Status.class));
+    Mockito.verify(mockSpan, Mockito.times(1)).end();
+    Mockito.verify(mockTagContextBuilder, Mockito.times(1))
+        .put(eq(Observability.JAVA_SQL_OUTCOME), eq(Observability.VALUE_COMMIT));
+    Mockito.verify(mockTagContextBuilder, Mockito.times(1))
+        .put(eq(Observability.JAVA_SQL_STATUS), eq(Observability.VALUE_OK));
+    Mockito.verify(mockMeasureMap, Mockito.times(1))
+        .put(eq(Observability.MEASURE_TRANSACTION_LATENCY_MS), anyDouble());
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).record(any(TagContext.class));
+  }
+
+  @Test
+  public void transactionOperation_end_withException() {
+    TransactionOperation transaction =
+        new TransactionOperation(mockStatsRecorder, mockTagger, mockTracer);
+    IllegalStateException exception = new IllegalStateException("message");
+    transaction.end(Observability.VALUE_ROLLBACK, exception);
+
+    Mockito.verify(mockSpan, Mockito.times(1))
+        .setStatus(eq(Status.UNKNOWN.withDescription(exception.toString())));
+    Mockito.verify(mockSpan, Mockito.times(1)).end();
+    Mockito.verify(mockTagContextBuilder, Mockito.times(1))
+        .put(eq(Observability.JAVA_SQL_OUTCOME), eq(Observability.VALUE_ROLLBACK));
+    Mockito.verify(mockTagContextBuilder, Mockito.times(1))
+        .put(eq(Observability.JAVA_SQL_STATUS), eq(Observability.VALUE_ERROR));
+  }
+
+  @Test
+  public void transactionOperation_globalTracesOnly_recordsNoStats() {
+    Observability.setGlobalInstrumentationLevel(InstrumentationLevel.TRACES_ONLY);
+    try {
+      TransactionOperation transaction =
+          new TransactionOperation(mockStatsRecorder, mockTagger, mockTracer);
+      transaction.end(Observability.VALUE_COMMIT, null);
+      Mockito.verify(mockSpan, Mockito.times(1)).end();
+      Mockito.verify(mockStatsRecorder, Mockito.never()).newMeasureMap();
+    } finally {
+      Observability.setGlobalInstrumentationLevel(InstrumentationLevel.TRACE);
+    }
+  }
+
+  @Test
+  public void transactionOperation_globalStatsOnly_hasNoSpan() {
+    Observability.setGlobalInstrumentationLevel(InstrumentationLevel.STATS_ONLY);
+    try {
+      TransactionOperation transaction =
+          new TransactionOperation(mockStatsRecorder, mockTagger, mockTracer);
+      transaction.withSpan().close();
+      transaction.end(Observability.VALUE_COMMIT, null);
+      Mockito.verify(mockTracer, Mockito.never())
+          .spanBuilderWithExplicitParent(anyString(), any(Span.class));
+      Mockito.verify(mockMeasureMap, Mockito.times(1))
+          .put(eq(Observability.MEASURE_TRANSACTION_LATENCY_MS), anyDouble());
+    } finally {
+      Observability.setGlobalInstrumentationLevel(InstrumentationLevel.TRACE);
+    }
+  }
+
+  @Test
+  public void transactionOperation_statsDisabledBeforeEnd_recordsNoStats() {
+    TransactionOperation transaction =
+        new TransactionOperation(mockStatsRecorder, mockTagger, mockTracer);
+    Observability.setGlobalInstrumentationLevel(InstrumentationLevel.PASS_THROUGH);
+    try {
+      transaction.end(Observability.VALUE_COMMIT, null);
+      // The span was started, so it is still ended.
+      Mockito.verify(mockSpan, Mockito.times(1)).end();
+      Mockito.verify(mockStatsRecorder, Mockito.never()).newMeasureMap();
+    } finally {
+      Observability.setGlobalInstrumentationLevel(InstrumentationLevel.TRACE);
+    }
+  }
+
+  @Test
+  public void trackingOperation_deferred_fastCallHasNoSpan() {
+    Observability.setDeferredSpanThreshold(1, TimeUnit.HOURS);
+    try {
+      TrackingOperation trackingOperation =
+          new TrackingOperation(
+              "method", "update", true, mockStatsRecorder, mockTagger, mockTracer);
+      trackingOperation.withSpan().close();
+      trackingOperation.putAttribute("rows", AttributeValue.longAttributeValue(1));
+      trackingOperation.end();
+      Mockito.verify(mockTracer, Mockito.never())
+          .spanBuilderWithExplicitParent(anyString(), any(Span.class));
+      Mockito.verify(mockMeasureMap, Mockito.times(1)).record(any(TagContext.class));
+    } finally {
+      Observability.setDeferredSpanThreshold(1, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Test
+  public void trackingOperation_deferred_failedCallHasSpan() {
+    Observability.setDeferredSpanThreshold(1, TimeUnit.HOURS);
+    try {
+      TrackingOperation trackingOperation =
+          new TrackingOperation(
+              "method", "update", true, mockStatsRecorder, mockTagger, mockTracer);
+      IllegalArgumentException exception = new IllegalArgumentException("message");
+      trackingOperation.putAttribute("rows", AttributeValue.longAttributeValue(1));
+      trackingOperation.recordException(exception);
+      trackingOperation.end();
+      Mockito.verify(mockTracer, Mockito.times(1))
+          .spanBuilderWithExplicitParent(eq("method"), any(Span.class));
+      Mockito.verify(mockSpan, Mockito.times(1))
+          .putAttribute("sql", AttributeValue.stringAttributeValue("update"));
+      Mockito.verify(mockSpan, Mockito.times(1))
+          .putAttribute(eq("latency_ns"), any(AttributeValue.class));
+      Mockito.verify(mockSpan, Mockito.times(1))
+          .putAttributes(Collections.singletonMap("rows", AttributeValue.longAttributeValue(1)));
+      Mockito.verify(mockSpan, Mockito.times(1))
+          .setStatus(eq(Status.UNKNOWN.withDescription(exception.toString())));
+      Mockito.verify(mockSpan, Mockito.times(1)).end();
+    } finally {
+      Observability.setDeferredSpanThreshold(1, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Test
+  public void trackingOperation_deferred_slowCallHasSpan() {
+    Observability.setDeferredSpanThreshold(0, TimeUnit.NANOSECONDS);
+    try {
+      new TrackingOperation("method", null, true, mockStatsRecorder, mockTagger, mockTracer).end();
+      Mockito.verify(mockTracer, Mockito.times(1))
+          .spanBuilderWithExplicitParent(eq("method"), any(Span.class));
+      Mockito.verify(mockSpan, Mockito.times(1)).end();
+    } finally {
+      Observability.setDeferredSpanThreshold(1, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Test
+  public void trackingOperation_end_memoizesTagContextsWithoutAmbientTags() {
+    Mockito.when(mockTagger.getCurrentTagContext()).thenReturn(mockTagContext);
+    Mockito.when(mockTagger.empty()).thenReturn(mockTagContext);
+    Mockito.when(mockTagger.emptyBuilder()).thenReturn(mockTagContextBuilder);
+    for (int i = 0; i < 3; i++) {
+      new TrackingOperation("memoizedMethod", null, mockStatsRecorder, mockTagger, mockTracer)
+          .end();
+    }
+    Mockito.verify(mockTagger, Mockito.never()).currentBuilder();
+    Mockito.verify(mockTagger, Mockito.times(1)).emptyBuilder();
+    Mockito.verify(mockTagContextBuilder, Mockito.times(1))
+        .put(eq(Observability.JAVA_SQL_METHOD), eq(TagValue.create("memoizedMethod")));
+    Mockito.verify(mockMeasureMap, Mockito.times(3)).record(mockTagContext);
+  }
+
+  @Test
+  public void methodTags_areInterned() {
+    assertThat(Observability.methodTags("java.sql.Statement.execute"))
+        .isSameAs(Observability.methodTags("java.sql.Statement.execute"));
+    assertThat(Observability.methodTags("java.sql.Statement.execute").methodValue)
+        .isEqualTo(TagValue.create("java.sql.Statement.execute"));
+  }
+
+  // Buckets (-inf, 1), [1, 10), [10, 100) and [100, +inf).
+  private static final BucketBoundaries HISTOGRAM_BOUNDARIES =
+      BucketBoundaries.create(Arrays.asList(1.0, 10.0, 100.0));
+
+  @Test
+  public void latencyHistogram_bucketIndex() {
+    LatencyHistogram histogram = new LatencyHistogram(HISTOGRAM_BOUNDARIES);
+    assertThat(histogram.bucketIndex(-1.0)).isEqualTo(0);
+    assertThat(histogram.bucketIndex(0.5)).isEqualTo(0);
+    assertThat(histogram.bucketIndex(1.0)).isEqualTo(1);
+    assertThat(histogram.bucketIndex(9.99)).isEqualTo(1);
+    assertThat(histogram.bucketIndex(10.0)).isEqualTo(2);
+    assertThat(histogram.bucketIndex(1e9)).isEqualTo(3);
+  }
+
+  @Test
+  public void latencyHistogram_flush() {
+    LatencyHistogram histogram = new LatencyHistogram(HISTOGRAM_BOUNDARIES);
+    histogram.record(2.0);
+    histogram.record(4.0);
+    histogram.record(2.0);
+    histogram.record(4.0);
+    histogram.record(20.0);
+    histogram.record(30.0);
+    histogram.record(40.0);
+    histogram.flush(mockStatsRecorder, Observability.MEASURE_LATENCY_MS, mockTagContext);
+
+    // The replayed values keep the count, the sum and the spread of each bucket, and each distinct
+    // value is put once.
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_LATENCY_MS, 2.0);
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_LATENCY_MS, 4.0);
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_LATENCY_MS, 20.0);
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_LATENCY_MS, 30.0);
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_LATENCY_MS, 40.0);
+    Mockito.verify(mockMeasureMap, Mockito.times(7)).record(mockTagContext);
+    Mockito.verify(mockStatsRecorder, Mockito.times(5)).newMeasureMap();
+
+    // Flushing resets the histogram.
+    histogram.flush(mockStatsRecorder, Observability.MEASURE_LATENCY_MS, mockTagContext);
+    Mockito.verify(mockStatsRecorder, Mockito.times(5)).newMeasureMap();
+  }
+
+  @Test
+  public void latencyHistogram_flushSameValues() {
+    LatencyHistogram histogram = new LatencyHistogram(HISTOGRAM_BOUNDARIES);
+    for (int i = 0; i < 1000; i++) {
+      histogram.record(5.0);
+    }
+    histogram.flush(mockStatsRecorder, Observability.MEASURE_LATENCY_MS, mockTagContext);
+    Mockito.verify(mockStatsRecorder, Mockito.times(1)).newMeasureMap();
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_LATENCY_MS, 5.0);
+    Mockito.verify(mockMeasureMap, Mockito.times(1000)).record(mockTagContext);
+  }
+
+  @Test
+  public void latencyHistogram_flushKeepsValuesInTheirBucket() {
+    LatencyHistogram histogram = new LatencyHistogram(HISTOGRAM_BOUNDARIES);
+    // The spread of [1, 1, 1, 9] around its mean 3 is a deviation of 3.46, which would replay
+    // values below the bucket, so the deviation is capped by the lower bound of the bucket.
+    histogram.record(1.0);
+    histogram.record(1.0);
+    histogram.record(1.0);
+    histogram.record(9.0);
+    histogram.flush(mockStatsRecorder, Observability.MEASURE_LATENCY_MS, mockTagContext);
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_LATENCY_MS, 1.0);
+    Mockito.verify(mockMeasureMap, Mockito.times(1)).put(Observability.MEASURE_LATENCY_MS, 5.0);
+    Mockito.verify(mockMeasureMap, Mockito.times(4)).record(mockTagContext);
+  }
 }
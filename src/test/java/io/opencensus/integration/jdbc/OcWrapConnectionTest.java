@@ -0,0 +1,301 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import io.opencensus.integration.jdbc.Observability.InstrumentationLevel;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.integration.jdbc.Observability.TransactionOperation;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/** Tests for {@link OcWrapConnection}. */
+@RunWith(JUnit4.class)
+public class OcWrapConnectionTest {
+
+  @Mock private Connection mockConnection;
+
+  private OcWrapConnection connection;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    connection = new OcWrapConnection(mockConnection, EnumSet.noneOf(TraceOption.class));
+  }
+
+  @Test
+  public void beginStatement_withAutoCommit() throws SQLException {
+    Mockito.when(mockConnection.getAutoCommit()).thenReturn(true);
+    assertThat(connection.beginStatement()).isNull();
+    assertThat(connection.beginStatement()).isNull();
+    // The autocommit mode is only asked to the driver once.
+    Mockito.verify(mockConnection, Mockito.times(1)).getAutoCommit();
+  }
+
+  @Test
+  public void beginStatement_startsTransactionLazily() throws SQLException {
+    connection.setAutoCommit(false);
+    Mockito.verify(mockConnection, Mockito.times(1)).setAutoCommit(false);
+
+    TransactionOperation transaction = connection.beginStatement();
+    assertThat(transaction).isNotNull();
+    assertThat(connection.beginStatement()).isSameAs(transaction);
+    Mockito.verify(mockConnection, Mockito.never()).getAutoCommit();
+  }
+
+  @Test
+  public void beginStatement_globalCountOnly_startsNoTransaction() throws SQLException {
+    connection.setAutoCommit(false);
+    Observability.setGlobalInstrumentationLevel(InstrumentationLevel.COUNT_ONLY);
+    try {
+      assertThat(connection.beginStatement()).isNull();
+    } finally {
+      Observability.setGlobalInstrumentationLevel(InstrumentationLevel.TRACE);
+    }
+    assertThat(connection.beginStatement()).isNotNull();
+  }
+
+  @Test
+  public void commit_endsTransaction() throws SQLException {
+    connection.setAutoCommit(false);
+    TransactionOperation transaction = connection.beginStatement();
+    connection.commit();
+    Mockito.verify(mockConnection, Mockito.times(1)).commit();
+
+    // The next statement starts the next transaction.
+    TransactionOperation next = connection.beginStatement();
+    assertThat(next).isNotNull();
+    assertThat(next).isNotSameAs(transaction);
+  }
+
+  @Test
+  public void rollback_endsTransaction() throws SQLException {
+    connection.setAutoCommit(false);
+    TransactionOperation transaction = connection.beginStatement();
+    connection.rollback();
+    Mockito.verify(mockConnection, Mockito.times(1)).rollback();
+    assertThat(connection.beginStatement()).isNotSameAs(transaction);
+  }
+
+  @Test
+  public void setAutoCommit_true_endsTransaction() throws SQLException {
+    connection.setAutoCommit(false);
+    assertThat(connection.beginStatement()).isNotNull();
+    connection.setAutoCommit(true);
+    assertThat(connection.beginStatement()).isNull();
+  }
+
+  @Test
+  public void failedCommit_endsTransaction() throws SQLException {
+    SQLException exception = new SQLException("serialization failure", "40001");
+    Mockito.doThrow(exception).when(mockConnection).commit();
+    connection.setAutoCommit(false);
+    TransactionOperation transaction = connection.beginStatement();
+    try {
+      connection.commit();
+      fail("commit should have thrown");
+    } catch (SQLException e) {
+      assertThat((Throwable) e).isSameAs(exception);
+    }
+    assertThat(connection.beginStatement()).isNotSameAs(transaction);
+  }
+
+  @Test
+  public void statements_reportToConnection() throws SQLException {
+    java.sql.Statement mockStatement = Mockito.mock(java.sql.Statement.class);
+    Mockito.when(mockConnection.createStatement()).thenReturn(mockStatement);
+    Mockito.when(mockStatement.executeUpdate("DELETE FROM t")).thenReturn(2);
+    connection.setAutoCommit(false);
+
+    java.sql.Statement statement = connection.createStatement();
+    assertThat(statement.executeUpdate("DELETE FROM t")).isEqualTo(2);
+    Mockito.verify(mockStatement, Mockito.times(1)).executeUpdate("DELETE FROM t");
+    assertThat(connection.beginStatement()).isNotNull();
+  }
+
+  @Test
+  public void prepareStatement_reusesClosedStatements() throws SQLException {
+    java.sql.PreparedStatement mockStatement = Mockito.mock(java.sql.PreparedStatement.class);
+    Mockito.when(mockConnection.prepareStatement("SELECT 1")).thenReturn(mockStatement);
+    OcWrapConnection cachingConnection =
+        new OcWrapConnection(mockConnection, EnumSet.of(TraceOption.CACHE_PREPARED_STATEMENTS));
+
+    java.sql.PreparedStatement statement = cachingConnection.prepareStatement("SELECT 1");
+    statement.setInt(1, 42);
+    statement.close();
+    assertThat(statement.isClosed()).isTrue();
+    Mockito.verify(mockStatement, Mockito.never()).close();
+    Mockito.verify(mockStatement, Mockito.times(1)).clearParameters();
+
+    java.sql.PreparedStatement reused = cachingConnection.prepareStatement("SELECT 1");
+    assertThat(reused.isClosed()).isFalse();
+    Mockito.verify(mockConnection, Mockito.times(1)).prepareStatement("SELECT 1");
+
+    // Statements that are still open aren't handed out twice.
+    cachingConnection.prepareStatement("SELECT 1");
+    Mockito.verify(mockConnection, Mockito.times(2)).prepareStatement("SELECT 1");
+
+    reused.close();
+    cachingConnection.close();
+    Mockito.verify(mockStatement, Mockito.times(1)).close();
+  }
+
+  @Test
+  public void prepareStatement_cachedStatementIsUnreachableOnceClosed() throws SQLException {
+    java.sql.PreparedStatement mockStatement = Mockito.mock(java.sql.PreparedStatement.class);
+    Mockito.when(mockConnection.prepareStatement("SELECT 1")).thenReturn(mockStatement);
+    OcWrapConnection cachingConnection =
+        new OcWrapConnection(mockConnection, EnumSet.of(TraceOption.CACHE_PREPARED_STATEMENTS));
+
+    java.sql.PreparedStatement statement = cachingConnection.prepareStatement("SELECT 1");
+    statement.close();
+    java.sql.PreparedStatement reused = cachingConnection.prepareStatement("SELECT 1");
+
+    // The closed handle no longer reaches the driver statement now used through reused.
+    try {
+      statement.executeQuery();
+      fail("Expected a SQLException");
+    } catch (SQLException e) {
+      assertThat(e.getMessage()).contains("closed");
+    }
+    try {
+      statement.setInt(1, 42);
+      fail("Expected a SQLException");
+    } catch (SQLException e) {
+      assertThat(e.getMessage()).contains("closed");
+    }
+    assertThat(statement.isClosed()).isTrue();
+    statement.close();
+    Mockito.verify(mockStatement, Mockito.never()).executeQuery();
+    Mockito.verify(mockStatement, Mockito.never()).setInt(1, 42);
+    Mockito.verify(mockStatement, Mockito.never()).close();
+
+    reused.setInt(1, 7);
+    Mockito.verify(mockStatement, Mockito.times(1)).setInt(1, 7);
+  }
+
+  @Test
+  public void prepareStatement_restoresChangedSettings() throws SQLException {
+    java.sql.PreparedStatement mockStatement = Mockito.mock(java.sql.PreparedStatement.class);
+    Mockito.when(mockConnection.prepareStatement("SELECT 1")).thenReturn(mockStatement);
+    Mockito.when(mockStatement.getLargeMaxRows()).thenReturn(5_000_000_000L);
+    Mockito.when(mockStatement.getQueryTimeout()).thenReturn(30);
+    Mockito.when(mockStatement.getMaxFieldSize()).thenReturn(0);
+    Mockito.when(mockStatement.getFetchDirection()).thenReturn(java.sql.ResultSet.FETCH_FORWARD);
+    Mockito.when(mockStatement.isPoolable()).thenReturn(true);
+    OcWrapConnection cachingConnection =
+        new OcWrapConnection(mockConnection, EnumSet.of(TraceOption.CACHE_PREPARED_STATEMENTS));
+
+    java.sql.PreparedStatement statement = cachingConnection.prepareStatement("SELECT 1");
+    statement.setMaxRows(10);
+    statement.setLargeMaxRows(20);
+    statement.setQueryTimeout(5);
+    statement.setQueryTimeout(6);
+    statement.setMaxFieldSize(100);
+    statement.setFetchDirection(java.sql.ResultSet.FETCH_REVERSE);
+    statement.setPoolable(false);
+    statement.setEscapeProcessing(false);
+    statement.close();
+
+    // Each setting is restored to its value before the first change.
+    Mockito.verify(mockStatement, Mockito.times(1)).getLargeMaxRows();
+    Mockito.verify(mockStatement, Mockito.times(1)).getQueryTimeout();
+    Mockito.verify(mockStatement, Mockito.times(1)).setLargeMaxRows(5_000_000_000L);
+    Mockito.verify(mockStatement, Mockito.times(1)).setQueryTimeout(30);
+    Mockito.verify(mockStatement, Mockito.times(1)).setMaxFieldSize(0);
+    Mockito.verify(mockStatement, Mockito.times(1))
+        .setFetchDirection(java.sql.ResultSet.FETCH_FORWARD);
+    Mockito.verify(mockStatement, Mockito.times(1)).setPoolable(true);
+    Mockito.verify(mockStatement, Mockito.times(1)).setEscapeProcessing(true);
+    Mockito.verify(mockStatement, Mockito.never()).close();
+
+    cachingConnection.prepareStatement("SELECT 1");
+    Mockito.verify(mockConnection, Mockito.times(1)).prepareStatement("SELECT 1");
+  }
+
+  @Test
+  public void prepareStatement_restoresMaxRowsWithoutLargeMaxRows() throws SQLException {
+    java.sql.PreparedStatement mockStatement = Mockito.mock(java.sql.PreparedStatement.class);
+    Mockito.when(mockConnection.prepareStatement("SELECT 1")).thenReturn(mockStatement);
+    Mockito.when(mockStatement.getLargeMaxRows())
+        .thenThrow(new java.sql.SQLFeatureNotSupportedException());
+    Mockito.doThrow(new UnsupportedOperationException())
+        .when(mockStatement)
+        .setLargeMaxRows(Mockito.anyLong());
+    Mockito.when(mockStatement.getMaxRows()).thenReturn(100);
+    OcWrapConnection cachingConnection =
+        new OcWrapConnection(mockConnection, EnumSet.of(TraceOption.CACHE_PREPARED_STATEMENTS));
+
+    java.sql.PreparedStatement statement = cachingConnection.prepareStatement("SELECT 1");
+    statement.setMaxRows(10);
+    statement.close();
+
+    Mockito.verify(mockStatement, Mockito.times(1)).getMaxRows();
+    Mockito.verify(mockStatement, Mockito.times(1)).setMaxRows(100);
+    Mockito.verify(mockStatement, Mockito.never()).close();
+  }
+
+  @Test
+  public void prepareStatement_irreversibleSettingsAreNotCached() throws SQLException {
+    java.sql.PreparedStatement mockStatement = Mockito.mock(java.sql.PreparedStatement.class);
+    Mockito.when(mockConnection.prepareStatement("SELECT 1")).thenReturn(mockStatement);
+    OcWrapConnection cachingConnection =
+        new OcWrapConnection(mockConnection, EnumSet.of(TraceOption.CACHE_PREPARED_STATEMENTS));
+
+    java.sql.PreparedStatement statement = cachingConnection.prepareStatement("SELECT 1");
+    statement.closeOnCompletion();
+    statement.close();
+    statement = cachingConnection.prepareStatement("SELECT 1");
+    statement.setCursorName("c");
+    statement.close();
+
+    Mockito.verify(mockStatement, Mockito.times(2)).close();
+    Mockito.verify(mockConnection, Mockito.times(2)).prepareStatement("SELECT 1");
+  }
+
+  @Test
+  public void prepareStatement_uncachedStatementsDontReadSettings() throws SQLException {
+    java.sql.PreparedStatement mockStatement = Mockito.mock(java.sql.PreparedStatement.class);
+    Mockito.when(mockConnection.prepareStatement("SELECT 1")).thenReturn(mockStatement);
+
+    java.sql.PreparedStatement statement = connection.prepareStatement("SELECT 1");
+    statement.setMaxRows(10);
+    statement.setQueryTimeout(5);
+    statement.close();
+    Mockito.verify(mockStatement, Mockito.never()).getLargeMaxRows();
+    Mockito.verify(mockStatement, Mockito.never()).getQueryTimeout();
+  }
+
+  @Test
+  public void prepareStatement_withoutCache() throws SQLException {
+    java.sql.PreparedStatement mockStatement = Mockito.mock(java.sql.PreparedStatement.class);
+    Mockito.when(mockConnection.prepareStatement("SELECT 1")).thenReturn(mockStatement);
+
+    connection.prepareStatement("SELECT 1").close();
+    connection.prepareStatement("SELECT 1");
+    Mockito.verify(mockStatement, Mockito.times(1)).close();
+    Mockito.verify(mockConnection, Mockito.times(2)).prepareStatement("SELECT 1");
+  }
+}
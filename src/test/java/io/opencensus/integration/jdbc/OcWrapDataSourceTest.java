@@ -0,0 +1,73 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import javax.sql.DataSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/** Tests for {@link OcWrapDataSource}. */
+@RunWith(JUnit4.class)
+public class OcWrapDataSourceTest {
+
+  @Mock private DataSource mockDataSource;
+  @Mock private Connection mockConnection;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  public void getConnection_wrapsConnection() throws SQLException {
+    Mockito.when(mockDataSource.getConnection()).thenReturn(mockConnection);
+    Connection connection = new OcWrapDataSource(mockDataSource).getConnection();
+    assertThat(connection).isInstanceOf(OcWrapConnection.class);
+
+    connection.close();
+    Mockito.verify(mockConnection, Mockito.times(1)).close();
+  }
+
+  @Test
+  public void getConnection_withCredentials() throws SQLException {
+    Mockito.when(mockDataSource.getConnection("user", "password")).thenReturn(mockConnection);
+    assertThat(new OcWrapDataSource(mockDataSource).getConnection("user", "password"))
+        .isInstanceOf(OcWrapConnection.class);
+  }
+
+  @Test(expected = SQLTransientConnectionException.class)
+  public void getConnection_propagatesExceptions() throws SQLException {
+    Mockito.when(mockDataSource.getConnection())
+        .thenThrow(new SQLTransientConnectionException("pool exhausted", "08001"));
+    new OcWrapDataSource(mockDataSource).getConnection();
+  }
+
+  @Test
+  public void unwrap_returnsDelegate() throws SQLException {
+    OcWrapDataSource dataSource = new OcWrapDataSource(mockDataSource);
+    assertThat(dataSource.isWrapperFor(DataSource.class)).isTrue();
+    assertThat(dataSource.unwrap(DataSource.class)).isSameAs(mockDataSource);
+  }
+}
@@ -0,0 +1,98 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Properties;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link OcWrapDriver}. */
+@RunWith(JUnit4.class)
+public class OcWrapDriverTest {
+
+  @Test
+  public void acceptsURL() throws SQLException {
+    OcWrapDriver driver = new OcWrapDriver();
+    assertThat(driver.acceptsURL("jdbc:opencensus:postgresql://localhost/db")).isTrue();
+    assertThat(driver.acceptsURL("jdbc:postgresql://localhost/db")).isFalse();
+    assertThat(driver.connect("jdbc:postgresql://localhost/db", new Properties())).isNull();
+  }
+
+  @Test
+  public void registersWithDriverManager() throws SQLException {
+    assertThat(DriverManager.getDriver("jdbc:opencensus:postgresql://localhost/db"))
+        .isInstanceOf(OcWrapDriver.class);
+  }
+
+  @Test
+  public void parseTraceOptions_fromUrl() throws SQLException {
+    EnumSet<TraceOption> opts = EnumSet.noneOf(TraceOption.class);
+    assertThat(
+            OcWrapDriver.parseTraceOptions(
+                "jdbc:postgresql://localhost/db"
+                    + "?opencensus.traceOptions=annotate_traces_with_sql,DEFER_SPANS&ssl=true",
+                opts))
+        .isEqualTo("jdbc:postgresql://localhost/db?ssl=true");
+    assertThat(opts).containsExactly(TraceOption.ANNOTATE_TRACES_WITH_SQL, TraceOption.DEFER_SPANS);
+
+    opts = EnumSet.noneOf(TraceOption.class);
+    assertThat(
+            OcWrapDriver.parseTraceOptions(
+                "jdbc:postgresql://localhost/db?ssl=true&opencensus.traceOptions=DEFER_SPANS",
+                opts))
+        .isEqualTo("jdbc:postgresql://localhost/db?ssl=true");
+    assertThat(opts).containsExactly(TraceOption.DEFER_SPANS);
+
+    opts = EnumSet.noneOf(TraceOption.class);
+    assertThat(
+            OcWrapDriver.parseTraceOptions(
+                "jdbc:sqlserver://localhost;opencensus.traceOptions=DEFER_SPANS;user=sa", opts))
+        .isEqualTo("jdbc:sqlserver://localhost;user=sa");
+    assertThat(opts).containsExactly(TraceOption.DEFER_SPANS);
+  }
+
+  @Test
+  public void parseTraceOptions_withoutParameter() throws SQLException {
+    EnumSet<TraceOption> opts = EnumSet.noneOf(TraceOption.class);
+    assertThat(OcWrapDriver.parseTraceOptions("jdbc:h2:mem:test", opts))
+        .isEqualTo("jdbc:h2:mem:test");
+    assertThat(opts).isEmpty();
+  }
+
+  @Test(expected = SQLException.class)
+  public void parseTraceOptions_unknownOption() throws SQLException {
+    OcWrapDriver.parseTraceOptions(
+        "jdbc:h2:mem:test;opencensus.traceOptions=TRACE_EVERYTHING",
+        EnumSet.noneOf(TraceOption.class));
+  }
+
+  @Test
+  public void parseTraceOptions_fromProperties() throws SQLException {
+    Properties info = new Properties();
+    info.setProperty("user", "sa");
+    info.setProperty(OcWrapDriver.TRACE_OPTIONS_PARAMETER, "ANNOTATE_TRACES_WITH_SQL");
+    EnumSet<TraceOption> opts = EnumSet.noneOf(TraceOption.class);
+    Properties delegateInfo = OcWrapDriver.parseTraceOptions(info, opts);
+    assertThat(delegateInfo.stringPropertyNames()).containsExactly("user");
+    assertThat(opts).containsExactly(TraceOption.ANNOTATE_TRACES_WITH_SQL);
+  }
+}
@@ -0,0 +1,424 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.common.Functions;
+import io.opencensus.common.Scope;
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import io.opencensus.stats.AggregationData.DistributionData;
+import io.opencensus.stats.Stats;
+import io.opencensus.stats.ViewData;
+import io.opencensus.tags.TagValue;
+import io.opencensus.trace.AttributeValue;
+import io.opencensus.trace.Span;
+import io.opencensus.trace.Tracer;
+import io.opencensus.trace.Tracing;
+import io.opencensus.trace.export.SpanData;
+import io.opencensus.trace.export.SpanExporter;
+import io.opencensus.trace.samplers.Samplers;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/** Tests for {@link OcWrapResultSet}. */
+@RunWith(JUnit4.class)
+public class OcWrapResultSetTest {
+  private static final Tracer tracer = Tracing.getTracer();
+
+  @Mock private ResultSet mockResultSet;
+  @Mock private ResultSetMetaData mockMetaData;
+
+  @Before
+  public void setUp() throws SQLException {
+    MockitoAnnotations.initMocks(this);
+    Mockito.when(mockResultSet.getMetaData()).thenReturn(mockMetaData);
+    Mockito.when(mockMetaData.getColumnCount()).thenReturn(3);
+    Mockito.when(mockMetaData.getColumnLabel(1)).thenReturn("id");
+    Mockito.when(mockMetaData.getColumnLabel(2)).thenReturn("Name");
+    Mockito.when(mockMetaData.getColumnLabel(3)).thenReturn("NAME");
+  }
+
+  @Test
+  public void findColumn_usesMetaData() throws SQLException {
+    ResultSet rs = new OcWrapResultSet(mockResultSet);
+    assertThat(rs.findColumn("id")).isEqualTo(1);
+    assertThat(rs.findColumn("ID")).isEqualTo(1);
+    // The first of the columns sharing a label wins.
+    assertThat(rs.findColumn("name")).isEqualTo(2);
+    assertThat(rs.findColumn("NAME")).isEqualTo(2);
+    Mockito.verify(mockResultSet, Mockito.times(1)).getMetaData();
+    Mockito.verify(mockResultSet, Mockito.never()).findColumn(Mockito.anyString());
+  }
+
+  @Test
+  public void findColumn_unknownLabel() throws SQLException {
+    Mockito.when(mockResultSet.findColumn("t.id")).thenReturn(1);
+    ResultSet rs = new OcWrapResultSet(mockResultSet);
+    assertThat(rs.findColumn("t.id")).isEqualTo(1);
+    Mockito.verify(mockResultSet, Mockito.times(1)).findColumn("t.id");
+  }
+
+  @Test
+  public void findColumn_withoutMetaData() throws SQLException {
+    Mockito.when(mockResultSet.getMetaData()).thenThrow(new SQLException("closed"));
+    Mockito.when(mockResultSet.findColumn("id")).thenReturn(1);
+    ResultSet rs = new OcWrapResultSet(mockResultSet);
+    assertThat(rs.findColumn("id")).isEqualTo(1);
+    assertThat(rs.findColumn("id")).isEqualTo(1);
+    Mockito.verify(mockResultSet, Mockito.times(1)).getMetaData();
+  }
+
+  @Test
+  public void getters_resolveLabelsToIndexes() throws SQLException {
+    Mockito.when(mockResultSet.getString(2)).thenReturn("ocjdbc");
+    Mockito.when(mockResultSet.getLong(1)).thenReturn(42L);
+    ResultSet rs = new OcWrapResultSet(mockResultSet);
+    assertThat(rs.getString("name")).isEqualTo("ocjdbc");
+    assertThat(rs.getLong("ID")).isEqualTo(42L);
+    Mockito.verify(mockResultSet, Mockito.never()).getString(Mockito.anyString());
+    Mockito.verify(mockResultSet, Mockito.never()).getLong(Mockito.anyString());
+  }
+
+  @Test
+  public void getters_withoutMetaData_useLabels() throws SQLException {
+    Mockito.when(mockResultSet.getMetaData()).thenThrow(new SQLException("unsupported"));
+    Mockito.when(mockResultSet.getString("name")).thenReturn("ocjdbc");
+    Mockito.when(mockResultSet.getLong("id")).thenReturn(42L);
+    ResultSet rs = new OcWrapResultSet(mockResultSet);
+    assertThat(rs.getString("name")).isEqualTo("ocjdbc");
+    assertThat(rs.getLong("id")).isEqualTo(42L);
+    assertThat(rs.getString("name")).isEqualTo("ocjdbc");
+    // The missing metadata is remembered, and labels go straight to the driver's label getters.
+    Mockito.verify(mockResultSet, Mockito.times(1)).getMetaData();
+    Mockito.verify(mockResultSet, Mockito.never()).findColumn(Mockito.anyString());
+    Mockito.verify(mockResultSet, Mockito.never()).getString(Mockito.anyInt());
+    Mockito.verify(mockResultSet, Mockito.never()).getLong(Mockito.anyInt());
+  }
+
+  @Test
+  public void getters_withNullMetaData_useLabels() throws SQLException {
+    Mockito.when(mockResultSet.getMetaData()).thenReturn(null);
+    Mockito.when(mockResultSet.getString("name")).thenReturn("ocjdbc");
+    ResultSet rs = new OcWrapResultSet(mockResultSet);
+    assertThat(rs.getString("name")).isEqualTo("ocjdbc");
+    assertThat(OcWrapResultSet.columnIndexes(mockResultSet))
+        .isSameAs(OcWrapResultSet.NO_COLUMN_INDEXES);
+    Mockito.verify(mockResultSet, Mockito.never()).getString(Mockito.anyInt());
+  }
+
+  @Test
+  public void getters_unknownLabel_useLabels() throws SQLException {
+    Mockito.when(mockResultSet.getString("t.id")).thenReturn("7");
+    ResultSet rs = new OcWrapResultSet(mockResultSet);
+    assertThat(rs.getString("t.id")).isEqualTo("7");
+    Mockito.verify(mockResultSet, Mockito.never()).findColumn(Mockito.anyString());
+    Mockito.verify(mockResultSet, Mockito.never()).getString(Mockito.anyInt());
+  }
+
+  @Test
+  public void aggregateFetch_endsSpanOnExhaustion() throws Exception {
+    Mockito.when(mockResultSet.next()).thenReturn(true, true, false);
+    Span parent = startSampledParent("aggregateFetch_endsSpanOnExhaustion");
+    try (Scope ws = tracer.withSpan(parent)) {
+      ResultSet rs =
+          new OcWrapResultSet(mockResultSet, EnumSet.of(TraceOption.AGGREGATE_RESULT_SET_FETCH));
+      while (rs.next()) {}
+      // Calls past the end, and closing, don't start another fetch.
+      assertThat(rs.next()).isFalse();
+      rs.close();
+    }
+    parent.end();
+
+    List<SpanData> spans = awaitChildren(parent, "java.sql.ResultSet.fetch");
+    assertThat(spans).hasSize(1);
+    SpanData fetch = spans.get(0);
+    assertThat(fetch.getAttributes().getAttributeMap())
+        .containsEntry("rows", AttributeValue.longAttributeValue(2));
+    assertFetchTimes(fetch);
+    Mockito.verify(mockResultSet, Mockito.times(4)).next();
+  }
+
+  @Test
+  public void aggregateFetch_endsSpanOnClose() throws Exception {
+    Mockito.when(mockResultSet.next()).thenReturn(true);
+    Span parent = startSampledParent("aggregateFetch_endsSpanOnClose");
+    try (Scope ws = tracer.withSpan(parent)) {
+      ResultSet rs =
+          new OcWrapResultSet(mockResultSet, EnumSet.of(TraceOption.AGGREGATE_RESULT_SET_FETCH));
+      assertThat(rs.next()).isTrue();
+      assertThat(rs.next()).isTrue();
+      assertThat(rs.next()).isTrue();
+      rs.close();
+    }
+    parent.end();
+
+    List<SpanData> spans = awaitChildren(parent, "java.sql.ResultSet.fetch");
+    assertThat(spans).hasSize(1);
+    SpanData fetch = spans.get(0);
+    assertThat(fetch.getAttributes().getAttributeMap())
+        .containsEntry("rows", AttributeValue.longAttributeValue(3));
+    assertFetchTimes(fetch);
+  }
+
+  @Test
+  public void withoutAggregateFetch_tracesEachNext() throws Exception {
+    Mockito.when(mockResultSet.next()).thenReturn(true, false);
+    Span parent = startSampledParent("withoutAggregateFetch_tracesEachNext");
+    try (Scope ws = tracer.withSpan(parent)) {
+      ResultSet rs = new OcWrapResultSet(mockResultSet);
+      while (rs.next()) {}
+      rs.close();
+    }
+    parent.end();
+
+    assertThat(awaitChildren(parent, "java.sql.ResultSet.next")).hasSize(2);
+    assertThat(awaitChildren(parent, "java.sql.ResultSet.fetch")).isEmpty();
+  }
+
+  @Test
+  public void rowsReturned_recordedOnceOnExhaustion() throws Exception {
+    Mockito.when(mockResultSet.next()).thenReturn(true, true, false);
+    String method = "rowsReturned_recordedOnceOnExhaustion";
+    ResultSet rs = new OcWrapResultSet(mockResultSet, NO_OPTIONS, method);
+    while (rs.next()) {}
+    assertThat(rs.next()).isFalse();
+    rs.close();
+    rs.close();
+
+    DistributionData rows = awaitRowsReturned(method);
+    assertThat(rows.getCount()).isEqualTo(1);
+    assertThat(rows.getMean()).isEqualTo(2.0);
+  }
+
+  @Test
+  public void rowsReturned_recordedOnceOnClose() throws Exception {
+    Mockito.when(mockResultSet.next()).thenReturn(true);
+    String method = "rowsReturned_recordedOnceOnClose";
+    ResultSet rs =
+        new OcWrapResultSet(
+            mockResultSet, EnumSet.of(TraceOption.AGGREGATE_RESULT_SET_FETCH), method);
+    for (int i = 0; i < 3; i++) {
+      assertThat(rs.next()).isTrue();
+    }
+    rs.close();
+    rs.close();
+
+    DistributionData rows = awaitRowsReturned(method);
+    assertThat(rows.getCount()).isEqualTo(1);
+    assertThat(rows.getMean()).isEqualTo(3.0);
+  }
+
+  @Test
+  public void rowsReturned_taggedWithProducingMethod() throws Exception {
+    Statement mockStatement = Mockito.mock(Statement.class);
+    Mockito.when(mockStatement.executeQuery("SELECT 1")).thenReturn(mockResultSet);
+    Mockito.when(mockResultSet.next()).thenReturn(true, false);
+    String method = "java.sql.Statement.executeQuery";
+    DistributionData before = awaitRowsReturned(method);
+
+    ResultSet rs = new OcWrapStatement(mockStatement, NO_OPTIONS).executeQuery("SELECT 1");
+    while (rs.next()) {}
+    rs.close();
+
+    DistributionData after = awaitRowsReturned(method);
+    assertThat(after.getCount() - count(before)).isEqualTo(1);
+    assertThat(sum(after) - sum(before)).isEqualTo(1.0);
+  }
+
+  @Test
+  public void rowsReturned_recordedWhenStatementClosed() throws Exception {
+    Statement mockStatement = Mockito.mock(Statement.class);
+    Mockito.when(mockStatement.executeQuery("SELECT 2")).thenReturn(mockResultSet);
+    Mockito.when(mockResultSet.next()).thenReturn(true);
+    String method = "java.sql.Statement.executeQuery";
+    DistributionData before = awaitRowsReturned(method);
+
+    Statement statement = new OcWrapStatement(mockStatement, NO_OPTIONS);
+    ResultSet rs = statement.executeQuery("SELECT 2");
+    assertThat(rs.next()).isTrue();
+    assertThat(rs.next()).isTrue();
+    // Closing the statement closes its ResultSet, which is read no further.
+    statement.close();
+
+    DistributionData after = awaitRowsReturned(method);
+    assertThat(after.getCount() - count(before)).isEqualTo(1);
+    assertThat(sum(after) - sum(before)).isEqualTo(2.0);
+  }
+
+  @Test
+  public void aggregateFetch_endsSpanWhenStatementClosed() throws Exception {
+    Statement mockStatement = Mockito.mock(Statement.class);
+    Mockito.when(mockStatement.executeQuery("SELECT 1")).thenReturn(mockResultSet);
+    Mockito.when(mockResultSet.next()).thenReturn(true);
+    Span parent = startSampledParent("aggregateFetch_endsSpanWhenStatementClosed");
+    try (Scope ws = tracer.withSpan(parent)) {
+      Statement statement =
+          new OcWrapStatement(mockStatement, EnumSet.of(TraceOption.AGGREGATE_RESULT_SET_FETCH));
+      ResultSet rs = statement.executeQuery("SELECT 1");
+      assertThat(rs.next()).isTrue();
+      statement.close();
+    }
+    parent.end();
+
+    List<SpanData> spans = awaitChildren(parent, "java.sql.ResultSet.fetch");
+    assertThat(spans).hasSize(1);
+    assertThat(spans.get(0).getAttributes().getAttributeMap())
+        .containsEntry("rows", AttributeValue.longAttributeValue(1));
+  }
+
+  @Test
+  public void rowsReturned_recordedWhenCachedStatementClosed() throws Exception {
+    Connection mockConnection = Mockito.mock(Connection.class);
+    PreparedStatement mockStatement = Mockito.mock(PreparedStatement.class);
+    Mockito.when(mockConnection.prepareStatement("SELECT 1")).thenReturn(mockStatement);
+    Mockito.when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+    Mockito.when(mockStatement.getResultSet()).thenReturn(mockResultSet);
+    Mockito.when(mockResultSet.next()).thenReturn(true);
+    String method = "java.sql.PreparedStatement.executeQuery";
+    DistributionData before = awaitRowsReturned(method);
+
+    Connection connection =
+        new OcWrapConnection(mockConnection, EnumSet.of(TraceOption.CACHE_PREPARED_STATEMENTS));
+    PreparedStatement statement = connection.prepareStatement("SELECT 1");
+    ResultSet rs = statement.executeQuery();
+    assertThat(rs.next()).isTrue();
+    // The statement returns to the cache, after closing its ResultSet.
+    statement.close();
+    Mockito.verify(mockResultSet, Mockito.times(1)).close();
+    Mockito.verify(mockStatement, Mockito.never()).close();
+
+    DistributionData after = awaitRowsReturned(method);
+    assertThat(after.getCount() - count(before)).isEqualTo(1);
+    assertThat(sum(after) - sum(before)).isEqualTo(1.0);
+  }
+
+  private static final EnumSet<TraceOption> NO_OPTIONS = EnumSet.noneOf(TraceOption.class);
+
+  // Returns the rows returned by the ResultSets of method so far, or null if there were none.
+  // Stats are recorded in order by a background thread of opencensus-impl, so once a marker
+  // recorded after the ResultSets shows up, their rows have been recorded too.
+  private static DistributionData awaitRowsReturned(String method) throws InterruptedException {
+    Observability.registerAllViews();
+    String marker = method + ".marker";
+    long markers = count(rowsReturned(marker));
+    Observability.recordRowsReturned(marker, 0);
+    for (int i = 0; i < 500 && count(rowsReturned(marker)) == markers; i++) {
+      Thread.sleep(10);
+    }
+    assertThat(count(rowsReturned(marker))).isEqualTo(markers + 1);
+    return rowsReturned(method);
+  }
+
+  private static DistributionData rowsReturned(String method) {
+    ViewData viewData =
+        Stats.getViewManager().getView(Observability.SQL_CLIENT_ROWS_RETURNED_VIEW.getName());
+    return (DistributionData)
+        viewData.getAggregationMap().get(Collections.singletonList(TagValue.create(method)));
+  }
+
+  private static long count(DistributionData rows) {
+    return rows == null ? 0 : rows.getCount();
+  }
+
+  private static double sum(DistributionData rows) {
+    return rows == null ? 0 : rows.getMean() * rows.getCount();
+  }
+
+  // Collects every sampled span once it is exported, which opencensus-impl does in batches from a
+  // background thread.
+  private static final Queue<SpanData> exportedSpans = new ConcurrentLinkedQueue<>();
+
+  static {
+    Tracing.getExportComponent()
+        .getSpanExporter()
+        .registerHandler(
+            OcWrapResultSetTest.class.getName(),
+            new SpanExporter.Handler() {
+              @Override
+              public void export(Collection<SpanData> spanDataList) {
+                exportedSpans.addAll(spanDataList);
+              }
+            });
+  }
+
+  private static Span startSampledParent(String name) {
+    return tracer.spanBuilder(name).setSampler(Samplers.alwaysSample()).startSpan();
+  }
+
+  // Returns the children of parent with the given name, once parent itself has been exported.
+  // Spans are exported in the order they end, so by then every child has been exported too.
+  private static List<SpanData> awaitChildren(Span parent, String name)
+      throws InterruptedException {
+    boolean parentExported = false;
+    for (int i = 0; i < 1000 && !parentExported; i++) {
+      for (SpanData span : exportedSpans) {
+        parentExported |= span.getContext().equals(parent.getContext());
+      }
+      if (!parentExported) {
+        Thread.sleep(20);
+      }
+    }
+    assertThat(parentExported).isTrue();
+
+    List<SpanData> children = new ArrayList<>();
+    for (SpanData span : exportedSpans) {
+      if (parent.getContext().getSpanId().equals(span.getParentSpanId())
+          && span.getName().equals(name)) {
+        children.add(span);
+      }
+    }
+    return children;
+  }
+
+  private static void assertFetchTimes(SpanData fetch) {
+    AttributeValue total = fetch.getAttributes().getAttributeMap().get("next_time_total_ns");
+    AttributeValue max = fetch.getAttributes().getAttributeMap().get("next_time_max_ns");
+    assertThat(total).isNotNull();
+    assertThat(max).isNotNull();
+    long totalNs = longValue(total);
+    long maxNs = longValue(max);
+    assertThat(maxNs).isAtLeast(0L);
+    assertThat(totalNs).isAtLeast(maxNs);
+  }
+
+  // Uses the overload of match that is in every supported version of opencensus-api.
+  @SuppressWarnings("deprecation")
+  private static long longValue(AttributeValue value) {
+    return value.match(
+        Functions.<Long>throwAssertionError(),
+        Functions.<Long>throwAssertionError(),
+        l -> l,
+        Functions.<Long>throwAssertionError());
+  }
+}
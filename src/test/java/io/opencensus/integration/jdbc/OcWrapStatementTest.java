@@ -0,0 +1,243 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.integration.jdbc.Observability.TraceOption;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests for {@link OcWrapStatement}, {@link OcWrapPreparedStatement} and {@link
+ * OcWrapCallableStatement}.
+ */
+@RunWith(JUnit4.class)
+public class OcWrapStatementTest {
+  private static final EnumSet<TraceOption> NO_OPTIONS = EnumSet.noneOf(TraceOption.class);
+
+  @Mock private Statement mockStatement;
+  @Mock private PreparedStatement mockPreparedStatement;
+  @Mock private CallableStatement mockCallableStatement;
+  @Mock private ResultSet mockResultSet;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  public void statement_executeLargeUpdate() throws SQLException {
+    Mockito.when(mockStatement.executeLargeUpdate("DELETE FROM t")).thenReturn(5_000_000_000L);
+    Statement statement = new OcWrapStatement(mockStatement, NO_OPTIONS);
+    assertThat(statement.executeLargeUpdate("DELETE FROM t")).isEqualTo(5_000_000_000L);
+    Mockito.verify(mockStatement, Mockito.times(1)).executeLargeUpdate("DELETE FROM t");
+  }
+
+  @Test
+  public void statement_executeLargeBatch() throws SQLException {
+    long[] updateCounts = {1L, 2L};
+    Mockito.when(mockStatement.executeLargeBatch()).thenReturn(updateCounts);
+    Statement statement = new OcWrapStatement(mockStatement, NO_OPTIONS);
+    statement.addBatch("DELETE FROM t WHERE id = 1");
+    statement.addBatch("DELETE FROM t WHERE id = 2");
+    assertThat(statement.executeLargeBatch()).isSameAs(updateCounts);
+    Mockito.verify(mockStatement, Mockito.times(2)).addBatch(Mockito.anyString());
+  }
+
+  @Test
+  public void statement_largeMaxRowsAndUpdateCount() throws SQLException {
+    Mockito.when(mockStatement.getLargeMaxRows()).thenReturn(10L);
+    Mockito.when(mockStatement.getLargeUpdateCount()).thenReturn(3L);
+    Statement statement = new OcWrapStatement(mockStatement, NO_OPTIONS);
+    statement.setLargeMaxRows(10L);
+    Mockito.verify(mockStatement, Mockito.times(1)).setLargeMaxRows(10L);
+    assertThat(statement.getLargeMaxRows()).isEqualTo(10L);
+    assertThat(statement.getLargeUpdateCount()).isEqualTo(3L);
+  }
+
+  @Test
+  public void preparedStatement_executeLargeUpdate() throws SQLException {
+    Mockito.when(mockPreparedStatement.executeLargeUpdate()).thenReturn(7L);
+    PreparedStatement statement =
+        new OcWrapPreparedStatement(mockPreparedStatement, "DELETE FROM t", NO_OPTIONS);
+    assertThat(statement.executeLargeUpdate()).isEqualTo(7L);
+    Mockito.verify(mockPreparedStatement, Mockito.times(1)).executeLargeUpdate();
+  }
+
+  @Test
+  public void preparedStatement_executeLargeBatch() throws SQLException {
+    long[] updateCounts = {1L, Statement.SUCCESS_NO_INFO};
+    Mockito.when(mockPreparedStatement.executeLargeBatch()).thenReturn(updateCounts);
+    PreparedStatement statement =
+        new OcWrapPreparedStatement(mockPreparedStatement, "DELETE FROM t", NO_OPTIONS);
+    statement.addBatch();
+    statement.addBatch();
+    assertThat(statement.executeLargeBatch()).isSameAs(updateCounts);
+    Mockito.verify(mockPreparedStatement, Mockito.times(2)).addBatch();
+  }
+
+  @Test
+  public void callableStatement_executeLargeUpdate() throws SQLException {
+    Mockito.when(mockCallableStatement.executeLargeUpdate()).thenReturn(7L);
+    CallableStatement statement =
+        new OcWrapCallableStatement(mockCallableStatement, "{call purge()}", NO_OPTIONS);
+    assertThat(statement.executeLargeUpdate()).isEqualTo(7L);
+    Mockito.verify(mockCallableStatement, Mockito.times(1)).executeLargeUpdate();
+  }
+
+  @Test
+  public void statement_tunesFetchSizeFromRowsRead() throws SQLException {
+    String sql = "SELECT id FROM statement_tunesFetchSizeFromRowsRead";
+    Mockito.when(mockStatement.executeQuery(sql)).thenReturn(mockResultSet);
+    Mockito.when(mockResultSet.next()).thenReturn(true, true, true, false);
+    Statement statement =
+        new OcWrapStatement(mockStatement, EnumSet.of(TraceOption.TUNE_FETCH_SIZE));
+
+    // Nothing is known about the query on its first execution.
+    ResultSet rs = statement.executeQuery(sql);
+    while (rs.next()) {}
+    rs.close();
+    Mockito.verify(mockStatement, Mockito.never()).setFetchSize(Mockito.anyInt());
+
+    statement.executeQuery(sql).close();
+    Mockito.verify(mockStatement, Mockito.times(1))
+        .setFetchSize(FetchSizeTuner.DEFAULT_MIN_FETCH_SIZE);
+  }
+
+  @Test
+  public void statement_keepsFetchSizeSetByCaller() throws SQLException {
+    String sql = "SELECT id FROM statement_keepsFetchSizeSetByCaller";
+    Mockito.when(mockStatement.executeQuery(sql)).thenReturn(mockResultSet);
+    Mockito.when(mockResultSet.next()).thenReturn(true, false);
+    Statement statement =
+        new OcWrapStatement(mockStatement, EnumSet.of(TraceOption.TUNE_FETCH_SIZE));
+    statement.setFetchSize(500);
+
+    for (int i = 0; i < 2; i++) {
+      ResultSet rs = statement.executeQuery(sql);
+      while (rs.next()) {}
+      rs.close();
+    }
+    Mockito.verify(mockStatement, Mockito.times(1)).setFetchSize(Mockito.anyInt());
+    Mockito.verify(mockStatement, Mockito.times(1)).setFetchSize(500);
+  }
+
+  @Test
+  public void statement_keepsFetchSizeConfiguredOnDriver() throws SQLException {
+    String sql = "SELECT id FROM statement_keepsFetchSizeConfiguredOnDriver";
+    Mockito.when(mockStatement.getFetchSize()).thenReturn(250);
+    Mockito.when(mockStatement.executeQuery(sql)).thenReturn(mockResultSet);
+    Mockito.when(mockResultSet.next()).thenReturn(true, false);
+    Statement statement =
+        new OcWrapStatement(mockStatement, EnumSet.of(TraceOption.TUNE_FETCH_SIZE));
+
+    for (int i = 0; i < 2; i++) {
+      ResultSet rs = statement.executeQuery(sql);
+      while (rs.next()) {}
+      rs.close();
+    }
+    Mockito.verify(mockStatement, Mockito.times(1)).getFetchSize();
+    Mockito.verify(mockStatement, Mockito.never()).setFetchSize(Mockito.anyInt());
+  }
+
+  @Test
+  public void preparedStatement_reusesResultSetWrapper() throws SQLException {
+    ResultSet otherResultSet = Mockito.mock(ResultSet.class);
+    Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet, otherResultSet);
+    Mockito.when(mockPreparedStatement.getResultSet()).thenReturn(otherResultSet);
+    Mockito.when(otherResultSet.next()).thenReturn(true);
+    PreparedStatement statement =
+        new OcWrapPreparedStatement(mockPreparedStatement, "SELECT id FROM t", NO_OPTIONS);
+
+    // Once closed, the wrapper of a ResultSet wraps the next one.
+    ResultSet rs = statement.executeQuery();
+    rs.close();
+    assertThat(statement.executeQuery()).isSameAs(rs);
+    assertThat(rs.next()).isTrue();
+    Mockito.verify(otherResultSet, Mockito.times(1)).next();
+    Mockito.verify(mockResultSet, Mockito.never()).next();
+
+    assertThat(statement.getResultSet()).isSameAs(rs);
+    assertThat(statement.getResultSet()).isSameAs(rs);
+  }
+
+  @Test
+  public void preparedStatement_keptResultSetKeepsItsWrapper() throws SQLException {
+    ResultSet otherResultSet = Mockito.mock(ResultSet.class);
+    Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet, otherResultSet);
+    PreparedStatement statement =
+        new OcWrapPreparedStatement(mockPreparedStatement, "SELECT id FROM t", NO_OPTIONS);
+
+    ResultSet first = statement.executeQuery();
+    ResultSet second = statement.executeQuery();
+    assertThat(second).isNotSameAs(first);
+
+    // Closing the handle kept from the first execution leaves the second ResultSet open.
+    first.close();
+    Mockito.verify(mockResultSet, Mockito.times(1)).close();
+    Mockito.verify(otherResultSet, Mockito.never()).close();
+    second.next();
+    Mockito.verify(otherResultSet, Mockito.times(1)).next();
+  }
+
+  @Test
+  public void statement_keptOpenResultsGetTheirOwnWrapper() throws SQLException {
+    ResultSet otherResultSet = Mockito.mock(ResultSet.class);
+    Mockito.when(mockStatement.execute("CALL multiple_results()")).thenReturn(true);
+    Mockito.when(mockStatement.getResultSet()).thenReturn(mockResultSet, otherResultSet);
+    Statement statement = new OcWrapStatement(mockStatement, NO_OPTIONS);
+
+    statement.execute("CALL multiple_results()");
+    ResultSet first = statement.getResultSet();
+    statement.getMoreResults(Statement.KEEP_CURRENT_RESULT);
+    ResultSet second = statement.getResultSet();
+    assertThat(second).isNotSameAs(first);
+    first.next();
+    Mockito.verify(mockResultSet, Mockito.times(1)).next();
+  }
+
+  @Test
+  public void statement_getResultSetWithoutResult() throws SQLException {
+    Statement statement = new OcWrapStatement(mockStatement, NO_OPTIONS);
+    assertThat(statement.getResultSet()).isNull();
+  }
+
+  @Test
+  public void statement_reusesGeneratedKeysWrapperOnceClosed() throws SQLException {
+    ResultSet otherResultSet = Mockito.mock(ResultSet.class);
+    ResultSet lastResultSet = Mockito.mock(ResultSet.class);
+    Mockito.when(mockStatement.getGeneratedKeys())
+        .thenReturn(mockResultSet, otherResultSet, lastResultSet);
+    Statement statement = new OcWrapStatement(mockStatement, NO_OPTIONS);
+
+    ResultSet keys = statement.getGeneratedKeys();
+    ResultSet otherKeys = statement.getGeneratedKeys();
+    assertThat(otherKeys).isNotSameAs(keys);
+    otherKeys.close();
+    assertThat(statement.getGeneratedKeys()).isSameAs(otherKeys);
+  }
+}
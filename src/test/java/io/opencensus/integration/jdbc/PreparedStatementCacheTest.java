@@ -0,0 +1,102 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.integration.jdbc.PreparedStatementCache.Key;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/** Tests for {@link PreparedStatementCache}. */
+@RunWith(JUnit4.class)
+public class PreparedStatementCacheTest {
+
+  @Mock private PreparedStatement mockStatement1;
+  @Mock private PreparedStatement mockStatement2;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  public void take_returnsOfferedStatement() {
+    PreparedStatementCache cache = new PreparedStatementCache(2);
+    assertThat(cache.take(Key.of("SELECT 1"))).isNull();
+    assertThat(cache.offer(Key.of("SELECT 1"), mockStatement1)).isTrue();
+    assertThat(cache.take(Key.of("SELECT 1"))).isSameAs(mockStatement1);
+    // A statement is only handed out once.
+    assertThat(cache.take(Key.of("SELECT 1"))).isNull();
+  }
+
+  @Test
+  public void take_matchesOptions() {
+    PreparedStatementCache cache = new PreparedStatementCache(2);
+    cache.offer(
+        Key.of("SELECT 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY),
+        mockStatement1);
+    cache.offer(Key.withGeneratedKeys("SELECT 1", new String[] {"id"}), mockStatement2);
+
+    assertThat(cache.take(Key.of("SELECT 1"))).isNull();
+    assertThat(cache.take(Key.withGeneratedKeys("SELECT 1", Statement.RETURN_GENERATED_KEYS)))
+        .isNull();
+    assertThat(cache.take(Key.withGeneratedKeys("SELECT 1", new String[] {"id"})))
+        .isSameAs(mockStatement2);
+    assertThat(
+            cache.take(
+                Key.of("SELECT 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)))
+        .isSameAs(mockStatement1);
+  }
+
+  @Test
+  public void offer_evictsLeastRecentlyReturned() throws SQLException {
+    PreparedStatementCache cache = new PreparedStatementCache(1);
+    cache.offer(Key.of("SELECT 1"), mockStatement1);
+    cache.offer(Key.of("SELECT 2"), mockStatement2);
+
+    assertThat(cache.size()).isEqualTo(1);
+    Mockito.verify(mockStatement1, Mockito.times(1)).close();
+    Mockito.verify(mockStatement2, Mockito.never()).close();
+    assertThat(cache.take(Key.of("SELECT 2"))).isSameAs(mockStatement2);
+  }
+
+  @Test
+  public void offer_rejectsDuplicates() {
+    PreparedStatementCache cache = new PreparedStatementCache(2);
+    assertThat(cache.offer(Key.of("SELECT 1"), mockStatement1)).isTrue();
+    assertThat(cache.offer(Key.of("SELECT 1"), mockStatement2)).isFalse();
+    assertThat(cache.take(Key.of("SELECT 1"))).isSameAs(mockStatement1);
+  }
+
+  @Test
+  public void close_closesIdleStatements() throws SQLException {
+    PreparedStatementCache cache = new PreparedStatementCache(2);
+    cache.offer(Key.of("SELECT 1"), mockStatement1);
+    cache.close();
+
+    Mockito.verify(mockStatement1, Mockito.times(1)).close();
+    assertThat(cache.offer(Key.of("SELECT 2"), mockStatement2)).isFalse();
+  }
+}
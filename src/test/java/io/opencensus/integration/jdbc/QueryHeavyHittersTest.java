@@ -0,0 +1,138 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.tags.TagValue;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link QueryHeavyHitters}. */
+@RunWith(JUnit4.class)
+public class QueryHeavyHittersTest {
+
+  @Test
+  public void tagValue_admitsExpensiveQueries() {
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(2);
+    for (int i = 0; i < 100; i++) {
+      heavyHitters.tagValue("SELECT * FROM orders WHERE id = ?", 100);
+      heavyHitters.tagValue("SELECT * FROM users WHERE id = " + i, 1);
+    }
+    assertThat(heavyHitters.tagValue("SELECT * FROM orders WHERE id = ?", 100))
+        .isEqualTo(TagValue.create("SELECT * FROM orders WHERE id = ?"));
+    assertThat(heavyHitters.tagValue("SELECT * FROM users WHERE id = 0", 1))
+        .isEqualTo(QueryHeavyHitters.OTHER);
+  }
+
+  @Test
+  public void tagValue_capsAdmittedQueries() {
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(1);
+    for (int i = 0; i < 10; i++) {
+      heavyHitters.tagValue("SELECT a FROM t", 1);
+    }
+    assertThat(heavyHitters.tagValue("SELECT a FROM t", 1))
+        .isEqualTo(TagValue.create("SELECT a FROM t"));
+    for (int i = 0; i < 100; i++) {
+      assertThat(heavyHitters.tagValue("SELECT b FROM t", 10)).isEqualTo(QueryHeavyHitters.OTHER);
+    }
+  }
+
+  @Test
+  public void tagValue_sanitizesFingerprints() {
+    StringBuilder sql = new StringBuilder("SELECT caf\u00e9 FROM t WHERE x IN (?)");
+    while (sql.length() <= TagValue.MAX_LENGTH) {
+      sql.append(" AND y = ?");
+    }
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(1);
+    TagValue tagValue = null;
+    for (int i = 0; i < 10; i++) {
+      tagValue = heavyHitters.tagValue(sql.toString(), 1);
+    }
+    assertThat(tagValue.asString()).hasLength(TagValue.MAX_LENGTH);
+    assertThat(tagValue.asString()).startsWith("SELECT caf_ FROM t");
+  }
+
+  @Test
+  public void tagValue_demotesQueriesThatStopped() {
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(1, 32);
+    for (int i = 0; i < 10; i++) {
+      heavyHitters.tagValue("SELECT a FROM t", 1);
+    }
+    assertThat(heavyHitters.tagValue("SELECT a FROM t", 1))
+        .isEqualTo(TagValue.create("SELECT a FROM t"));
+
+    // Once a decay sees that "SELECT a" no longer runs, "SELECT b" takes its tag value.
+    TagValue tagValue = null;
+    for (int i = 0; i < 64; i++) {
+      tagValue = heavyHitters.tagValue("SELECT b FROM t", 10);
+    }
+    assertThat(tagValue).isEqualTo(TagValue.create("SELECT b FROM t"));
+    assertThat(heavyHitters.tagValue("SELECT a FROM t", 1)).isEqualTo(QueryHeavyHitters.OTHER);
+  }
+
+  @Test
+  public void tagValue_keepsQueriesThatStillRun() {
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(2, 32);
+    for (int i = 0; i < 200; i++) {
+      heavyHitters.tagValue("SELECT a FROM t", 10);
+      heavyHitters.tagValue("SELECT b FROM t", 10);
+      heavyHitters.tagValue("SELECT c FROM t WHERE id = " + i, 1);
+    }
+    assertThat(heavyHitters.tagValue("SELECT a FROM t", 10))
+        .isEqualTo(TagValue.create("SELECT a FROM t"));
+    assertThat(heavyHitters.tagValue("SELECT b FROM t", 10))
+        .isEqualTo(TagValue.create("SELECT b FROM t"));
+  }
+
+  @Test
+  public void tagValue_doesNotWaitForTheLock() throws Exception {
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(1);
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+    Thread holder =
+        new Thread(
+            () -> {
+              heavyHitters.lock.lock();
+              try {
+                locked.countDown();
+                done.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              } finally {
+                heavyHitters.lock.unlock();
+              }
+            });
+    holder.start();
+    locked.await();
+    try {
+      for (int i = 0; i < 100; i++) {
+        assertThat(heavyHitters.tagValue("SELECT a FROM t", 1)).isEqualTo(QueryHeavyHitters.OTHER);
+      }
+    } finally {
+      done.countDown();
+      holder.join();
+    }
+
+    // The offers made while the lock was held were dropped, so "SELECT a" starts from scratch.
+    for (int i = 0; i < 7; i++) {
+      assertThat(heavyHitters.tagValue("SELECT a FROM t", 1)).isEqualTo(QueryHeavyHitters.OTHER);
+    }
+    assertThat(heavyHitters.tagValue("SELECT a FROM t", 1))
+        .isEqualTo(TagValue.create("SELECT a FROM t"));
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright 2018, OpenCensus Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.opencensus.integration.jdbc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link SqlFingerprint}. */
+@RunWith(JUnit4.class)
+public class SqlFingerprintTest {
+
+  @Test
+  public void normalize_replacesLiterals() {
+    assertThat(SqlFingerprint.normalize("SELECT * FROM users WHERE id = 42"))
+        .isEqualTo("SELECT * FROM users WHERE id = ?");
+    assertThat(SqlFingerprint.normalize("SELECT * FROM users WHERE name = 'O''Brien'"))
+        .isEqualTo("SELECT * FROM users WHERE name = ?");
+    assertThat(SqlFingerprint.normalize("UPDATE t SET a = 1.5e10, b = 0x1F, c = .5 WHERE d = $1"))
+        .isEqualTo("UPDATE t SET a = ?, b = ?, c = ? WHERE d = ?");
+  }
+
+  @Test
+  public void normalize_keepsIdentifiers() {
+    assertThat(SqlFingerprint.normalize("SELECT t1.col2, \"Col 3\" FROM t1 WHERE `x 1` = ?"))
+        .isEqualTo("SELECT t1.col2, \"Col 3\" FROM t1 WHERE `x 1` = ?");
+  }
+
+  @Test
+  public void normalize_keepsDigitsOfQualifiedNames() {
+    assertThat(SqlFingerprint.normalize("SELECT t.1col, t.c2 FROM t WHERE t.x = 1.5"))
+        .isEqualTo("SELECT t.1col, t.c2 FROM t WHERE t.x = ?");
+    assertThat(SqlFingerprint.normalize("SELECT `t`.1col FROM t LIMIT .5"))
+        .isEqualTo("SELECT `t`.1col FROM t LIMIT ?");
+  }
+
+  @Test
+  public void normalize_replacesEscapeStrings() {
+    assertThat(SqlFingerprint.normalize("SELECT * FROM t WHERE a = E'abc\\'def' AND b = e'\\\\'"))
+        .isEqualTo("SELECT * FROM t WHERE a = ? AND b = ?");
+    assertThat(SqlFingerprint.normalize("SELECT * FROM t WHERE a IN (E'x', E'y\\'')"))
+        .isEqualTo("SELECT * FROM t WHERE a IN (?)");
+    // Backslashes don't escape quotes in standard strings.
+    assertThat(SqlFingerprint.normalize("SELECT * FROM t WHERE a = 'C:\\' AND b = 'x'"))
+        .isEqualTo("SELECT * FROM t WHERE a = ? AND b = ?");
+  }
+
+  @Test
+  public void normalize_collapsesInLists() {
+    assertThat(SqlFingerprint.normalize("SELECT * FROM users WHERE id IN (1, 2, 3)"))
+        .isEqualTo("SELECT * FROM users WHERE id IN (?)");
+    assertThat(SqlFingerprint.normalize("SELECT * FROM users WHERE id in(?,?)"))
+        .isEqualTo("SELECT * FROM users WHERE id in (?)");
+    assertThat(SqlFingerprint.normalize("SELECT * FROM t WHERE id IN (SELECT id FROM u)"))
+        .isEqualTo("SELECT * FROM t WHERE id IN (SELECT id FROM u)");
+    assertThat(SqlFingerprint.normalize("INSERT INTO t (a, b) VALUES (1, 'x')"))
+        .isEqualTo("INSERT INTO t (a, b) VALUES (?, ?)");
+  }
+
+  @Test
+  public void normalize_keepsSignsWithTheirLiterals() {
+    assertThat(SqlFingerprint.normalize("SELECT * FROM users WHERE id IN (-1, 2, +3)"))
+        .isEqualTo("SELECT * FROM users WHERE id IN (?)");
+    assertThat(SqlFingerprint.normalize("SELECT * FROM t WHERE a = -1.5 AND b > -.5"))
+        .isEqualTo("SELECT * FROM t WHERE a = ? AND b > ?");
+    // Subtractions keep their operator.
+    assertThat(SqlFingerprint.normalize("SELECT a - 1, (b)-2 FROM t"))
+        .isEqualTo("SELECT a - ?, (b)-? FROM t");
+  }
+
+  @Test
+  public void normalize_collapsesValuesRows() {
+    assertThat(SqlFingerprint.normalize("INSERT INTO t (a, b) VALUES (1, 'x'), (2, 'y'),(3,'z')"))
+        .isEqualTo("INSERT INTO t (a, b) VALUES (?, ?)");
+    assertThat(SqlFingerprint.normalize("INSERT INTO t (a, b) values (?, ?), (?, ?)"))
+        .isEqualTo("INSERT INTO t (a, b) values (?, ?)");
+    // Rows that aren't all placeholders are kept.
+    assertThat(SqlFingerprint.normalize("INSERT INTO t (a, b) VALUES (1, now()), (2, now())"))
+        .isEqualTo("INSERT INTO t (a, b) VALUES (?, now()), (?, now())");
+    assertThat(
+            SqlFingerprint.normalize(
+                "INSERT INTO t (a) VALUES (1), (2) ON DUPLICATE KEY UPDATE a = VALUES(a)"))
+        .isEqualTo("INSERT INTO t (a) VALUES (?) ON DUPLICATE KEY UPDATE a = VALUES(a)");
+  }
+
+  @Test
+  public void normalize_stripsCommentsAndWhitespace() {
+    assertThat(
+            SqlFingerprint.normalize(
+                "  SELECT /* hint */ a,\n\t b -- trailing\nFROM t  WHERE c = 'x'  "))
+        .isEqualTo("SELECT a, b FROM t WHERE c = ?");
+  }
+
+  @Test
+  public void fingerprint_isCached() {
+    String sql = "SELECT * FROM users WHERE id = 7";
+    assertThat(SqlFingerprint.fingerprint(sql)).isEqualTo("SELECT * FROM users WHERE id = ?");
+    assertThat(SqlFingerprint.fingerprint(new String(sql)))
+        .isSameAs(SqlFingerprint.fingerprint(sql));
+  }
+}